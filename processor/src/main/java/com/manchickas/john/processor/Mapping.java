@@ -0,0 +1,63 @@
+package com.manchickas.john.processor;
+
+/**
+ * Describes how the value of a record component is converted from and to JSON.
+ */
+sealed interface Mapping {
+
+    /**
+     * Returns an expression evaluating to an equivalent {@code Template}, for use within composed templates.
+     */
+    String expression();
+
+    /**
+     * Represents a value read from a JSON primitive directly, without going through a template.
+     *
+     * @param element    the simple name of the JSON element class.
+     * @param name       the name of the equivalent template.
+     * @param conversion the conversion applied to the value of the element, such as {@code .intValue()}.
+     * @param template   an expression evaluating to the equivalent template.
+     * @param primitive  whether the value is a Java primitive, and may thus never be {@code null}.
+     */
+    record Inline(String element,
+                  String name,
+                  String conversion,
+                  String template,
+                  boolean primitive) implements Mapping {
+
+        static Inline string() {
+            return new Inline("JsonString", "string", "", "Template.STRING", false);
+        }
+
+        static Inline bool(boolean primitive) {
+            return new Inline("JsonBoolean", "boolean", "", "Template.BOOLEAN", primitive);
+        }
+
+        static Inline number() {
+            return new Inline("JsonNumber", "number", "", "Template.NUMBER", false);
+        }
+
+        /**
+         * @param primitive the name of the primitive type, such as {@code int}.
+         * @param boxed     the simple name of the boxed type, such as {@code Integer}.
+         * @param unboxed   whether the component is declared with the primitive type.
+         */
+        static Inline number(String primitive, String boxed, boolean unboxed) {
+            return new Inline("JsonNumber", "number", "." + primitive + "Value()",
+                    "Template.NUMBER.as" + boxed + "()", unboxed);
+        }
+
+        @Override
+        public String expression() {
+            return this.template;
+        }
+    }
+
+    /**
+     * Represents a value converted by a {@code Template} constant.
+     *
+     * @param expression an expression evaluating to the template.
+     */
+    record Composed(String expression) implements Mapping {
+    }
+}
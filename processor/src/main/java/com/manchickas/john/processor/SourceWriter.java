@@ -0,0 +1,88 @@
+package com.manchickas.john.processor;
+
+/**
+ * Accumulates the lines of a generated source file, keeping track of their indentation.
+ */
+final class SourceWriter {
+
+    private static final String INDENT = "    ";
+
+    private final StringBuilder builder;
+    private int depth;
+
+    SourceWriter() {
+        this.builder = new StringBuilder();
+        this.depth = 0;
+    }
+
+    /**
+     * Quotes the provided {@code value} as a Java string literal.
+     */
+    static String literal(String value) {
+        var builder = new StringBuilder("\"");
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append("\\u%04x".formatted((int) c));
+                        continue;
+                    }
+                    builder.append(c);
+                }
+            }
+        }
+        return builder.append('"')
+                .toString();
+    }
+
+    SourceWriter line(String format, Object... args) {
+        this.builder.append(INDENT.repeat(this.depth))
+                .append(format.formatted(args))
+                .append('\n');
+        return this;
+    }
+
+    SourceWriter blank() {
+        this.builder.append('\n');
+        return this;
+    }
+
+    /**
+     * Writes the provided line followed by an opening brace, and indents the following lines.
+     */
+    SourceWriter open(String format, Object... args) {
+        this.line(format + " {", args);
+        this.depth++;
+        return this;
+    }
+
+    SourceWriter close() {
+        this.depth--;
+        return this.line("}");
+    }
+
+    /**
+     * Writes the provided line, and indents only the line that follows it.
+     */
+    SourceWriter head(String format, Object... args) {
+        this.line(format, args);
+        this.depth++;
+        return this;
+    }
+
+    SourceWriter dedent() {
+        this.depth--;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return this.builder.toString();
+    }
+}
@@ -0,0 +1,340 @@
+package com.manchickas.john.processor;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Generates the source code of templates for records and sealed interfaces.
+ * <br><br>
+ * Generated templates read and write JSON elements directly, rather than composing the generic
+ * {@code RecordTemplate} and {@code PropertyTemplate} classes. Components of primitive types are converted in-place,
+ * while all other components are delegated to a {@code Template} constant. The error messages match the ones
+ * produced by the composed templates.
+ */
+final class TemplateGenerator {
+
+    private static final String EXPECTED = "Expected a value that would satisfy the template of type '%s'";
+    private static final String MISSING = "Expected the object to include '%s' as a property.";
+    private static final String UNKNOWN = "Encountered an unknown discriminator '%s'. Expected one of %s.";
+
+    private TemplateGenerator() {
+    }
+
+    static String generate(RecordModel model) {
+        var writer = TemplateGenerator.header(model.packageName(), model.templateName(), model.typeName());
+        var components = model.components();
+        writer.blank()
+                .line("private static final JsonNull NULL = new JsonNull();");
+        for (var component : components) {
+            if (component.mapping() instanceof Mapping.Composed mapping) {
+                writer.line("private static final Template<%s> %s = %s;",
+                        component.boxedType(), component.constant(), mapping.expression());
+            }
+        }
+        writer.blank()
+                .open("private %s()", model.templateName())
+                .close();
+        TemplateGenerator.recordParse(writer, model);
+        TemplateGenerator.recordSerialize(writer, model);
+        writer.blank()
+                .line("@Override")
+                .open("public String name(IntSet encountered)")
+                .line("if (encountered.add(this.hashCode()))")
+                .line("    return %s;", TemplateGenerator.recordName(components))
+                .line("return \">...\";")
+                .close();
+        var required = new StringJoiner(", ");
+        for (var component : components) {
+            if (!component.nullable())
+                required.add(SourceWriter.literal(component.property()));
+        }
+        writer.blank()
+                .line("@Override")
+                .open("public Shape shape()")
+                .line("return Shape.of(JsonKind.OBJECT)")
+                .line("        .withRequiredKeys(Set.of(%s));", required)
+                .close();
+        TemplateGenerator.helpers(writer, model.templateName(), true);
+        return writer.close()
+                .toString();
+    }
+
+    private static void recordParse(SourceWriter writer, RecordModel model) {
+        writer.blank()
+                .line("@Override")
+                .line("@SuppressWarnings(\"unchecked\")")
+                .open("public Result<%s> parse(JsonElement element)", model.typeName())
+                .open("if (element instanceof JsonObject object)");
+        var components = model.components();
+        var arguments = new StringJoiner(", ");
+        for (var i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            var property = SourceWriter.literal(component.property());
+            writer.line("var e%d = object.find(%s);", i, property);
+            if (component.nullable()) {
+                writer.line("%s v%d = null;", component.type(), i)
+                        .open("if (e%d != null && !(e%d instanceof JsonNull))", i, i);
+                TemplateGenerator.parseValue(writer, model, component, i, "v" + i + " = ");
+                writer.close();
+            } else {
+                writer.line("if (e%d == null)", i)
+                        .line("    return %s.missing(%s, element);", model.templateName(), property);
+                TemplateGenerator.parseValue(writer, model, component, i, "var v" + i + " = ");
+            }
+            arguments.add("v" + i);
+        }
+        writer.line("return Result.success(new %s(%s));", model.typeName(), arguments)
+                .close()
+                .line("return Result.mismatch();")
+                .close();
+    }
+
+    private static void parseValue(SourceWriter writer, RecordModel model, Component component, int i, String assignment) {
+        switch (component.mapping()) {
+            case Mapping.Inline inline -> writer.line("if (!(e%d instanceof %s j%d))", i, inline.element(), i)
+                    .line("    return %s.expected(%s, e%d);", model.templateName(), SourceWriter.literal(inline.name()), i)
+                    .line("%sj%d.value()%s;", assignment, i, inline.conversion());
+            case Mapping.Composed __ -> writer.line("var r%d = %s.parseAndPromote(e%d);", i, component.constant(), i)
+                    .line("if (!r%d.isSuccess())", i)
+                    .line("    return (Result<%s>) (Result<?>) r%d;", model.typeName(), i)
+                    .line("%sr%d.unwrap();", assignment, i);
+        }
+    }
+
+    private static void recordSerialize(SourceWriter writer, RecordModel model) {
+        var components = model.components();
+        writer.blank()
+                .line("@Override")
+                .open("public Result<JsonElement> serialize(%s value)", model.typeName())
+                .line("return this.serializeTagged(value, null, null);")
+                .close()
+                .blank()
+                .line("/**")
+                .line(" * Serializes the provided {@code value}, writing the {@code tag} under the {@code key} property")
+                .line(" * as the very first entry of the resulting object, in place of a component with the same name.")
+                .line(" */")
+                .line("@Override")
+                .open("public Result<JsonElement> serializeTagged(%s value, String key, JsonElement tag)", model.typeName())
+                .open("if (value != null)")
+                .line("var builder = ImmutableMap.<String, JsonElement>builderWithExpectedSize(%d);", components.size() + 1)
+                .line("if (key != null)")
+                .line("    builder.put(key, tag);");
+        for (var i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            var property = SourceWriter.literal(component.property());
+            writer.open("if (!%s.equals(key))", property)
+                    .line("var v%d = value.%s();", i, component.accessor());
+            if (component.nullable()) {
+                writer.line("if (v%d == null)", i)
+                        .line("    builder.put(%s, %s.NULL);", property, model.templateName())
+                        .open("else");
+                TemplateGenerator.serializeValue(writer, model, component, i, property);
+                writer.close();
+            } else {
+                TemplateGenerator.serializeValue(writer, model, component, i, property);
+            }
+            writer.close();
+        }
+        writer.line("return Result.success(new JsonObject(builder.build()));")
+                .close()
+                .line("return Result.mismatch();")
+                .close();
+    }
+
+    private static void serializeValue(SourceWriter writer, RecordModel model, Component component, int i, String property) {
+        switch (component.mapping()) {
+            case Mapping.Inline inline -> {
+                if (!inline.primitive() && !component.nullable())
+                    writer.line("if (v%d == null)", i)
+                            .line("    return %s.rejected(%s, null);", model.templateName(), SourceWriter.literal(inline.name()));
+                writer.line("builder.put(%s, new %s(v%d));", property, inline.element(), i);
+            }
+            case Mapping.Composed __ -> writer.line("var r%d = %s.serializeAndPromote(v%d);", i, component.constant(), i)
+                    .line("if (!r%d.isSuccess())", i)
+                    .line("    return r%d;", i)
+                    .line("builder.put(%s, r%d.unwrap());", property, i);
+        }
+    }
+
+    private static String recordName(List<Component> components) {
+        var builder = new StringBuilder("\"{ ");
+        for (var i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            if (i > 0)
+                builder.append(", ");
+            var property = SourceWriter.literal(component.property());
+            builder.append(property, 1, property.length() - 1)
+                    .append(": ");
+            if (component.mapping() instanceof Mapping.Inline inline) {
+                builder.append(inline.name());
+            } else {
+                builder.append("\" + ")
+                        .append(component.constant())
+                        .append(".name(encountered) + \"");
+            }
+            if (component.nullable())
+                builder.append('?');
+        }
+        return builder.append(" }\"")
+                .toString();
+    }
+
+    static String generate(UnionModel model) {
+        var writer = TemplateGenerator.header(model.packageName(), model.templateName(), model.typeName());
+        var variants = model.variants();
+        writer.blank();
+        for (var i = 0; i < variants.size(); i++)
+            writer.line("private static final JsonString TAG_%d = new JsonString(%s);", i, SourceWriter.literal(variants.get(i).tag()));
+        writer.blank()
+                .open("private %s()", model.templateName())
+                .close();
+        var discriminator = SourceWriter.literal(model.discriminator());
+        var tags = new StringJoiner(", ", "[", "]");
+        for (var variant : variants)
+            tags.add(variant.tag());
+        writer.blank()
+                .line("@Override")
+                .line("@SuppressWarnings(\"unchecked\")")
+                .open("public Result<%s> parse(JsonElement element)", model.typeName())
+                .open("if (element instanceof JsonObject object)")
+                .line("var tag = object.find(%s);", discriminator)
+                .line("if (tag == null)")
+                .line("    return %s.missing(%s, element);", model.templateName(), discriminator)
+                .line("if (!(tag instanceof JsonString string))")
+                .line("    return %s.expected(\"string\", tag);", model.templateName())
+                .open("return switch (string.value())");
+        for (var variant : variants)
+            writer.line("case %s -> (Result<%s>) (Result<?>) %s.INSTANCE.parseAndPromote(element);",
+                    SourceWriter.literal(variant.tag()), model.typeName(), variant.templateName());
+        writer.line("default -> Result.error(%s", SourceWriter.literal(UNKNOWN))
+                .line("        .formatted(string.value(), %s), tag.span());", SourceWriter.literal(tags.toString()))
+                .dedent()
+                .line("};")
+                .close()
+                .line("return Result.mismatch();")
+                .close();
+        writer.blank()
+                .line("@Override")
+                .open("public Result<JsonElement> serialize(%s value)", model.typeName())
+                .open("return switch (value)");
+        for (var i = 0; i < variants.size(); i++) {
+            var variant = variants.get(i);
+            writer.line("case %s variant -> %s.INSTANCE.serializeTagged(variant, %s, TAG_%d);",
+                    variant.typeName(), variant.templateName(), discriminator, i);
+        }
+        writer.line("case null -> Result.mismatch();")
+                .dedent()
+                .line("};")
+                .close();
+        writer.blank()
+                .line("@Override")
+                .open("public String name(IntSet encountered)")
+                .line("return %s;", SourceWriter.literal("{ " + model.discriminator() + ": string, ... }"))
+                .close()
+                .blank()
+                .line("@Override")
+                .open("public Shape shape()")
+                .line("return Shape.of(JsonKind.OBJECT)")
+                .line("        .withRequiredKeys(Set.of(%s));", discriminator)
+                .close();
+        TemplateGenerator.helpers(writer, model.templateName(), false);
+        return writer.close()
+                .toString();
+    }
+
+    private static SourceWriter header(String packageName, String templateName, String typeName) {
+        var writer = new SourceWriter();
+        if (!packageName.isEmpty())
+            writer.line("package %s;", packageName)
+                    .blank();
+        return writer.line("import com.google.common.collect.ImmutableMap;")
+                .line("import com.manchickas.john.ast.JsonElement;")
+                .line("import com.manchickas.john.ast.JsonKind;")
+                .line("import com.manchickas.john.ast.JsonObject;")
+                .line("import com.manchickas.john.ast.primitive.JsonBoolean;")
+                .line("import com.manchickas.john.ast.primitive.JsonNull;")
+                .line("import com.manchickas.john.ast.primitive.JsonNumber;")
+                .line("import com.manchickas.john.ast.primitive.JsonString;")
+                .line("import com.manchickas.john.position.SourceSpan;")
+                .line("import com.manchickas.john.template.Result;")
+                .line("import com.manchickas.john.template.Shape;")
+                .line("import com.manchickas.john.template.Template;")
+                .line("import it.unimi.dsi.fastutil.ints.IntSet;")
+                .blank()
+                .line("import javax.annotation.processing.Generated;")
+                .line("import java.util.Set;")
+                .blank()
+                .line("@Generated(%s)", SourceWriter.literal(TemplateProcessor.class.getName()))
+                .open("public final class %s implements Template<%s>", templateName, typeName)
+                .blank()
+                .line("public static final %s INSTANCE = new %s();", templateName, templateName);
+    }
+
+    private static void helpers(SourceWriter writer, String templateName, boolean record) {
+        writer.blank()
+                .open("private static <T> Result<T> missing(String property, JsonElement element)")
+                .line("return Result.error(%s.formatted(property), element.span());", SourceWriter.literal(MISSING))
+                .close()
+                .blank()
+                .open("private static <T> Result<T> expected(String type, JsonElement element)")
+                .line("return Result.error(%s.formatted(type), element.span());", SourceWriter.literal(EXPECTED))
+                .close();
+        if (record)
+            writer.blank()
+                    .open("private static <T> Result<T> rejected(String type, Object value)")
+                    .line("return Result.error(%s.formatted(type), SourceSpan.lineWide(String.valueOf(value), 1));", SourceWriter.literal(EXPECTED))
+                    .close();
+    }
+
+    /**
+     * @param packageName  the package of the record, and of the generated template.
+     * @param templateName the simple name of the generated template.
+     * @param typeName     the canonical name of the record.
+     * @param components   the components of the record, in declaration order.
+     */
+    record RecordModel(String packageName,
+                       String templateName,
+                       String typeName,
+                       List<Component> components) {
+    }
+
+    /**
+     * @param property  the name of the JSON property.
+     * @param accessor  the name of the accessor method.
+     * @param type      the declared type of the component.
+     * @param boxedType the declared type of the component, with primitives boxed.
+     * @param mapping   the way the value is converted from and to JSON.
+     * @param nullable  whether the component is optional.
+     * @param constant  the name of the template constant, if the mapping is {@link Mapping.Composed composed}.
+     */
+    record Component(String property,
+                     String accessor,
+                     String type,
+                     String boxedType,
+                     Mapping mapping,
+                     boolean nullable,
+                     String constant) {
+    }
+
+    /**
+     * @param packageName   the package of the sealed interface, and of the generated template.
+     * @param templateName  the simple name of the generated template.
+     * @param typeName      the canonical name of the sealed interface.
+     * @param discriminator the name of the discriminator property.
+     * @param variants      the permitted records.
+     */
+    record UnionModel(String packageName,
+                      String templateName,
+                      String typeName,
+                      String discriminator,
+                      List<Variant> variants) {
+    }
+
+    /**
+     * @param tag          the value of the discriminator identifying the variant.
+     * @param typeName     the canonical name of the record.
+     * @param templateName the qualified name of the template generated for the record.
+     */
+    record Variant(String tag, String typeName, String templateName) {
+    }
+}
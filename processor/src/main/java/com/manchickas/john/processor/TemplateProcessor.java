@@ -0,0 +1,429 @@
+package com.manchickas.john.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Generates templates for records and sealed interfaces annotated with {@code @JsonTemplate}.
+ * <br><br>
+ * The annotations are referred to by name, so that the processor doesn't depend on the library itself.
+ * Permitted subclasses of an annotated sealed interface get their templates generated as well,
+ * regardless of whether they're annotated themselves.
+ */
+public final class TemplateProcessor extends AbstractProcessor {
+
+    private static final String TEMPLATE = "com.manchickas.john.annotation.JsonTemplate";
+    private static final String NAME = "com.manchickas.john.annotation.JsonName";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(TEMPLATE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment environment) {
+        var annotation = this.processingEnv.getElementUtils()
+                .getTypeElement(TEMPLATE);
+        if (annotation == null)
+            return false;
+        for (var element : environment.getElementsAnnotatedWith(annotation)) {
+            if (element instanceof TypeElement type)
+                this.generate(type);
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        var name = type.getQualifiedName()
+                .toString();
+        if (!this.generated.add(name) || !this.validate(type))
+            return;
+        try {
+            if (type.getKind() == ElementKind.RECORD) {
+                var model = this.record(type);
+                if (model != null)
+                    this.write(type, model.packageName(), model.templateName(), TemplateGenerator.generate(model));
+                return;
+            }
+            if (type.getKind() == ElementKind.INTERFACE && type.getModifiers().contains(Modifier.SEALED)) {
+                var model = this.union(type);
+                if (model != null)
+                    this.write(type, model.packageName(), model.templateName(), TemplateGenerator.generate(model));
+                return;
+            }
+            this.error(type, "Expected @JsonTemplate to annotate either a record or a sealed interface.");
+        } catch (IOException e) {
+            this.error(type, "Could not write the template of '%s': %s".formatted(name, e.getMessage()));
+        }
+    }
+
+    private boolean validate(TypeElement type) {
+        if (!type.getTypeParameters().isEmpty()) {
+            this.error(type, "Expected '%s' to declare no type parameters.".formatted(type.getSimpleName()));
+            return false;
+        }
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                this.error(type, "Expected '%s' to be accessible from within its package.".formatted(type.getSimpleName()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TemplateGenerator.RecordModel record(TypeElement type) {
+        var components = new ArrayList<TemplateGenerator.Component>();
+        var names = new HashSet<String>();
+        for (var element : type.getRecordComponents()) {
+            var property = this.property(element);
+            if (!names.add(property)) {
+                this.error(element, "Encountered a duplicate property '%s'.".formatted(property));
+                return null;
+            }
+            var componentType = element.asType();
+            var mapping = this.mapping(componentType, element);
+            if (mapping == null)
+                return null;
+            var nullable = !componentType.getKind().isPrimitive() && this.isNullable(element);
+            var constant = mapping instanceof Mapping.Composed
+                    ? TemplateProcessor.constant(element.getSimpleName().toString())
+                    : null;
+            components.add(new TemplateGenerator.Component(
+                    property,
+                    element.getSimpleName().toString(),
+                    this.typeName(componentType),
+                    this.boxedTypeName(componentType),
+                    mapping,
+                    nullable,
+                    constant
+            ));
+        }
+        return new TemplateGenerator.RecordModel(
+                this.packageName(type),
+                TemplateProcessor.templateName(type),
+                this.typeName(type.asType()),
+                List.copyOf(components)
+        );
+    }
+
+    private TemplateGenerator.UnionModel union(TypeElement type) {
+        var variants = new ArrayList<TemplateGenerator.Variant>();
+        var tags = new HashSet<String>();
+        for (var permitted : type.getPermittedSubclasses()) {
+            var element = (TypeElement) this.processingEnv.getTypeUtils()
+                    .asElement(permitted);
+            if (element.getKind() != ElementKind.RECORD) {
+                this.error(type, "Expected the permitted subclass '%s' to be a record.".formatted(element.getSimpleName()));
+                return null;
+            }
+            var tag = this.annotationValue(element, NAME, "value");
+            if (tag == null)
+                tag = element.getSimpleName().toString();
+            if (!tags.add(tag)) {
+                this.error(element, "Encountered a duplicate discriminator '%s'.".formatted(tag));
+                return null;
+            }
+            this.generate(element);
+            var packageName = this.packageName(element);
+            var templateName = TemplateProcessor.templateName(element);
+            variants.add(new TemplateGenerator.Variant(
+                    tag,
+                    this.typeName(element.asType()),
+                    packageName.isEmpty() ? templateName : packageName + '.' + templateName
+            ));
+        }
+        var discriminator = this.annotationValue(type, TEMPLATE, "discriminator");
+        return new TemplateGenerator.UnionModel(
+                this.packageName(type),
+                TemplateProcessor.templateName(type),
+                this.typeName(type.asType()),
+                discriminator == null ? "type" : discriminator,
+                List.copyOf(variants)
+        );
+    }
+
+    /**
+     * Resolves the {@link Mapping} of a component of the provided {@code type}, reporting an error on the
+     * {@code component} if the type isn't supported.
+     */
+    private Mapping mapping(TypeMirror type, Element component) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return Mapping.Inline.bool(true);
+            case BYTE:
+                return Mapping.Inline.number("byte", "Byte", true);
+            case SHORT:
+                return Mapping.Inline.number("short", "Short", true);
+            case INT:
+                return Mapping.Inline.number("int", "Integer", true);
+            case LONG:
+                return Mapping.Inline.number("long", "Long", true);
+            case FLOAT:
+                return Mapping.Inline.number("float", "Float", true);
+            case DOUBLE:
+                return Mapping.Inline.number("double", "Double", true);
+            case ARRAY: {
+                var componentType = ((ArrayType) type).getComponentType();
+                var mapping = this.mapping(componentType, component);
+                if (mapping == null)
+                    return null;
+                if (componentType.getKind().isPrimitive()) {
+                    this.error(component, "Expected the array to hold references, not primitives.");
+                    return null;
+                }
+                return new Mapping.Composed("%s.array(%s[]::new)".formatted(mapping.expression(), this.typeName(componentType)));
+            }
+            case DECLARED:
+                break;
+            default:
+                this.error(component, "Encountered an unsupported type '%s'.".formatted(this.typeName(type)));
+                return null;
+        }
+        var declared = (DeclaredType) type;
+        var element = (TypeElement) declared.asElement();
+        var arguments = declared.getTypeArguments();
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.String":
+                return Mapping.Inline.string();
+            case "java.lang.Boolean":
+                return Mapping.Inline.bool(false);
+            case "java.lang.Byte":
+                return Mapping.Inline.number("byte", "Byte", false);
+            case "java.lang.Short":
+                return Mapping.Inline.number("short", "Short", false);
+            case "java.lang.Integer":
+                return Mapping.Inline.number("int", "Integer", false);
+            case "java.lang.Long":
+                return Mapping.Inline.number("long", "Long", false);
+            case "java.lang.Float":
+                return Mapping.Inline.number("float", "Float", false);
+            case "java.lang.Double":
+                return Mapping.Inline.number("double", "Double", false);
+            case "java.lang.Number":
+                return Mapping.Inline.number();
+            case "com.manchickas.john.ast.JsonElement":
+                return new Mapping.Composed("Template.ANY");
+            case "java.util.List": {
+                if (arguments.size() != 1 || arguments.getFirst().getKind() != TypeKind.DECLARED) {
+                    this.error(component, "Expected the list to declare its element type.");
+                    return null;
+                }
+                var argument = arguments.getFirst();
+                var mapping = this.mapping(argument, component);
+                if (mapping == null)
+                    return null;
+                var argumentName = this.typeName(argument);
+                return new Mapping.Composed("%s.array(%s[]::new).map(java.util.List::of, list -> list.toArray(%s[]::new))"
+                        .formatted(mapping.expression(), argumentName, argumentName));
+            }
+            case "java.util.Map": {
+                if (arguments.size() != 2 || !this.isString(arguments.get(0)) || arguments.get(1).getKind() != TypeKind.DECLARED) {
+                    this.error(component, "Expected the map to be keyed by strings.");
+                    return null;
+                }
+                var mapping = this.mapping(arguments.get(1), component);
+                if (mapping == null)
+                    return null;
+                return new Mapping.Composed("Template.map(%s)".formatted(mapping.expression()));
+            }
+        }
+        if (!arguments.isEmpty()) {
+            this.error(component, "Encountered an unsupported generic type '%s'.".formatted(this.typeName(type)));
+            return null;
+        }
+        if (element.getKind() == ElementKind.ENUM)
+            return new Mapping.Composed("Template.enumOf(%s.class)".formatted(this.typeName(type)));
+        if (this.hasAnnotation(element, TEMPLATE)) {
+            var packageName = this.packageName(element);
+            var templateName = TemplateProcessor.templateName(element);
+            return new Mapping.Composed((packageName.isEmpty() ? templateName : packageName + '.' + templateName) + ".INSTANCE");
+        }
+        this.error(component, "Encountered an unsupported type '%s'. Consider annotating it with @JsonTemplate.".formatted(this.typeName(type)));
+        return null;
+    }
+
+    private boolean isString(TypeMirror type) {
+        return type instanceof DeclaredType declared
+                && ((TypeElement) declared.asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    /**
+     * Determines whether the {@code component} is annotated with any annotation named {@code Nullable},
+     * be it on the component itself, its type, or its accessor.
+     */
+    private boolean isNullable(RecordComponentElement component) {
+        if (TemplateProcessor.hasNullable(component.getAnnotationMirrors()))
+            return true;
+        if (TemplateProcessor.hasNullable(component.asType().getAnnotationMirrors()))
+            return true;
+        ExecutableElement accessor = component.getAccessor();
+        return accessor != null && TemplateProcessor.hasNullable(accessor.getAnnotationMirrors());
+    }
+
+    private static boolean hasNullable(List<? extends AnnotationMirror> annotations) {
+        for (var annotation : annotations) {
+            if (annotation.getAnnotationType().asElement().getSimpleName().contentEquals("Nullable"))
+                return true;
+        }
+        return false;
+    }
+
+    private String property(RecordComponentElement component) {
+        var name = this.annotationValue(component, NAME, "value");
+        if (name == null) {
+            var accessor = component.getAccessor();
+            if (accessor != null)
+                name = this.annotationValue(accessor, NAME, "value");
+        }
+        return name == null ? component.getSimpleName().toString() : name;
+    }
+
+    private boolean hasAnnotation(Element element, String annotation) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value of the {@code attribute} of the {@code annotation} present on the {@code element},
+     * falling back to its default value, or {@code null} if the annotation isn't present.
+     */
+    private String annotationValue(Element element, String annotation, String attribute) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+                continue;
+            var values = this.processingEnv.getElementUtils()
+                    .getElementValuesWithDefaults(mirror);
+            for (var entry : values.entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                    AnnotationValue value = entry.getValue();
+                    return String.valueOf(value.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private String packageName(TypeElement type) {
+        PackageElement element = this.processingEnv.getElementUtils()
+                .getPackageOf(type);
+        return element.getQualifiedName()
+                .toString();
+    }
+
+    /**
+     * Renders the provided {@code type} as it would be written in source code, omitting type annotations.
+     */
+    private String typeName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "boolean";
+            case BYTE -> "byte";
+            case SHORT -> "short";
+            case INT -> "int";
+            case LONG -> "long";
+            case CHAR -> "char";
+            case FLOAT -> "float";
+            case DOUBLE -> "double";
+            case ARRAY -> this.typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED -> {
+                var declared = (DeclaredType) type;
+                var builder = new StringBuilder(((TypeElement) declared.asElement()).getQualifiedName());
+                var arguments = declared.getTypeArguments();
+                if (!arguments.isEmpty()) {
+                    builder.append('<');
+                    for (var i = 0; i < arguments.size(); i++) {
+                        if (i > 0)
+                            builder.append(", ");
+                        builder.append(this.typeName(arguments.get(i)));
+                    }
+                    builder.append('>');
+                }
+                yield builder.toString();
+            }
+            default -> type.toString();
+        };
+    }
+
+    private String boxedTypeName(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return this.processingEnv.getTypeUtils()
+                    .boxedClass((PrimitiveType) type)
+                    .getQualifiedName()
+                    .toString();
+        return this.typeName(type);
+    }
+
+    private void write(TypeElement origin, String packageName, String templateName, String source) throws IOException {
+        var name = packageName.isEmpty() ? templateName : packageName + '.' + templateName;
+        var file = this.processingEnv.getFiler()
+                .createSourceFile(name, origin);
+        try (var writer = file.openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private void error(Element element, String message) {
+        this.processingEnv.getMessager()
+                .printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Returns the simple name of the template generated for the provided {@code type}, joining the names
+     * of its enclosing types with underscores, as in {@code Outer_PersonTemplate}.
+     */
+    private static String templateName(TypeElement type) {
+        var builder = new StringBuilder(type.getSimpleName());
+        for (var current = type.getEnclosingElement(); current instanceof TypeElement enclosing; current = current.getEnclosingElement())
+            builder.insert(0, '_')
+                    .insert(0, enclosing.getSimpleName());
+        return builder.append("Template")
+                .toString();
+    }
+
+    /**
+     * Converts a camel-cased component name into the name of a template constant, as in {@code birthDate -> BIRTH_DATE_TEMPLATE}.
+     */
+    private static String constant(String name) {
+        var builder = new StringBuilder();
+        for (var i = 0; i < name.length(); i++) {
+            var c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0)
+                builder.append('_');
+            builder.append(c);
+        }
+        return builder.append("_TEMPLATE")
+                .toString()
+                .toUpperCase(Locale.ROOT);
+    }
+}
@@ -3,16 +3,52 @@ package com.manchickas.john;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.parser.ParallelParser;
 import com.manchickas.john.parser.Parser;
+import com.manchickas.john.parser.Projection;
+import com.manchickas.john.parser.ProjectionParser;
+import com.manchickas.john.path.JsonPath;
 import com.manchickas.john.position.SourceSpan;
+import com.manchickas.john.reader.SlidingSource;
+import com.manchickas.john.reader.SourceRegion;
 import com.manchickas.john.reader.StringReader;
+import com.manchickas.john.stream.AsyncFileInputStream;
+import com.manchickas.john.stream.AsyncFileOutputStream;
+import com.manchickas.john.stream.Compression;
+import com.manchickas.john.stream.JsonArrayPublisher;
+import com.manchickas.john.stream.JsonArrayReader;
+import com.manchickas.john.stream.JsonEncoder;
+import com.manchickas.john.stream.JsonLinesReader;
+import com.manchickas.john.stream.JsonReformatter;
+import com.manchickas.john.stream.JsonSequenceReader;
 import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateProjector;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 /**
  * The {@code John} class provides a collection of {@code public static} methods for various JSON-related tasks,
@@ -24,6 +60,12 @@ import java.nio.file.Path;
  */
 public final class John {
 
+    /**
+     * The {@link Parser}s reused across the calls made on the same platform thread. Virtual threads are short-lived,
+     * and thus get a new {@link Parser} per call instead.
+     */
+    private static final ThreadLocal<Parser> PARSERS = ThreadLocal.withInitial(() -> new Parser(""));
+
     private John() {
     }
 
@@ -40,8 +82,205 @@ public final class John {
      */
     @NotNull
     public static JsonElement parse(String source) throws JsonException {
-        var parser = new Parser(source);
-        return parser.parse();
+        return John.parseInPlace(source);
+    }
+
+    /**
+     * Attempts to parse the provided region of the {@code source} into an arbitrary {@link JsonElement},
+     * reading the region in place, without copying it into a {@link String} first.
+     * <br><br>
+     * The {@link SourceSpan}s of the constructed elements are relative to the region, as if it was the whole source.
+     *
+     * @param source the sequence containing the JSON to parse.
+     * @param offset the index of the first character of the region.
+     * @param length the number of characters in the region.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException             if the region contains any invalid JSON.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code source}.
+     * @since 3.1.0
+     */
+    @NotNull
+    public static JsonElement parse(CharSequence source, int offset, int length) throws JsonException {
+        Objects.checkFromIndexSize(offset, length, source.length());
+        return John.parseInPlace(CharBuffer.wrap(source, offset, offset + length));
+    }
+
+    /**
+     * Attempts to parse the provided region of the {@code source} into an arbitrary {@link JsonElement},
+     * reading the region in place, without copying it into a {@link String} first.
+     *
+     * @param source the buffer containing the JSON to parse.
+     * @param offset the index of the first character of the region.
+     * @param length the number of characters in the region.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException             if the region contains any invalid JSON.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code source}.
+     * @see #parse(CharSequence, int, int)
+     * @since 3.1.0
+     */
+    @NotNull
+    public static JsonElement parse(char[] source, int offset, int length) throws JsonException {
+        return John.parseInPlace(SourceRegion.of(source, offset, length));
+    }
+
+    /**
+     * Attempts to parse the provided region of the UTF-8 encoded {@code source} into an arbitrary {@link JsonElement}.
+     * <br><br>
+     * Regions consisting solely of ASCII characters are read in place, while any other region gets decoded first.
+     *
+     * @param source the buffer containing the JSON to parse.
+     * @param offset the index of the first byte of the region.
+     * @param length the number of bytes in the region.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException             if the region contains any invalid JSON.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code source}.
+     * @see #parse(CharSequence, int, int)
+     * @see SourceRegion
+     * @since 3.1.0
+     */
+    @NotNull
+    public static JsonElement parse(byte[] source, int offset, int length) throws JsonException {
+        return John.parseInPlace(SourceRegion.of(source, offset, length));
+    }
+
+    /**
+     * Attempts to parse the provided region of the {@code source} into a typed value, based on the provided {@link Template}.
+     *
+     * @param source   the sequence containing the JSON to parse.
+     * @param offset   the index of the first character of the region.
+     * @param length   the number of characters in the region.
+     * @param template the template the JSON must satisfy.
+     * @return the parsed from the {@link JsonElement} value.
+     * @throws JsonException             if the region contains any invalid JSON, or if the parsed JSON doesn't satisfy the provided {@code template}.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code source}.
+     * @see #parse(CharSequence, int, int)
+     * @since 3.1.0
+     */
+    public static <T> T parse(CharSequence source, int offset, int length, Template<T> template) throws JsonException {
+        return John.parse(source, offset, length).expect(template);
+    }
+
+    /**
+     * Attempts to parse the provided region of the {@code source} into a typed value, based on the provided {@link Template}.
+     *
+     * @param source   the buffer containing the JSON to parse.
+     * @param offset   the index of the first character of the region.
+     * @param length   the number of characters in the region.
+     * @param template the template the JSON must satisfy.
+     * @return the parsed from the {@link JsonElement} value.
+     * @throws JsonException             if the region contains any invalid JSON, or if the parsed JSON doesn't satisfy the provided {@code template}.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code source}.
+     * @see #parse(char[], int, int)
+     * @since 3.1.0
+     */
+    public static <T> T parse(char[] source, int offset, int length, Template<T> template) throws JsonException {
+        return John.parse(source, offset, length).expect(template);
+    }
+
+    /**
+     * Attempts to parse the provided region of the UTF-8 encoded {@code source} into a typed value, based on the provided {@link Template}.
+     *
+     * @param source   the buffer containing the JSON to parse.
+     * @param offset   the index of the first byte of the region.
+     * @param length   the number of bytes in the region.
+     * @param template the template the JSON must satisfy.
+     * @return the parsed from the {@link JsonElement} value.
+     * @throws JsonException             if the region contains any invalid JSON, or if the parsed JSON doesn't satisfy the provided {@code template}.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code source}.
+     * @see #parse(byte[], int, int)
+     * @since 3.1.0
+     */
+    public static <T> T parse(byte[] source, int offset, int length, Template<T> template) throws JsonException {
+        return John.parse(source, offset, length).expect(template);
+    }
+
+    /**
+     * Attempts to parse the contents of the provided {@code reader} into an arbitrary {@link JsonElement},
+     * reading it incrementally, rather than reading it into a {@link String} first.
+     * <br><br>
+     * Only the part of the contents around the lexeme being read is held in memory at any time, so that parsing
+     * requires little more memory than the resulting {@link JsonElement} itself. The {@link SourceSpan}s of the
+     * constructed elements refer to excerpts of the lines they lie within, rather than the whole lines.
+     * The {@code reader} is read up until the end of the first value, and isn't closed.
+     *
+     * @param reader the reader to read the JSON from.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the contents contain any invalid JSON.
+     * @throws IOException   if any I/O error occurs while reading.
+     * @see SlidingSource
+     * @since 3.1.0
+     */
+    @NotNull
+    public static JsonElement parse(Reader reader) throws JsonException, IOException {
+        try {
+            return new Parser(new SlidingSource(reader))
+                    .parse();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Attempts to parse the UTF-8 encoded contents of the provided {@code stream} into an arbitrary {@link JsonElement},
+     * reading it incrementally.
+     * <br><br>
+     * Streams compressed in any of the supported {@linkplain Compression formats}, such as the contents of {@code .json.gz} files,
+     * are decompressed block-by-block as they're read, the compression being detected from their first bytes.
+     *
+     * @param stream the stream to read the JSON from.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the contents contain any invalid JSON.
+     * @throws IOException   if any I/O error occurs while reading.
+     * @see #parse(Reader)
+     * @since 3.1.0
+     */
+    @NotNull
+    public static JsonElement parse(InputStream stream) throws JsonException, IOException {
+        return John.parse(new InputStreamReader(Compression.decompressDetected(stream), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Attempts to parse the contents of the provided {@code reader} into a typed value, based on the provided {@link Template},
+     * reading it incrementally.
+     *
+     * @param reader   the reader to read the JSON from.
+     * @param template the template the JSON must satisfy.
+     * @return the parsed from the {@link JsonElement} value.
+     * @throws JsonException if the contents contain any invalid JSON, or if the parsed JSON doesn't satisfy the provided {@code template}.
+     * @throws IOException   if any I/O error occurs while reading.
+     * @see #parse(Reader)
+     * @since 3.1.0
+     */
+    public static <T> T parse(Reader reader, Template<T> template) throws JsonException, IOException {
+        return John.parse(reader).expect(template);
+    }
+
+    /**
+     * Attempts to parse the UTF-8 encoded contents of the provided {@code stream} into a typed value,
+     * based on the provided {@link Template}, reading it incrementally.
+     *
+     * @param stream   the stream to read the JSON from.
+     * @param template the template the JSON must satisfy.
+     * @return the parsed from the {@link JsonElement} value.
+     * @throws JsonException if the contents contain any invalid JSON, or if the parsed JSON doesn't satisfy the provided {@code template}.
+     * @throws IOException   if any I/O error occurs while reading.
+     * @see #parse(Reader)
+     * @since 3.1.0
+     */
+    public static <T> T parse(InputStream stream, Template<T> template) throws JsonException, IOException {
+        return John.parse(stream).expect(template);
+    }
+
+    private static JsonElement parseInPlace(CharSequence source) throws JsonException {
+        if (Thread.currentThread().isVirtual())
+            return new Parser(source).parse();
+        var parser = PARSERS.get();
+        try {
+            return parser.reset(source)
+                    .parse();
+        } finally {
+            parser.release();
+        }
     }
 
     /**
@@ -60,8 +299,62 @@ public final class John {
         return John.parse(source).expect(template);
     }
 
+    /**
+     * Attempts to parse the provided {@code source} into an arbitrary {@link JsonElement}, splitting the elements
+     * of the top-level array, if any, across the threads of the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     * <br><br>
+     * The result, as well as any error, is identical to the one of {@link #parse(String)}. Parallel parsing only
+     * pays off for sources of at least a few megabytes.
+     *
+     * @param source the source containing the JSON to parse.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the {@code source} contains any invalid JSON.
+     * @see ParallelParser
+     * @since 3.1.0
+     */
+    @NotNull
+    public static JsonElement parseParallel(String source) throws JsonException {
+        var parser = new ParallelParser(source);
+        return parser.parse();
+    }
+
+    /**
+     * Attempts to parse the provided {@code source} into a typed value, based on the provided {@link Template},
+     * splitting the elements of the top-level array, if any, across the threads of the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     *
+     * @param source   the source containing the JSON to parse.
+     * @param template the {@link Template} that the parsed value must satisfy.
+     * @return the parsed value.
+     * @throws JsonException if the {@code source} contains any invalid JSON, or the parsed value doesn't satisfy the provided {@link Template}.
+     * @see #parseParallel(String)
+     * @since 3.1.0
+     */
+    public static <T> T parseParallel(String source, Template<T> template) throws JsonException {
+        return John.parseParallel(source).expect(template);
+    }
+
+    /**
+     * Attempts to parse the provided {@code source} into an arbitrary {@link JsonElement}, splitting the elements
+     * of the array at the provided {@code path}, if any, across the threads of the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     *
+     * @param source the source containing the JSON to parse.
+     * @param path   the path of the array to parse in parallel, consisting only of property segments.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the {@code source} contains any invalid JSON.
+     * @see #parseParallel(String)
+     * @since 3.1.0
+     */
+    @NotNull
+    public static JsonElement parseParallel(String source, JsonPath path) throws JsonException {
+        var parser = new ParallelParser(source);
+        return parser.parse(path);
+    }
+
     /**
      * Reads the file at the provided {@code path} and attempts to parse its contents into an arbitrary {@link JsonElement}.
+     * <br><br>
+     * Files compressed in any of the supported {@linkplain Compression formats} are parsed incrementally,
+     * as described by {@link #parse(InputStream)}, without being decompressed as a whole.
      *
      * @param path the path to read the file from.
      * @return the parsed {@link JsonElement}.
@@ -71,7 +364,11 @@ public final class John {
      */
     @NotNull
     public static JsonElement parse(Path path) throws JsonException, IOException {
-        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+        try (var stream = new BufferedInputStream(Files.newInputStream(path))) {
+            var compression = Compression.detect(stream);
+            if (compression != Compression.NONE)
+                return John.parse(new InputStreamReader(compression.decompress(stream), StandardCharsets.UTF_8));
+            var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8.newDecoder()));
             var builder = new StringBuilder();
             String line;
             while ((line = reader.readLine()) != null)
@@ -98,6 +395,404 @@ public final class John {
         return John.parse(path).expect(template);
     }
 
+    /**
+     * Asynchronously parses the contents of the provided {@code channel} into a typed value, based on the provided {@link Template}.
+     * <br><br>
+     * The contents are parsed incrementally by a virtual thread, as described by {@link #parse(InputStream)},
+     * while the next block of the file is already being read, so that the I/O overlaps with the parsing.
+     * The {@code channel} is read from its start, and isn't closed.
+     *
+     * @param channel  the channel to read the JSON from.
+     * @param template the template the JSON must satisfy.
+     * @return a {@link CompletableFuture} completed with the parsed value, or completed exceptionally with a {@link JsonException}
+     * if the contents contain any invalid JSON, or don't satisfy the provided {@code template}, or with an {@link IOException}
+     * if any I/O error occurs while reading.
+     * @see AsyncFileInputStream
+     * @since 3.1.0
+     */
+    public static <T> CompletableFuture<T> parseAsync(AsynchronousFileChannel channel, Template<T> template) {
+        return John.supplyAsync(() -> {
+            try (var stream = new AsyncFileInputStream(channel)) {
+                return John.parse(stream, template);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously parses the contents of the provided {@code channel} into a typed value, based on the provided {@link Template}.
+     * <br><br>
+     * The contents are read and parsed incrementally by a virtual thread, as described by {@link #parse(InputStream)},
+     * which only parks while the {@code channel} blocks. The {@code channel} isn't closed.
+     *
+     * @param channel  the channel to read the JSON from.
+     * @param template the template the JSON must satisfy.
+     * @return a {@link CompletableFuture} completed with the parsed value, or completed exceptionally with a {@link JsonException}
+     * if the contents contain any invalid JSON, or don't satisfy the provided {@code template}, or with an {@link IOException}
+     * if any I/O error occurs while reading.
+     * @since 3.1.0
+     */
+    public static <T> CompletableFuture<T> parseAsync(ReadableByteChannel channel, Template<T> template) {
+        return John.supplyAsync(() -> John.parse(Channels.newInputStream(channel), template));
+    }
+
+    /**
+     * Asynchronously stringifies the provided {@code value} into a <b>minified</b> JSON string, based on the provided {@link Template},
+     * and writes it to the provided {@code channel} as UTF-8, replacing its previous contents.
+     * <br><br>
+     * The value is {@linkplain #serialize(Object, Template) serialized} on a virtual thread, which then encodes the resulting
+     * {@link JsonElement} block-by-block, while the previous block is still being written, so that the I/O overlaps with
+     * the encoding, and the JSON is never held in memory as a whole.
+     * The {@code channel} is written from its start and truncated to the length of the JSON, but isn't closed.
+     *
+     * @param value    the value to stringify.
+     * @param template the {@link Template} the {@code value} must satisfy.
+     * @param channel  the channel to write the JSON to.
+     * @return a {@link CompletableFuture} completed once the JSON has been written, or completed exceptionally with
+     * a {@link JsonException} if the {@code value} doesn't satisfy the provided {@code template}, or with an {@link IOException}
+     * if any I/O error occurs while writing.
+     * @see AsyncFileOutputStream
+     * @see #parseAsync(AsynchronousFileChannel, Template)
+     * @since 3.1.0
+     */
+    public static <T> CompletableFuture<Void> stringifyAsync(T value, Template<T> template, AsynchronousFileChannel channel) {
+        return John.supplyAsync(() -> {
+            var element = John.serialize(value, template);
+            var stream = new AsyncFileOutputStream(channel);
+            try (var writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
+                JsonEncoder.encode(element, writer);
+            }
+            channel.truncate(stream.position());
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronously stringifies the provided {@code value} into a <b>minified</b> JSON string, based on the provided {@link Template},
+     * and writes it to the provided {@code channel} as UTF-8.
+     * <br><br>
+     * The value is {@linkplain #serialize(Object, Template) serialized}, and its JSON encoded and written in chunks,
+     * as by {@link #stringifyAsync(Object, Template, AsynchronousFileChannel)}, by a virtual thread which only parks
+     * while the {@code channel} blocks. The {@code channel} isn't closed.
+     *
+     * @param value    the value to stringify.
+     * @param template the {@link Template} the {@code value} must satisfy.
+     * @param channel  the channel to write the JSON to.
+     * @return a {@link CompletableFuture} completed once the JSON has been written, or completed exceptionally with
+     * a {@link JsonException} if the {@code value} doesn't satisfy the provided {@code template}, or with an {@link IOException}
+     * if any I/O error occurs while writing.
+     * @see #parseAsync(ReadableByteChannel, Template)
+     * @since 3.1.0
+     */
+    public static <T> CompletableFuture<Void> stringifyAsync(T value, Template<T> template, WritableByteChannel channel) {
+        return John.supplyAsync(() -> {
+            var element = John.serialize(value, template);
+            JsonEncoder.encode(element, new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+            return null;
+        });
+    }
+
+    /**
+     * Adapts the provided {@code publisher} of the bytes of a JSON array into a publisher of its elements,
+     * each bound according to the provided {@link Template}.
+     *
+     * @param publisher the publisher of the UTF-8 encoded bytes of the array.
+     * @param template  the {@link Template} each element must satisfy.
+     * @return the {@link Flow.Publisher} of the parsed elements.
+     * @see JsonArrayPublisher
+     * @since 3.1.0
+     */
+    public static <T> Flow.Publisher<T> publishArray(Flow.Publisher<ByteBuffer> publisher, Template<T> template) {
+        return new JsonArrayPublisher<>(publisher, template);
+    }
+
+    private static <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        var future = new CompletableFuture<T>();
+        Thread.startVirtualThread(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private static void closeUnchecked(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lazily parses each of the successive values the provided {@code source} consists of, such as concatenated values,
+     * or the texts of an RFC 7464 JSON text sequence, into an arbitrary {@link JsonElement}.
+     *
+     * @param source the source containing the values to parse.
+     * @return a sequential {@link Stream} of the parsed elements.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a value containing invalid JSON is encountered.
+     * @see JsonSequenceReader
+     * @since 3.1.0
+     */
+    public static Stream<JsonElement> parseAll(String source) {
+        var reader = new JsonSequenceReader(source);
+        return reader.stream();
+    }
+
+    /**
+     * Lazily parses each of the successive values the provided {@code source} consists of into a typed value,
+     * based on the provided {@link Template}.
+     *
+     * @param source   the source containing the values to parse.
+     * @param template the {@link Template} each value must satisfy.
+     * @return a sequential {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a value containing invalid JSON, or a value not satisfying the {@link Template}, is encountered.
+     * @see #parseAll(String)
+     * @since 3.1.0
+     */
+    public static <T> Stream<T> parseAll(String source, Template<T> template) {
+        var reader = new JsonSequenceReader(source);
+        return reader.stream(template);
+    }
+
+    /**
+     * Lazily parses each of the successive values the contents of the provided {@code reader} consist of
+     * into an arbitrary {@link JsonElement}, reading them incrementally.
+     * <br><br>
+     * Only the part of the contents around the value being parsed is held in memory at any time, so that sequences
+     * of any length, such as ones received over a socket, can be consumed value by value. Closing the returned stream
+     * closes the provided {@code reader} as well.
+     *
+     * @param reader the reader to read the values from.
+     * @return a sequential {@link Stream} of the parsed elements.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a value containing invalid JSON is encountered, and an {@link UncheckedIOException} if any I/O error occurs while reading.
+     * @see #parseAll(String)
+     * @since 3.1.0
+     */
+    public static Stream<JsonElement> parseAll(Reader reader) {
+        return new JsonSequenceReader(reader).stream()
+                .onClose(() -> John.closeUnchecked(reader));
+    }
+
+    /**
+     * Lazily parses each of the successive values the UTF-8 encoded contents of the provided {@code stream} consist of
+     * into an arbitrary {@link JsonElement}, reading them incrementally.
+     * <br><br>
+     * Streams compressed in any of the supported {@linkplain Compression formats} are decompressed on the fly,
+     * the compression being detected from their first bytes. Closing the returned stream closes the provided {@code stream} as well.
+     *
+     * @param stream the stream to read the values from.
+     * @return a sequential {@link Stream} of the parsed elements.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a value containing invalid JSON is encountered, and an {@link UncheckedIOException} if any I/O error occurs while reading.
+     * @see #parseAll(Reader)
+     * @since 3.1.0
+     */
+    public static Stream<JsonElement> parseAll(InputStream stream) {
+        return new JsonSequenceReader(stream).stream()
+                .onClose(() -> John.closeUnchecked(stream));
+    }
+
+    /**
+     * Lazily parses each of the successive values the contents of the provided {@code reader} consist of
+     * into a typed value, based on the provided {@link Template}, reading them incrementally.
+     *
+     * @param reader   the reader to read the values from.
+     * @param template the {@link Template} each value must satisfy.
+     * @return a sequential {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a value containing invalid JSON, or a value not satisfying the {@link Template}, is encountered,
+     * and an {@link UncheckedIOException} if any I/O error occurs while reading.
+     * @see #parseAll(Reader)
+     * @since 3.1.0
+     */
+    public static <T> Stream<T> parseAll(Reader reader, Template<T> template) {
+        return new JsonSequenceReader(reader).stream(template)
+                .onClose(() -> John.closeUnchecked(reader));
+    }
+
+    /**
+     * Lazily parses each of the successive values the UTF-8 encoded contents of the provided {@code stream} consist of
+     * into a typed value, based on the provided {@link Template}, reading them incrementally.
+     *
+     * @param stream   the stream to read the values from.
+     * @param template the {@link Template} each value must satisfy.
+     * @return a sequential {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a value containing invalid JSON, or a value not satisfying the {@link Template}, is encountered,
+     * and an {@link UncheckedIOException} if any I/O error occurs while reading.
+     * @see #parseAll(InputStream)
+     * @since 3.1.0
+     */
+    public static <T> Stream<T> parseAll(InputStream stream, Template<T> template) {
+        return new JsonSequenceReader(stream).stream(template)
+                .onClose(() -> John.closeUnchecked(stream));
+    }
+
+    /**
+     * Seeks to the array at the provided {@code path} within the {@code source}, and lazily parses each of its elements
+     * into a typed value, based on the provided {@link Template}.
+     * <br><br>
+     * Everything preceding the array is skipped over at the lexical level, and only a single element is held
+     * in memory at any time. The returned stream may be made {@link Stream#parallel() parallel}, in which case
+     * batches of elements get parsed and bound concurrently.
+     *
+     * @param source   the source containing the array.
+     * @param path     the path of the array, consisting only of property segments and subscripts.
+     * @param template the {@link Template} each element must satisfy.
+     * @return a sequential {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once an invalid element, or an element not satisfying the {@link Template}, is encountered.
+     * @throws JsonException if the source contains any invalid JSON along the path, or if there's no element at the path.
+     * @throws IllegalArgumentException if the path contains any segment other than a property segment or a subscript.
+     * @see JsonArrayReader
+     * @since 3.1.0
+     */
+    public static <T> Stream<T> streamArray(String source, JsonPath path, Template<T> template) throws JsonException {
+        var reader = new JsonArrayReader(source);
+        return reader.seek(path)
+                .stream(template);
+    }
+
+    /**
+     * Opens the file at the provided {@code file} path, seeks to the array at the provided {@code path} within it,
+     * and lazily parses each of its elements into a typed value, based on the provided {@link Template}.
+     * <br><br>
+     * The file is read incrementally, as described by {@link #parse(InputStream)}, so that neither the file,
+     * nor the array is held in memory as a whole. The returned stream should be closed once consumed,
+     * preferably with a {@code try}-with-resources statement, so that the file gets closed as well.
+     *
+     * @param file     the path to read the file from.
+     * @param path     the path of the array, consisting only of property segments and subscripts.
+     * @param template the {@link Template} each element must satisfy.
+     * @return a sequential {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once an invalid element, or an element not satisfying the {@link Template}, is encountered, and an {@link UncheckedIOException}
+     * if any I/O error occurs while reading the file.
+     * @throws JsonException if the file contains any invalid JSON along the path, or if there's no element at the path.
+     * @throws IOException   if any I/O error occurs while opening the file, or reading it up to the array.
+     * @throws IllegalArgumentException if the path contains any segment other than a property segment or a subscript.
+     * @see #streamArray(String, JsonPath, Template)
+     * @since 3.1.0
+     */
+    public static <T> Stream<T> streamArray(Path file, JsonPath path, Template<T> template) throws JsonException, IOException {
+        var stream = Compression.decompressDetected(Files.newInputStream(file));
+        try {
+            var reader = new JsonArrayReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            return reader.seek(path)
+                    .stream(template)
+                    .onClose(() -> John.closeUnchecked(stream));
+        } catch (UncheckedIOException e) {
+            stream.close();
+            throw e.getCause();
+        } catch (JsonException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the file at the provided {@code path} and lazily parses each of its lines into a typed value,
+     * based on the provided {@link Template}, treating the file as newline-delimited JSON.
+     * <br><br>
+     * The lines are parsed in parallel, and any errors refer to the physical lines of the file.
+     * The returned stream should be closed once consumed, preferably with a {@code try}-with-resources statement,
+     * so that the file gets closed as well.
+     *
+     * @param path     the path to read the file from.
+     * @param template the {@link Template} each line must satisfy.
+     * @return a parallel, ordered {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a line containing invalid JSON, or a value not satisfying the {@link Template}, is encountered.
+     * @throws IOException if the file couldn't be opened.
+     * @see JsonLinesReader#stream(Template)
+     * @since 3.1.0
+     */
+    public static <T> Stream<T> lines(Path path, Template<T> template) throws IOException {
+        var reader = new JsonLinesReader(Files.newInputStream(path));
+        return reader.stream(template);
+    }
+
+    /**
+     * Lazily parses each line of the provided {@code stream} into a typed value, based on the provided {@link Template},
+     * treating its contents as UTF-8 encoded, newline-delimited JSON.
+     * <br><br>
+     * Closing the returned stream closes the provided {@code stream} as well.
+     *
+     * @param stream   the stream to read the lines from.
+     * @param template the {@link Template} each line must satisfy.
+     * @return a parallel, ordered {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link com.manchickas.john.exception.UncheckedJsonException UncheckedJsonException}
+     * once a line containing invalid JSON, or a value not satisfying the {@link Template}, is encountered.
+     * @see #lines(Path, Template)
+     * @since 3.1.0
+     */
+    public static <T> Stream<T> lines(InputStream stream, Template<T> template) {
+        var reader = new JsonLinesReader(stream);
+        return reader.stream(template);
+    }
+
+    /**
+     * Collects the elements matched by each of the provided paths, without parsing the rest of the {@code source}.
+     * <br><br>
+     * Subtrees that don't lie along any of the paths are skipped over at the lexical level, without building any
+     * {@link JsonElement}s for them, while the matched ones get fully materialized. The skipped parts of the {@code source}
+     * are thus only loosely validated.
+     *
+     * @param source the source containing the JSON to project.
+     * @param paths  the paths to collect the matches of, consisting only of property segments, subscripts, wildcards and slices.
+     * @return the {@link Projection.Selection} holding the matches of each path, indexed in the order of the provided paths.
+     * @throws JsonException if the {@code source} contains any invalid JSON along the visited parts.
+     * @see Projection#compile(JsonPath...)
+     * @since 3.1.0
+     */
+    @NotNull
+    public static Projection.Selection project(String source, JsonPath... paths) throws JsonException {
+        return John.project(source, Projection.compile(paths));
+    }
+
+    /**
+     * Collects the elements matched by each of the paths the provided {@link Projection} was compiled from,
+     * without parsing the rest of the {@code source}.
+     *
+     * @param source     the source containing the JSON to project.
+     * @param projection the compiled projection to apply.
+     * @return the {@link Projection.Selection} holding the matches of each path.
+     * @throws JsonException if the {@code source} contains any invalid JSON along the visited parts.
+     * @see #project(String, JsonPath...)
+     * @since 3.1.0
+     */
+    @NotNull
+    public static Projection.Selection project(String source, Projection projection) throws JsonException {
+        var parser = new ProjectionParser(source);
+        return parser.select(projection);
+    }
+
+    /**
+     * Attempts to parse the provided {@code source} into a typed value, based on the provided {@link Template},
+     * without building any {@link JsonElement}s for the parts of the {@code source} the template never reads.
+     * <br><br>
+     * Properties of an object that aren't referred to by the template, such as the unknown properties of a {@link Template#record record},
+     * are skipped over at the lexical level, and are thus only loosely validated. The result, as well as any error reported by the template,
+     * is otherwise identical to the one of {@link #parse(String, Template)}.
+     *
+     * @param source   the source containing the JSON to parse.
+     * @param template the {@link Template} that the parsed value must satisfy.
+     * @return the parsed value.
+     * @throws JsonException if the {@code source} contains any invalid JSON along the visited parts, or the value doesn't satisfy the provided {@link Template}.
+     * @see #parse(String, Template)
+     * @since 3.1.0
+     */
+    public static <T> T project(String source, Template<T> template) throws JsonException {
+        var parser = new ProjectionParser(source);
+        return parser.parse(TemplateProjector.of(template))
+                .expect(template);
+    }
+
     /**
      * Attempts to serialize the provided {@code element} to a {@link JsonElement} according to the provided {@link Template}.
      *
@@ -181,6 +876,47 @@ public final class John {
         }
     }
 
+    /**
+     * Reformats the provided {@code source}, minifying it if the {@code indentation} is {@code 0}, or pretty-printing it otherwise,
+     * without parsing it into a {@link JsonElement}.
+     * <br><br>
+     * Unlike stringifying a parsed element, reformatting copies string and number literals verbatim.
+     *
+     * @param source      the source containing the JSON to reformat.
+     * @param indentation the number of spaces per nesting level.
+     * @return the reformatted JSON.
+     * @throws JsonException if the source contains any invalid JSON.
+     * @throws IllegalArgumentException if the {@code indentation} is negative.
+     * @see JsonReformatter
+     * @since 3.1.0
+     */
+    @NotNull
+    public static String reformat(String source, int indentation) throws JsonException {
+        var reformatter = new JsonReformatter(indentation);
+        return reformatter.reformat(source);
+    }
+
+    /**
+     * Reformats the JSON read from the provided {@code input}, writing the result to the provided {@code output},
+     * minifying it if the {@code indentation} is {@code 0}, or pretty-printing it otherwise.
+     * <br><br>
+     * The JSON is piped from the {@code input} to the {@code output} token by token, and thus in constant memory.
+     * Neither the {@code input}, nor the {@code output} are closed.
+     *
+     * @param input       the reader to read the JSON from.
+     * @param output      the writer to write the reformatted JSON to.
+     * @param indentation the number of spaces per nesting level.
+     * @throws JsonException if the input contains any invalid JSON.
+     * @throws IOException   if any I/O error occurs while reading or writing.
+     * @throws IllegalArgumentException if the {@code indentation} is negative.
+     * @see JsonReformatter
+     * @since 3.1.0
+     */
+    public static void reformat(Reader input, Writer output, int indentation) throws JsonException, IOException {
+        var reformatter = new JsonReformatter(indentation);
+        reformatter.reformat(input, output);
+    }
+
     /**
      * Converts the provided {@code pattern} into a <b>minified</b> JSON string.
      *
@@ -0,0 +1,26 @@
+package com.manchickas.john.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the name of a record component in templates generated for {@link JsonTemplate}-annotated types.
+ * <br><br>
+ * When placed on a record permitted by a {@link JsonTemplate}-annotated sealed interface, overrides
+ * the value of the discriminator property identifying the record instead.
+ *
+ * @since 3.1.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.RECORD_COMPONENT, ElementType.TYPE})
+public @interface JsonName {
+
+    /**
+     * @return the name to use in JSON.
+     */
+    String value();
+}
@@ -0,0 +1,44 @@
+package com.manchickas.john.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code record} or a {@code sealed interface} whose {@link com.manchickas.john.template.Template Template}
+ * should be generated at compile time by the {@code john-processor} annotation processor.
+ * <br><br>
+ * For a type named {@code Person}, the processor generates a {@code PersonTemplate} class in the same package,
+ * whose {@code INSTANCE} may be used like any other template. Nested types are prefixed with the names of their
+ * enclosing types, such that {@code Outer.Person} generates {@code Outer_PersonTemplate}.
+ * <ul>
+ *     <li>Records are mapped onto JSON objects, with a property per record component. Components annotated as
+ *     {@code @Nullable} are treated as optional.</li>
+ *     <li>Sealed interfaces are mapped onto discriminated unions of their permitted records, which are distinguished by the
+ *     {@link #discriminator()} property. The value of the property is the {@link JsonName} of the record, defaulting to
+ *     its simple name.</li>
+ * </ul>
+ * <pre>{@code
+ *      @JsonTemplate
+ *      public record Person(String name, int age, @Nullable Person[] friends) {
+ *      }
+ *
+ *      Person person = John.parse(source, PersonTemplate.INSTANCE);
+ * }</pre>
+ *
+ * @since 3.1.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface JsonTemplate {
+
+    /**
+     * The property distinguishing the permitted records of a sealed interface. Ignored for records.
+     *
+     * @return the name of the discriminator property.
+     */
+    String discriminator() default "type";
+}
@@ -5,6 +5,7 @@ import com.manchickas.john.position.SourceSpan;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.stream.Stream;
 
 public final class JsonArray extends JsonElement {
 
@@ -47,6 +48,11 @@ public final class JsonArray extends JsonElement {
         throw new JsonException("Attempted to access an element at index '%d' of a JSON array.", index);
     }
 
+    @Override
+    public Stream<JsonElement> children() {
+        return Arrays.stream(this.elements);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) return true;
@@ -68,4 +74,9 @@ public final class JsonArray extends JsonElement {
     public int length() {
         return this.elements.length;
     }
+
+    @Override
+    public JsonKind kind() {
+        return JsonKind.ARRAY;
+    }
 }
@@ -2,6 +2,7 @@ package com.manchickas.john.ast;
 
 import com.manchickas.john.John;
 import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.exception.UncheckedJsonException;
 import com.manchickas.john.path.JsonPath;
 import com.manchickas.john.position.SourceSpan;
 import com.manchickas.john.template.Template;
@@ -9,6 +10,8 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.stream.Stream;
+
 /**
  * Represents a single node in a JSON structure.
  * <br><br>
@@ -52,7 +55,7 @@ public abstract class JsonElement {
      */
     @NotNull
     public JsonElement get(String path) throws JsonException {
-        return this.get(JsonPath.compile(path));
+        return this.get(JsonPath.intern(path));
     }
 
     /**
@@ -80,7 +83,7 @@ public abstract class JsonElement {
      *
      */
     public <T> T get(String path, Template<T> template) throws JsonException {
-        return this.get(JsonPath.compile(path), template);
+        return this.get(JsonPath.intern(path), template);
     }
 
     /**
@@ -98,6 +101,70 @@ public abstract class JsonElement {
         return this.get(path).expect(template);
     }
 
+    /**
+     * Lazily selects every element matching the provided path, relative to the current element.
+     * <br><br>
+     * Unlike the {@code get} methods, {@code getAll} supports wildcards ({@code *}, {@code [*]}), slices ({@code [start:end:step]}),
+     * recursive descent ({@code **}) and filters ({@code [?path]}, {@code [?path == literal]}), and never fails. Branches of the
+     * JSON structure that don't satisfy the path are left out of the stream.
+     *
+     * @param path the path to select.
+     * @return a {@link Stream} of the matching elements.
+     * @throws JsonException if the provided path was incorrectly formatted.
+     * @since 3.1.0
+     */
+    public Stream<JsonElement> getAll(String path) throws JsonException {
+        return this.getAll(JsonPath.intern(path));
+    }
+
+    /**
+     * Lazily selects every element matching the provided precompiled {@link JsonPath}, relative to the current element.
+     *
+     * @param path the path to select.
+     * @return a {@link Stream} of the matching elements.
+     * @see #getAll(String)
+     * @since 3.1.0
+     */
+    public Stream<JsonElement> getAll(JsonPath path) {
+        return path.stream(this);
+    }
+
+    /**
+     * Lazily selects every element matching the provided path, parsing each according to the provided {@link Template}.
+     *
+     * @param path     the path to select.
+     * @param template the {@link Template} each matching element must satisfy.
+     * @return a {@link Stream} of the parsed values. Consuming the stream throws an {@link UncheckedJsonException}
+     * once an element that doesn't satisfy the {@link Template} is encountered.
+     * @throws JsonException if the provided path was incorrectly formatted.
+     * @see #getAll(String)
+     * @since 3.1.0
+     */
+    public <T> Stream<T> getAll(String path, Template<T> template) throws JsonException {
+        return this.getAll(JsonPath.intern(path), template);
+    }
+
+    /**
+     * Lazily selects every element matching the provided precompiled {@link JsonPath}, parsing each according to the provided {@link Template}.
+     *
+     * @param path     the path to select.
+     * @param template the {@link Template} each matching element must satisfy.
+     * @return a {@link Stream} of the parsed values. Consuming the stream throws an {@link UncheckedJsonException}
+     * once an element that doesn't satisfy the {@link Template} is encountered.
+     * @see #getAll(String)
+     * @since 3.1.0
+     */
+    public <T> Stream<T> getAll(JsonPath path, Template<T> template) {
+        return path.stream(this)
+                .map(element -> {
+                    var result = template.parseAndPromote(element);
+                    if (result.isSuccess())
+                        return result.unwrap();
+                    throw new UncheckedJsonException(new JsonException(result.message())
+                            .withSpan(result.span()));
+                });
+    }
+
     /**
      * Attempts to retrieve the provided property from the {@link JsonElement}.
      * <br><br>
@@ -137,6 +204,22 @@ public abstract class JsonElement {
                 .withSpan(this.span);
     }
 
+    /**
+     * Lazily streams the direct children of the {@link JsonElement}, being the elements of an array,
+     * or the values of an object, in their original order.
+     * <br><br>
+     * <b>Note,</b> while the {@code children} method may be used publicly, it's intended for
+     * internal usage by {@link JsonPath}s. The {@link #getAll(String) getAll} methods
+     * should be preferred instead.
+     *
+     * @return a {@link Stream} of the children, which is empty for primitives.
+     * @since 3.1.0
+     */
+    @ApiStatus.Internal
+    public Stream<JsonElement> children() {
+        return Stream.empty();
+    }
+
     /**
      * Serializes the {@link JsonElement} into a specially formatted string, that,
      * when processed, can easily be turned into the JSON representation by following a set of simple
@@ -180,6 +263,14 @@ public abstract class JsonElement {
      */
     public abstract int length();
 
+    /**
+     * Returns the {@link JsonKind} of the element.
+     *
+     * @return the kind of the element.
+     * @since 3.1.0
+     */
+    public abstract JsonKind kind();
+
     /**
      * Determines whether the provided {@code obj} equals the current {@link JsonElement}
      * semantically.
@@ -0,0 +1,18 @@
+package com.manchickas.john.ast;
+
+/**
+ * Enumerates the kinds of values a {@link JsonElement} may represent.
+ * <br><br>
+ * The kind of an element is obtained with {@link JsonElement#kind()}, and is primarily used
+ * to cheaply dispatch on the structure of an element without a chain of {@code instanceof} checks.
+ *
+ * @since 3.1.0
+ */
+public enum JsonKind {
+    OBJECT,
+    ARRAY,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL
+}
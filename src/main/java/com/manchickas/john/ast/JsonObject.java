@@ -4,9 +4,11 @@ import com.google.common.collect.ImmutableMap;
 import com.manchickas.john.exception.JsonException;
 import com.manchickas.john.position.SourceSpan;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public final class JsonObject extends JsonElement {
 
@@ -51,6 +53,18 @@ public final class JsonObject extends JsonElement {
                 .withSpan(this.span);
     }
 
+    /**
+     * Retrieves the provided property from the object, without raising an exception if it's missing.
+     *
+     * @param name the property to retrieve.
+     * @return the value of the provided property, or {@code null} if the object doesn't include it.
+     * @since 3.1.0
+     */
+    @Nullable
+    public JsonElement find(String name) {
+        return this.elements.get(name);
+    }
+
     public JsonObject with(String name, JsonElement value) {
         var builder = ImmutableMap.<String, JsonElement>builder();
         builder.put(name, value);
@@ -62,6 +76,12 @@ public final class JsonObject extends JsonElement {
         return new JsonObject(this.span, builder.build());
     }
 
+    @Override
+    public Stream<JsonElement> children() {
+        return this.elements.values()
+                .stream();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) return true;
@@ -87,4 +107,9 @@ public final class JsonObject extends JsonElement {
     public int length() {
         return this.elements.size();
     }
+
+    @Override
+    public JsonKind kind() {
+        return JsonKind.OBJECT;
+    }
 }
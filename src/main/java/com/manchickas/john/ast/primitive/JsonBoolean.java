@@ -1,5 +1,6 @@
 package com.manchickas.john.ast.primitive;
 
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.position.SourceSpan;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,4 +26,9 @@ public final class JsonBoolean extends JsonPrimitive<Boolean> {
     public Boolean value() {
         return this.value;
     }
+
+    @Override
+    public JsonKind kind() {
+        return JsonKind.BOOLEAN;
+    }
 }
@@ -1,5 +1,6 @@
 package com.manchickas.john.ast.primitive;
 
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.position.SourceSpan;
 
 public final class JsonNull extends JsonPrimitive<Void> {
@@ -31,4 +32,9 @@ public final class JsonNull extends JsonPrimitive<Void> {
     public Void value() {
         return null;
     }
+
+    @Override
+    public JsonKind kind() {
+        return JsonKind.NULL;
+    }
 }
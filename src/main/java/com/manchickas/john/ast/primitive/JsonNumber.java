@@ -1,5 +1,6 @@
 package com.manchickas.john.ast.primitive;
 
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.position.SourceSpan;
 
 public final class JsonNumber extends JsonPrimitive<Number> {
@@ -25,6 +26,11 @@ public final class JsonNumber extends JsonPrimitive<Number> {
         return this.value;
     }
 
+    @Override
+    public JsonKind kind() {
+        return JsonKind.NUMBER;
+    }
+
     @Override
     public String toString() {
         return this.value.toString();
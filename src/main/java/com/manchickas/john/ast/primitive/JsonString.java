@@ -1,5 +1,6 @@
 package com.manchickas.john.ast.primitive;
 
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.position.SourceSpan;
 import it.unimi.dsi.fastutil.chars.Char2CharMap;
 
@@ -56,4 +57,9 @@ public final class JsonString extends JsonPrimitive<String> {
     public String value() {
         return this.value;
     }
+
+    @Override
+    public JsonKind kind() {
+        return JsonKind.STRING;
+    }
 }
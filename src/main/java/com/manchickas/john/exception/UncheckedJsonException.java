@@ -0,0 +1,25 @@
+package com.manchickas.john.exception;
+
+import java.io.Serial;
+import java.util.Objects;
+
+/**
+ * Wraps a {@link JsonException} with an unchecked exception, for use within APIs
+ * that can't propagate checked exceptions, such as {@link java.util.stream.Stream Stream}s.
+ *
+ * @since 3.1.0
+ */
+public class UncheckedJsonException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedJsonException(JsonException cause) {
+        super(cause.getMessage(), Objects.requireNonNull(cause));
+    }
+
+    @Override
+    public synchronized JsonException getCause() {
+        return (JsonException) super.getCause();
+    }
+}
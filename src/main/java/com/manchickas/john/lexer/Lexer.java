@@ -4,13 +4,21 @@ import com.manchickas.john.exception.JsonException;
 import com.manchickas.john.lexer.lexeme.Lexeme;
 import com.manchickas.john.lexer.lexeme.LexemeType;
 import com.manchickas.john.reader.StringReader;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.Set;
 
 public final class Lexer extends StringReader {
 
+    /**
+     * The character preceding each text of an <a href="https://www.rfc-editor.org/rfc/rfc7464">RFC 7464</a> JSON text sequence.
+     *
+     * @since 3.1.0
+     */
+    public static final int RECORD_SEPARATOR = 0x1E;
     private static final Set<Integer> SEPARATORS = Set.of((int) ',', (int) ':', (int) '{', (int) '}', (int) '[', (int) ']');
     private static final Int2IntMap ESCAPABLE = Int2IntMap.ofEntries(
             Int2IntMap.entry('"', '"'),
@@ -24,10 +32,35 @@ public final class Lexer extends StringReader {
     );
     private static final Set<String> BOOLEANS = Set.of("true", "false");
 
-    public Lexer(String source) {
+    public Lexer(CharSequence source) {
         super(source);
     }
 
+    /**
+     * Creates a lexer over a source that starts at the provided {@code line} of some larger document.
+     *
+     * @see StringReader#StringReader(CharSequence, int)
+     * @since 3.1.0
+     */
+    public Lexer(CharSequence source, int line) {
+        super(source, line);
+    }
+
+    private Lexer(Lexer lexer) {
+        super(lexer);
+    }
+
+    /**
+     * Creates an independent lexer positioned where the current one is, which may be used on another thread
+     * to lex a different part of the same source.
+     *
+     * @return the created {@link Lexer}.
+     * @since 3.1.0
+     */
+    public Lexer fork() {
+        return new Lexer(this);
+    }
+
     @Nullable
     public Lexeme<?> nextLexeme() throws JsonException {
         if (this.canRead()) {
@@ -50,11 +83,141 @@ public final class Lexer extends StringReader {
         return null;
     }
 
+    /**
+     * Returns the first non-whitespace character ahead, without consuming it, or {@code -1} if the source is exhausted.
+     *
+     * @since 3.1.0
+     */
+    public int peekSignificant() {
+        if (this.skipWhitespace())
+            return this.peek();
+        return -1;
+    }
+
+    /**
+     * Skips over the next value, without producing any lexemes, decoding any strings, or parsing any numbers.
+     * <br><br>
+     * Skipped values are validated only loosely, by ensuring that the strings are terminated and contain only valid
+     * escape sequences, and that the brackets are balanced and matched. The exact contents of a value are only validated once it's lexed.
+     *
+     * @throws JsonException if the value is unterminated, contains an invalid escape sequence or mismatched brackets, or there is no value ahead.
+     * @since 3.1.0
+     */
+    public void skipValue() throws JsonException {
+        try {
+            this.copyValue(null);
+        } catch (IOException e) {
+            throw new AssertionError("Unreachable", e);
+        }
+    }
+
+    /**
+     * Skips over the next value, as described by {@link #skipValue()}, appending its source text to the provided {@code sink}
+     * as it's read, so that the value never needs to be held in memory as a whole.
+     * <br><br>
+     * The whitespace preceding the value is skipped, while the whitespace within it is copied verbatim.
+     *
+     * @param sink the {@link Appendable} to copy the value to, or {@code null} to merely skip it.
+     * @throws JsonException if the value is unterminated, contains an invalid escape sequence or mismatched brackets, or there is no value ahead.
+     * @throws IOException   if the {@code sink} fails to append any of the characters.
+     * @since 3.1.0
+     */
+    public void copyValue(@Nullable Appendable sink) throws JsonException, IOException {
+        var c = this.peekSignificant();
+        if (c == -1)
+            throw new JsonException("Encountered an EOF in place of a JSON element.");
+        if (c == '"') {
+            this.copyString(sink);
+            return;
+        }
+        if (c == '{' || c == '[') {
+            // Each of the enclosing containers is true for an object, and false for an array
+            var containers = new BooleanArrayList();
+            while (this.canRead()) {
+                var d = this.peek();
+                if (d == '"') {
+                    this.copyString(sink);
+                    continue;
+                }
+                if (d == '}' || d == ']') {
+                    var object = containers.topBoolean();
+                    if (d != (object ? '}' : ']'))
+                        throw new JsonException("Expected either a comma or a closing %s.", object ? "brace" : "bracket")
+                                .withSpan(this.charSpan());
+                    this.copy(sink);
+                    containers.popBoolean();
+                    if (containers.isEmpty())
+                        return;
+                    continue;
+                }
+                this.copy(sink);
+                if (d == '{' || d == '[')
+                    containers.push(d == '{');
+            }
+            throw new JsonException("Encountered an unterminated %s literal.", containers.topBoolean() ? "object" : "array");
+        }
+        if (SEPARATORS.contains(c))
+            throw new JsonException("Encountered an unexpected lexeme '%c'.", c)
+                    .withSpan(this.charSpan());
+        while (this.canRead()) {
+            var d = this.peek();
+            if (StringReader.isWhitespace(d) || SEPARATORS.contains(d) || d == '"' || d == RECORD_SEPARATOR)
+                break;
+            this.copy(sink);
+        }
+    }
+
+    private void copyString(@Nullable Appendable sink) throws JsonException, IOException {
+        this.copy(sink); // Consume the quote
+        while (this.canRead()) {
+            var c = this.copy(sink);
+            if (c == '\\') {
+                if (!this.canRead())
+                    break;
+                var escape = this.copy(sink);
+                if (escape == 'u') {
+                    for (var i = 0; i < 4; i++) {
+                        if (!this.canRead())
+                            throw new JsonException("Encountered an unterminated string literal.");
+                        var d = this.peek();
+                        if (!StringReader.isHexDigit(d))
+                            throw new JsonException("Encountered an invalid hex digit '%c'.", d)
+                                    .withSpan(this.charSpan());
+                        this.copy(sink);
+                    }
+                } else if (!ESCAPABLE.containsKey(escape)) {
+                    throw new JsonException("Encountered an unknown escape sequence '\\%c'.", escape)
+                            .withSpan(this.relativeSpan(2, 0));
+                }
+                continue;
+            }
+            if (c == '"')
+                return;
+        }
+        throw new JsonException("Encountered an unterminated string literal.");
+    }
+
+    /**
+     * Reads the next character, appending it to the provided {@code sink}, if any.
+     */
+    private int copy(@Nullable Appendable sink) throws IOException {
+        var c = this.read();
+        if (sink != null) {
+            if (Character.isBmpCodePoint(c)) {
+                sink.append((char) c);
+            } else {
+                sink.append(Character.highSurrogate(c))
+                        .append(Character.lowSurrogate(c));
+            }
+        }
+        return c;
+    }
+
     private Lexeme<?> readGenericLexeme() throws JsonException {
         this.pushStamp();
         while (this.canRead()) {
             var d = this.peek();
-            if (StringReader.isWhitespace(d) || SEPARATORS.contains(d) || d == '"')
+            if (StringReader.isWhitespace(d) || SEPARATORS.contains(d) || d == '"' || d == RECORD_SEPARATOR)
                 break;
             this.read();
         }
@@ -0,0 +1,258 @@
+package com.manchickas.john.parser;
+
+import com.google.common.collect.ImmutableMap;
+import com.manchickas.john.ast.JsonArray;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.lexer.Lexer;
+import com.manchickas.john.lexer.lexeme.Lexeme;
+import com.manchickas.john.lexer.lexeme.LexemeType;
+import com.manchickas.john.path.JsonPath;
+import com.manchickas.john.path.segment.PathSegment;
+import com.manchickas.john.path.segment.PropertySegment;
+import com.manchickas.john.util.ArrayBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses a single large array across multiple threads of a {@link ForkJoinPool}.
+ * <br><br>
+ * The array is first scanned on the calling thread, which locates the boundaries of its elements without building
+ * any {@link JsonElement}s for them. The elements are then split into chunks of roughly equal length, each of which
+ * gets parsed concurrently by a {@link Lexer#fork() fork} of the scanning lexer, and the results are stitched back
+ * together in order. The rest of the source is parsed on the calling thread.
+ * <br><br>
+ * The resulting {@link JsonElement}, including the {@link com.manchickas.john.position.SourceSpan SourceSpan}s of
+ * its elements, is identical to the one produced by the {@link Parser}. So are the errors: once several elements
+ * fail to parse, the error of the first one gets reported. Should the scan itself fail, the source is parsed
+ * sequentially instead, so that the error reported is exactly the one the {@link Parser} would report.
+ *
+ * @since 3.1.0
+ */
+public final class ParallelParser {
+
+    /**
+     * The minimal number of characters a chunk spans, below which splitting the work any further doesn't pay off.
+     */
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    private final String source;
+    private final ForkJoinPool pool;
+    private final Lexer lexer;
+    private final Parser parser;
+    private final int chunkLength;
+
+    public ParallelParser(String source) {
+        this(source, ForkJoinPool.commonPool());
+    }
+
+    public ParallelParser(String source, ForkJoinPool pool) {
+        this.source = source;
+        this.pool = pool;
+        this.lexer = new Lexer(source);
+        this.parser = new Parser(this.lexer);
+        this.chunkLength = Math.max(MIN_CHUNK_LENGTH, source.length() / (pool.getParallelism() * 4));
+    }
+
+    /**
+     * Parses the source, splitting the elements of the top-level array, if any, across the threads of the pool.
+     *
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the source contains any invalid JSON.
+     * @since 3.1.0
+     */
+    @NotNull
+    public JsonElement parse() throws JsonException {
+        return this.parse(new PathSegment[0]);
+    }
+
+    /**
+     * Parses the source, splitting the elements of the array at the provided {@code path}, if any, across the threads of the pool.
+     * <br><br>
+     * If the source doesn't contain an array at the provided {@code path}, it gets parsed sequentially,
+     * as if by the {@link Parser}.
+     *
+     * @param path the path of the array, consisting only of property segments.
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the source contains any invalid JSON.
+     * @throws IllegalArgumentException if the path contains any segment other than a property one.
+     * @since 3.1.0
+     */
+    @NotNull
+    public JsonElement parse(JsonPath path) throws JsonException {
+        var steps = ArrayBuilder.<PathSegment>builderWithExpectedSize(path.length);
+        for (var segment : path.segments()) {
+            if (segment instanceof PropertySegment) {
+                steps.append(segment);
+                continue;
+            }
+            if (segment != PathSegment.THIS)
+                throw new IllegalArgumentException("Expected the path '%s' to consist only of property segments.".formatted(path));
+        }
+        return this.parse(steps.build(PathSegment[]::new));
+    }
+
+    private JsonElement parse(PathSegment[] steps) throws JsonException {
+        var result = this.parse(steps, 0);
+        if (result != null)
+            return result;
+        return new Parser(this.source).parse();
+    }
+
+    /**
+     * Parses the next element, descending along the provided {@code steps}.
+     *
+     * @return the parsed element, or {@code null} if the targeted array couldn't be scanned.
+     */
+    @Nullable
+    private JsonElement parse(PathSegment[] steps, int depth) throws JsonException {
+        var c = this.lexer.peekSignificant();
+        if (depth == steps.length && c == '[')
+            return this.parseArray();
+        if (depth < steps.length && c == '{')
+            return this.parseObject(steps, depth);
+        return this.parser.parse();
+    }
+
+    @Nullable
+    private JsonObject parseObject(PathSegment[] steps, int depth) throws JsonException {
+        var open = this.lexer.nextLexeme();
+        var lexeme = this.next("Encountered an unterminated object literal.");
+        if (lexeme.isOf(LexemeType.SEPARATOR, '}'))
+            return new JsonObject(open.span().extend(lexeme.span()), ImmutableMap.of());
+        var name = ((PropertySegment) steps[depth]).name();
+        var builder = ImmutableMap.<String, JsonElement>builder();
+        while (true) {
+            var key = lexeme.expect(LexemeType.STRING);
+            this.next("Encountered an unterminated object literal.")
+                    .expect(LexemeType.SEPARATOR, ':');
+            if (key.equals(name)) {
+                var value = this.parse(steps, depth + 1);
+                if (value == null)
+                    return null;
+                builder.put(key, value);
+            } else {
+                builder.put(key, this.parser.parse());
+            }
+            var separator = this.next("Encountered an unterminated object literal.");
+            if (separator.isOf(LexemeType.SEPARATOR, '}'))
+                return new JsonObject(open.span().extend(separator.span()), builder.buildKeepingLast());
+            if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                throw new JsonException("Expected either a comma or a closing brace.")
+                        .withSpan(separator.span());
+            lexeme = this.next("Encountered an unterminated object literal.");
+        }
+    }
+
+    /**
+     * Scans the array ahead, and parses its elements in parallel.
+     *
+     * @return the parsed array, or {@code null} if the array couldn't be scanned.
+     */
+    @Nullable
+    private JsonArray parseArray() throws JsonException {
+        var open = this.lexer.nextLexeme();
+        if (this.lexer.peekSignificant() == ']') {
+            var close = this.lexer.nextLexeme();
+            return new JsonArray(open.span().extend(close.span()), new JsonElement[0]);
+        }
+        var chunks = new ArrayList<Chunk>();
+        var length = this.scan(chunks);
+        if (length < 0)
+            return null;
+        var close = this.lexer.nextLexeme();
+        var elements = new JsonElement[length];
+        this.parse(chunks, elements);
+        return new JsonArray(open.span().extend(close.span()), elements);
+    }
+
+    /**
+     * Locates the elements of the array ahead, up until its closing bracket, grouping them into chunks.
+     *
+     * @return the number of elements, or {@code -1} if the array turned out to be malformed.
+     */
+    private int scan(List<Chunk> chunks) {
+        Chunk chunk = null;
+        var length = 0;
+        try {
+            while (true) {
+                if (this.lexer.peekSignificant() == -1)
+                    return -1;
+                if (chunk == null || this.lexer.cursor() - chunk.start >= this.chunkLength) {
+                    chunk = new Chunk(this.lexer.fork(), this.lexer.cursor(), length);
+                    chunks.add(chunk);
+                }
+                this.lexer.skipValue();
+                chunk.length++;
+                length++;
+                var c = this.lexer.peekSignificant();
+                if (c == ']')
+                    return length;
+                if (c != ',')
+                    return -1;
+                this.lexer.nextLexeme();
+            }
+        } catch (JsonException e) {
+            return -1;
+        }
+    }
+
+    private void parse(List<Chunk> chunks, JsonElement[] elements) throws JsonException {
+        if (chunks.size() == 1) {
+            chunks.getFirst().parse(elements);
+        } else {
+            var tasks = new ArrayList<ForkJoinTask<?>>(chunks.size());
+            for (var chunk : chunks)
+                tasks.add(ForkJoinTask.adapt(() -> chunk.parse(elements)));
+            this.pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+        for (var chunk : chunks) {
+            if (chunk.failure != null)
+                throw chunk.failure;
+        }
+    }
+
+    private Lexeme<?> next(String message) throws JsonException {
+        var lexeme = this.lexer.nextLexeme();
+        if (lexeme == null)
+            throw new JsonException(message);
+        return lexeme;
+    }
+
+    /**
+     * Represents a run of consecutive elements of an array, parsed by a single thread.
+     */
+    private static final class Chunk {
+
+        private final Lexer lexer;
+        private final int start;
+        private final int offset;
+        private int length;
+        private @Nullable JsonException failure;
+
+        private Chunk(Lexer lexer, int start, int offset) {
+            this.lexer = lexer;
+            this.start = start;
+            this.offset = offset;
+        }
+
+        private void parse(JsonElement[] elements) {
+            var parser = new Parser(this.lexer);
+            try {
+                for (var i = 0; i < this.length; i++) {
+                    if (i > 0)
+                        this.lexer.nextLexeme(); // Consume the comma, already validated by the scan
+                    elements[this.offset + i] = parser.parse();
+                }
+            } catch (JsonException e) {
+                this.failure = e;
+            }
+        }
+    }
+}
@@ -22,47 +22,84 @@ public final class Parser {
     private final Lexer lexer;
     private final ObjectArrayFIFOQueue<Lexeme<?>> buffer;
 
-    public Parser(String source) {
-        this.lexer = new Lexer(source);
+    public Parser(CharSequence source) {
+        this(new Lexer(source));
+    }
+
+    /**
+     * Creates a parser reading from the provided {@link Lexer}, allowing the lexer to be shared
+     * with other consumers, as long as the parser is only invoked in between complete values.
+     *
+     * @since 3.1.0
+     */
+    public Parser(Lexer lexer) {
+        this.lexer = lexer;
         this.buffer = new ObjectArrayFIFOQueue<>(8);
     }
 
+    /**
+     * Prepares the parser, along with its {@link Lexer}, to parse the provided {@code source}, discarding any state
+     * left over from the previous one.
+     * <br><br>
+     * Resetting a parser is considerably cheaper than creating a new one, which makes reusing a single parser
+     * per thread worthwhile for workloads consisting of many small sources.
+     *
+     * @param source the source to parse next.
+     * @return the current {@link Parser}.
+     * @since 3.1.0
+     */
+    public Parser reset(CharSequence source) {
+        this.lexer.reset(source);
+        this.buffer.clear();
+        return this;
+    }
+
+    /**
+     * Drops the references to the source last parsed, without otherwise resetting the parser,
+     * which must be {@link #reset(CharSequence) reset} before it's used again.
+     *
+     * @since 3.1.0
+     */
+    public void release() {
+        this.lexer.release();
+    }
+
     @NotNull
     public JsonElement parse() throws JsonException {
-        if (this.canRead()) {
-            var lexeme = this.peek();
-            var span = lexeme.span();
-            if (lexeme.isOf(LexemeType.SEPARATOR, '{'))
-                return this.parseObject(span);
-            if (lexeme.isOf(LexemeType.SEPARATOR, '['))
-                return this.parseArray(span);
-            if (lexeme.isOf(LexemeType.STRING)) {
-                this.read();
-                var str = lexeme.expect(LexemeType.STRING);
-                return new JsonString(span, str);
-            }
-            if (lexeme.isOf(LexemeType.NUMBER)) {
-                this.read();
-                var number = lexeme.expect(LexemeType.NUMBER);
-                return new JsonNumber(span, number);
-            }
-            if (lexeme.isOf(LexemeType.BOOLEAN)) {
-                this.read();
-                var bool = lexeme.expect(LexemeType.BOOLEAN);
-                return new JsonBoolean(span, bool);
-            }
-            if (lexeme.isOf(LexemeType.NULL)) {
-                this.read();
-                return new JsonNull(span);
-            }
-            throw new JsonException("Encountered an unexpected lexeme '%s'.", lexeme.value())
-                    .withSpan(span);
-        }
+        if (this.canRead())
+            return this.parse(this.read());
         throw new JsonException("Encountered an EOF in place of a JSON element.");
     }
 
+    /**
+     * Parses the element starting with the provided, already consumed {@code lexeme}.
+     */
+    @NotNull
+    JsonElement parse(Lexeme<?> lexeme) throws JsonException {
+        var span = lexeme.span();
+        if (lexeme.isOf(LexemeType.SEPARATOR, '{'))
+            return this.parseObject(span);
+        if (lexeme.isOf(LexemeType.SEPARATOR, '['))
+            return this.parseArray(span);
+        if (lexeme.isOf(LexemeType.STRING)) {
+            var str = lexeme.expect(LexemeType.STRING);
+            return new JsonString(span, str);
+        }
+        if (lexeme.isOf(LexemeType.NUMBER)) {
+            var number = lexeme.expect(LexemeType.NUMBER);
+            return new JsonNumber(span, number);
+        }
+        if (lexeme.isOf(LexemeType.BOOLEAN)) {
+            var bool = lexeme.expect(LexemeType.BOOLEAN);
+            return new JsonBoolean(span, bool);
+        }
+        if (lexeme.isOf(LexemeType.NULL))
+            return new JsonNull(span);
+        throw new JsonException("Encountered an unexpected lexeme '%s'.", lexeme.value())
+                .withSpan(span);
+    }
+
     private JsonObject parseObject(SourceSpan start) throws JsonException {
-        this.read().expect(LexemeType.SEPARATOR, '{');
         if (this.canRead()) {
             if (this.peek()
                     .isOf(LexemeType.SEPARATOR, '}')) {
@@ -96,7 +133,6 @@ public final class Parser {
     }
 
     private JsonArray parseArray(SourceSpan start) throws JsonException {
-        this.read().expect(LexemeType.SEPARATOR, '[');
         if (this.canRead()) {
             if (this.peek()
                     .isOf(LexemeType.SEPARATOR, ']')) {
@@ -0,0 +1,443 @@
+package com.manchickas.john.parser;
+
+import com.manchickas.john.ast.JsonArray;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.path.JsonPath;
+import com.manchickas.john.path.segment.PathSegment;
+import com.manchickas.john.path.segment.PropertySegment;
+import com.manchickas.john.path.segment.SliceOperator;
+import com.manchickas.john.path.segment.SubscriptOperator;
+import com.manchickas.john.path.segment.WildcardSegment;
+import com.manchickas.john.template.Template;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes which parts of a JSON structure are of interest, allowing the {@link ProjectionParser}
+ * to skip over the rest of the source without building any {@link JsonElement}s for it.
+ * <br><br>
+ * Each projection node describes a single value. Values matched by a node that is {@link #all() kept whole}
+ * or terminates one of the {@link #compile(JsonPath...) compiled} paths get fully materialized, while the values
+ * of an object or an array are only visited if the node has a child projection for the respective key or index.
+ * <br><br>
+ * Projections are immutable once built, and may thus be compiled once and reused across threads.
+ *
+ * @since 3.1.0
+ */
+public final class Projection {
+
+    private static final Projection ALL = new Projection(true);
+    private static final Projection NONE = new Projection(false);
+
+    private final IntArrayList terminals;
+    private final Object2ObjectOpenHashMap<String, Projection> properties;
+    private final Int2ObjectOpenHashMap<Projection> indices;
+    private final List<Range> ranges;
+    private boolean all;
+    /**
+     * Whether the projection is a {@link #deferred() placeholder} that hasn't been resolved yet.
+     */
+    private boolean open;
+    private JsonPath[] paths;
+    private @Nullable Projection anyProperty;
+    private @Nullable Projection anyIndex;
+
+    private Projection(boolean all) {
+        this.terminals = new IntArrayList(0);
+        this.properties = new Object2ObjectOpenHashMap<>(0);
+        this.indices = new Int2ObjectOpenHashMap<>(0);
+        this.ranges = new ArrayList<>(0);
+        this.all = all;
+        this.paths = new JsonPath[0];
+    }
+
+    /**
+     * Compiles the provided paths into a {@link Projection}, whose matches get indexed in the order of the paths.
+     * <br><br>
+     * Only paths consisting of property segments, subscripts, wildcards and slices with non-negative bounds
+     * may be projected, since other segments can't be decided upon without looking ahead.
+     *
+     * @param paths the paths to project.
+     * @return the compiled {@link Projection}.
+     * @throws IllegalArgumentException if any of the paths contains a segment that can't be projected.
+     * @since 3.1.0
+     */
+    public static Projection compile(JsonPath... paths) {
+        Projection result = null;
+        for (var i = 0; i < paths.length; i++) {
+            var node = new Projection(false);
+            node.terminals.add(i);
+            var segments = paths[i].segments();
+            for (var j = segments.size() - 1; j >= 0; j--)
+                node = Projection.wrap(segments.get(j), node, paths[i]);
+            result = Projection.merge(result, node);
+        }
+        if (result == null)
+            result = new Projection(false);
+        result.paths = paths.clone();
+        return result;
+    }
+
+    /**
+     * Wraps the provided {@code node} in the projections needed to reach it through the provided {@code segment}.
+     */
+    private static Projection wrap(PathSegment segment, Projection node, JsonPath path) {
+        if (segment == PathSegment.THIS)
+            return node;
+        return switch (segment) {
+            case PropertySegment property -> {
+                var wrapper = new Projection(false);
+                wrapper.properties.put(property.name(), node);
+                yield wrapper;
+            }
+            case WildcardSegment __ -> {
+                var wrapper = new Projection(false);
+                wrapper.anyProperty = node;
+                wrapper.anyIndex = node;
+                yield wrapper;
+            }
+            case SubscriptOperator subscript -> {
+                var wrapper = new Projection(false);
+                wrapper.indices.put(subscript.index(), node);
+                yield Projection.wrap(subscript.operand(), wrapper, path);
+            }
+            case SliceOperator slice -> {
+                var start = slice.start() == null ? 0 : slice.start();
+                var end = slice.end() == null ? Integer.MAX_VALUE : slice.end();
+                if (start < 0 || end < 0)
+                    throw new IllegalArgumentException("Expected the slices of the path '%s' to have non-negative bounds.".formatted(path));
+                var wrapper = new Projection(false);
+                if (start == 0 && end == Integer.MAX_VALUE && slice.step() == 1) {
+                    wrapper.anyIndex = node;
+                } else {
+                    wrapper.ranges.add(new Range(start, end, slice.step(), node));
+                }
+                yield Projection.wrap(slice.operand(), wrapper, path);
+            }
+            default ->
+                    throw new IllegalArgumentException("Encountered a segment '%s' of the path '%s' that can't be projected.".formatted(segment, path));
+        };
+    }
+
+    /**
+     * Returns a projection that keeps the whole value.
+     */
+    @ApiStatus.Internal
+    public static Projection all() {
+        return ALL;
+    }
+
+    /**
+     * Returns a projection that keeps primitives, but none of the values of objects and arrays,
+     * which are reduced to empty ones spanning the same source.
+     */
+    @ApiStatus.Internal
+    public static Projection none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a projection that keeps the provided properties of an object, projecting each according to its projection.
+     */
+    @ApiStatus.Internal
+    public static Projection object(Map<String, Projection> properties) {
+        var node = new Projection(false);
+        node.properties.putAll(properties);
+        return node;
+    }
+
+    /**
+     * Returns a projection that keeps every value of an object, projecting each according to the provided projection.
+     */
+    @ApiStatus.Internal
+    public static Projection map(Projection value) {
+        var node = new Projection(false);
+        node.anyProperty = value;
+        return node;
+    }
+
+    /**
+     * Returns a projection that keeps every element of an array, projecting each according to the provided projection.
+     */
+    @ApiStatus.Internal
+    public static Projection array(Projection element) {
+        var node = new Projection(false);
+        node.anyIndex = element;
+        return node;
+    }
+
+    /**
+     * Returns a placeholder for a projection that's still being built, allowing recursive projections to refer to themselves.
+     * The placeholder must be {@link #resolve(Projection) resolved} once the projection is available.
+     */
+    @ApiStatus.Internal
+    public static Projection deferred() {
+        var node = new Projection(false);
+        node.open = true;
+        return node;
+    }
+
+    /**
+     * Resolves the current {@link #deferred() placeholder}, making it keep exactly what the provided projection does.
+     */
+    @ApiStatus.Internal
+    public void resolve(Projection projection) {
+        if (!this.open)
+            throw new IllegalStateException("Attempted to resolve a projection that isn't deferred.");
+        this.all = projection.all;
+        this.terminals.addAll(projection.terminals);
+        this.properties.putAll(projection.properties);
+        this.indices.putAll(projection.indices);
+        this.ranges.addAll(projection.ranges);
+        this.anyProperty = projection.anyProperty == projection ? this : projection.anyProperty;
+        this.anyIndex = projection.anyIndex == projection ? this : projection.anyIndex;
+        this.open = false;
+    }
+
+    /**
+     * Combines the provided projections into one that keeps everything either of them does.
+     * <br><br>
+     * Merging a {@link #deferred() placeholder} that hasn't been resolved yet conservatively results in {@link #all()}.
+     */
+    @ApiStatus.Internal
+    public static Projection merge(@Nullable Projection left, @Nullable Projection right) {
+        return Projection.merge(left, right, new HashMap<>());
+    }
+
+    private static Projection merge(@Nullable Projection left, @Nullable Projection right, Map<Pair, Projection> merged) {
+        if (left == null || left == NONE && right != null)
+            return right;
+        if (right == null || right == NONE || left == right)
+            return left;
+        if (left.open || right.open)
+            return ALL;
+        if (left == ALL && right.terminals.isEmpty() || right == ALL && left.terminals.isEmpty())
+            return ALL;
+        var pair = new Pair(left, right);
+        var existing = merged.get(pair);
+        if (existing != null)
+            return existing;
+        var node = new Projection(left.all || right.all);
+        merged.put(pair, node);
+        node.terminals.addAll(left.terminals);
+        node.terminals.addAll(right.terminals);
+        for (var key : left.properties.keySet())
+            node.properties.put(key, Projection.merge(left.properties.get(key), right.property(key), merged));
+        for (var key : right.properties.keySet()) {
+            if (!left.properties.containsKey(key))
+                node.properties.put(key, Projection.merge(left.anyProperty, right.properties.get(key), merged));
+        }
+        node.anyProperty = Projection.merge(left.anyProperty, right.anyProperty, merged);
+        for (var entry : left.indices.int2ObjectEntrySet())
+            node.indices.put(entry.getIntKey(), Projection.merge(entry.getValue(), right.index(entry.getIntKey()), merged));
+        for (var entry : right.indices.int2ObjectEntrySet()) {
+            if (!left.indices.containsKey(entry.getIntKey()))
+                node.indices.put(entry.getIntKey(), Projection.merge(left.index(entry.getIntKey()), entry.getValue(), merged));
+        }
+        node.ranges.addAll(left.ranges);
+        node.ranges.addAll(right.ranges);
+        node.anyIndex = Projection.merge(left.anyIndex, right.anyIndex, merged);
+        return node;
+    }
+
+    /**
+     * Returns the projection of the provided property of an object, or {@code null} if it should be skipped.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public Projection property(String key) {
+        var node = this.properties.get(key);
+        return node != null ? node : this.anyProperty;
+    }
+
+    /**
+     * Returns the projection of the element at the provided index of an array, or {@code null} if it should be skipped.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public Projection index(int index) {
+        var node = this.indices.get(index);
+        if (node != null)
+            return node;
+        node = this.anyIndex;
+        for (var range : this.ranges) {
+            if (range.contains(index))
+                node = Projection.merge(node, range.projection);
+        }
+        return node;
+    }
+
+    /**
+     * Determines whether the value should be materialized as a whole.
+     */
+    boolean isWhole() {
+        return this.all || !this.terminals.isEmpty();
+    }
+
+    /**
+     * Returns the lowest index of the paths terminating at the current node, or {@code -1} if there's none.
+     */
+    @ApiStatus.Internal
+    public int terminal() {
+        var terminal = -1;
+        for (var i = 0; i < this.terminals.size(); i++) {
+            var index = this.terminals.getInt(i);
+            if (terminal < 0 || index < terminal)
+                terminal = index;
+        }
+        return terminal;
+    }
+
+    @ApiStatus.Internal
+    public boolean hasProperties() {
+        return !this.properties.isEmpty() || this.anyProperty != null;
+    }
+
+    @ApiStatus.Internal
+    public boolean hasIndices() {
+        return !this.indices.isEmpty() || !this.ranges.isEmpty() || this.anyIndex != null;
+    }
+
+    /**
+     * Records the provided {@code element} as a match of every path terminating at the current node,
+     * including the ones terminating within the element itself.
+     */
+    void collect(JsonElement element, List<JsonElement>[] matches) {
+        for (var i = 0; i < this.terminals.size(); i++)
+            matches[this.terminals.getInt(i)].add(element);
+        if (element instanceof JsonObject object && this.hasProperties()) {
+            for (var entry : object.entries()) {
+                var node = this.property(entry.getKey());
+                if (node != null)
+                    node.collect(entry.getValue(), matches);
+            }
+        } else if (element instanceof JsonArray array && this.hasIndices()) {
+            for (var i = 0; i < array.length(); i++) {
+                var node = this.index(i);
+                if (node != null) {
+                    try {
+                        node.collect(array.subscript(i), matches);
+                    } catch (JsonException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of paths the projection was compiled from.
+     *
+     * @return the number of compiled paths, or {@code 0} for projections derived otherwise.
+     * @since 3.1.0
+     */
+    public int size() {
+        return this.paths.length;
+    }
+
+    JsonPath[] paths() {
+        return this.paths;
+    }
+
+    /**
+     * Matches every index {@code i} within {@code [start, end)} such that {@code (i - start) % step == 0}.
+     */
+    private record Range(int start, int end, int step, Projection projection) {
+
+        boolean contains(int index) {
+            return index >= this.start && index < this.end && (index - this.start) % this.step == 0;
+        }
+    }
+
+    private record Pair(Projection left, Projection right) {
+    }
+
+    /**
+     * Represents the results of projecting a source according to a compiled {@link Projection},
+     * holding the matches of each path in document order.
+     *
+     * @since 3.1.0
+     */
+    public static final class Selection {
+
+        private final JsonPath[] paths;
+        private final List<JsonElement>[] matches;
+
+        Selection(JsonPath[] paths, List<JsonElement>[] matches) {
+            this.paths = paths;
+            this.matches = matches;
+        }
+
+        /**
+         * Returns the first element matched by the path at the provided index.
+         *
+         * @param index the index of the path.
+         * @return the first matching {@link JsonElement}.
+         * @throws JsonException if the path didn't match any element.
+         * @since 3.1.0
+         */
+        @NotNull
+        public JsonElement get(int index) throws JsonException {
+            var matches = this.matches[index];
+            if (!matches.isEmpty())
+                return matches.getFirst();
+            throw new JsonException("Expected the path '%s' to match an element.", this.paths[index]);
+        }
+
+        /**
+         * Parses the first element matched by the path at the provided index according to the provided {@link Template}.
+         *
+         * @param index    the index of the path.
+         * @param template the {@link Template} the element must satisfy.
+         * @return the parsed from the {@link JsonElement} value.
+         * @throws JsonException if the path didn't match any element, or the element doesn't satisfy the provided {@link Template}.
+         * @since 3.1.0
+         */
+        public <T> T get(int index, Template<T> template) throws JsonException {
+            return this.get(index).expect(template);
+        }
+
+        /**
+         * Returns every element matched by the path at the provided index, in document order.
+         *
+         * @param index the index of the path.
+         * @return an unmodifiable list of the matching elements.
+         * @since 3.1.0
+         */
+        public List<JsonElement> getAll(int index) {
+            return List.copyOf(this.matches[index]);
+        }
+
+        /**
+         * Determines whether the path at the provided index matched any element.
+         *
+         * @param index the index of the path.
+         * @return {@code true} if the path matched at least a single element, {@code false} otherwise.
+         * @since 3.1.0
+         */
+        public boolean isPresent(int index) {
+            return !this.matches[index].isEmpty();
+        }
+
+        /**
+         * Returns the number of paths the matches are held for.
+         *
+         * @return the number of paths.
+         * @since 3.1.0
+         */
+        public int size() {
+            return this.matches.length;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.manchickas.john.parser;
+
+import com.google.common.collect.ImmutableMap;
+import com.manchickas.john.ast.JsonArray;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.lexer.Lexer;
+import com.manchickas.john.lexer.lexeme.Lexeme;
+import com.manchickas.john.lexer.lexeme.LexemeType;
+import com.manchickas.john.util.ArrayBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses only the parts of the source described by a {@link Projection}, skipping over the rest
+ * at the lexical level, without building any {@link JsonElement}s or decoding any strings for them.
+ * <br><br>
+ * The cost of a projection is thus proportional to the length of the source, rather than the size
+ * of the tree it would otherwise get parsed into.
+ *
+ * @since 3.1.0
+ */
+public final class ProjectionParser {
+
+    private final Lexer lexer;
+    private final Parser parser;
+
+    public ProjectionParser(String source) {
+        this.lexer = new Lexer(source);
+        this.parser = new Parser(this.lexer);
+    }
+
+    /**
+     * Collects the elements matched by each path the provided {@link Projection} was {@link Projection#compile compiled} from.
+     *
+     * @param projection the projection to apply.
+     * @return the {@link Projection.Selection} holding the matches of each path.
+     * @throws JsonException if the source contains any invalid JSON along the visited parts.
+     * @since 3.1.0
+     */
+    @SuppressWarnings("unchecked")
+    public Projection.Selection select(Projection projection) throws JsonException {
+        var matches = (List<JsonElement>[]) new List<?>[projection.size()];
+        for (var i = 0; i < matches.length; i++)
+            matches[i] = new ArrayList<>(1);
+        this.select(projection, matches);
+        return new Projection.Selection(projection.paths(), matches);
+    }
+
+    /**
+     * Parses the source into a {@link JsonElement}, keeping only the parts described by the provided {@link Projection}.
+     * <br><br>
+     * The properties of an object the projection has no child for are left out of the resulting {@link JsonObject},
+     * while the elements of an array are always kept, so that the indices remain intact. Containers reduced this way
+     * still span the same part of the source as they would, had they been parsed in full.
+     *
+     * @param projection the projection to apply.
+     * @return the pruned {@link JsonElement}.
+     * @throws JsonException if the source contains any invalid JSON along the visited parts.
+     * @since 3.1.0
+     */
+    @NotNull
+    public JsonElement parse(Projection projection) throws JsonException {
+        if (projection.isWhole())
+            return this.parser.parse();
+        var c = this.lexer.peekSignificant();
+        if (c == '{')
+            return this.parseObject(projection);
+        if (c == '[')
+            return this.parseArray(projection);
+        return this.parser.parse();
+    }
+
+    private JsonObject parseObject(Projection projection) throws JsonException {
+        var open = this.next();
+        var lexeme = this.next("Encountered an unterminated object literal.");
+        if (lexeme.isOf(LexemeType.SEPARATOR, '}'))
+            return new JsonObject(open.span().extend(lexeme.span()), ImmutableMap.of());
+        var builder = ImmutableMap.<String, JsonElement>builder();
+        while (true) {
+            var key = lexeme.expect(LexemeType.STRING);
+            this.next("Encountered an unterminated object literal.")
+                    .expect(LexemeType.SEPARATOR, ':');
+            var child = projection.property(key);
+            if (child != null) {
+                builder.put(key, this.parse(child));
+            } else {
+                this.lexer.skipValue();
+            }
+            var separator = this.next("Encountered an unterminated object literal.");
+            if (separator.isOf(LexemeType.SEPARATOR, '}'))
+                return new JsonObject(open.span().extend(separator.span()), builder.buildKeepingLast());
+            if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                throw new JsonException("Expected either a comma or a closing brace.")
+                        .withSpan(separator.span());
+            lexeme = this.next("Encountered an unterminated object literal.");
+        }
+    }
+
+    private JsonArray parseArray(Projection projection) throws JsonException {
+        var open = this.next();
+        if (this.lexer.peekSignificant() == ']') {
+            var close = this.next();
+            return new JsonArray(open.span().extend(close.span()), new JsonElement[0]);
+        }
+        var builder = ArrayBuilder.<JsonElement>builder();
+        for (var i = 0; ; i++) {
+            var child = projection.index(i);
+            if (this.lexer.peekSignificant() == -1)
+                throw new JsonException("Encountered an unterminated array literal.");
+            builder.append(this.parse(child != null ? child : Projection.none()));
+            var separator = this.next("Encountered an unterminated array literal.");
+            if (separator.isOf(LexemeType.SEPARATOR, ']'))
+                return new JsonArray(open.span().extend(separator.span()), builder.build(JsonElement[]::new));
+            if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                throw new JsonException("Expected either a comma or a closing bracket.")
+                        .withSpan(separator.span());
+        }
+    }
+
+    private void select(Projection projection, List<JsonElement>[] matches) throws JsonException {
+        if (projection.isWhole()) {
+            projection.collect(this.parser.parse(), matches);
+            return;
+        }
+        var c = this.lexer.peekSignificant();
+        if (c == '{' && projection.hasProperties()) {
+            this.next();
+            var lexeme = this.next();
+            if (lexeme.isOf(LexemeType.SEPARATOR, '}'))
+                return;
+            while (true) {
+                var key = lexeme.expect(LexemeType.STRING);
+                this.next().expect(LexemeType.SEPARATOR, ':');
+                var child = projection.property(key);
+                if (child != null) {
+                    this.select(child, matches);
+                } else {
+                    this.lexer.skipValue();
+                }
+                var separator = this.next();
+                if (separator.isOf(LexemeType.SEPARATOR, '}'))
+                    return;
+                if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                    throw new JsonException("Expected either a comma or a closing brace.")
+                            .withSpan(separator.span());
+                lexeme = this.next();
+            }
+        }
+        if (c == '[' && projection.hasIndices()) {
+            this.next();
+            if (this.lexer.peekSignificant() == ']') {
+                this.next();
+                return;
+            }
+            for (var i = 0; ; i++) {
+                var child = projection.index(i);
+                if (child != null) {
+                    this.select(child, matches);
+                } else {
+                    this.lexer.skipValue();
+                }
+                var separator = this.next();
+                if (separator.isOf(LexemeType.SEPARATOR, ']'))
+                    return;
+                if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                    throw new JsonException("Expected either a comma or a closing bracket.")
+                            .withSpan(separator.span());
+            }
+        }
+        this.lexer.skipValue();
+    }
+
+    private Lexeme<?> next() throws JsonException {
+        return this.next("Encountered an unexpected EOF.");
+    }
+
+    private Lexeme<?> next(String message) throws JsonException {
+        var lexeme = this.lexer.nextLexeme();
+        if (lexeme == null)
+            throw new JsonException(message);
+        return lexeme;
+    }
+}
@@ -0,0 +1,212 @@
+package com.manchickas.john.path;
+
+import com.manchickas.john.ast.JsonArray;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.template.Template;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Maps the concrete paths of a JSON structure to the elements they lead to, so that looking up an element
+ * takes a single hash probe, rather than resolving the path segment by segment.
+ * <br><br>
+ * Each path is keyed by a flat string, computed once per {@link JsonPath} instance, so that paths
+ * that are {@link JsonPath#compile(String) compiled} or {@link JsonPath#intern(String) interned} upfront
+ * are looked up without any per-call allocation.
+ * <br><br>
+ * Paths are normalized before being looked up, by splitting subscripts off their operands and dropping the
+ * {@code .} segments, so that {@code items[0]/name} and {@code ./items[0]/name} refer to the same entry.
+ * <br><br>
+ * Paths that aren't indexed, either because the index only covers a subset of the structure, or because the path
+ * doesn't lead to any element, fall back to {@link JsonPath#traverse(JsonElement)}. The results, as well as the errors,
+ * are thus always the same as the ones of {@link JsonElement#get(JsonPath)}.
+ * <br><br>
+ * Indices are immutable, and may thus be built once and queried across threads. Building an index over the whole
+ * structure takes time and memory proportional to the number of its elements, times their depth, and thus only pays off
+ * for structures that are queried repeatedly.
+ *
+ * @since 3.1.0
+ */
+public final class JsonIndex {
+
+    private final JsonElement root;
+    private final Object2ObjectOpenHashMap<String, JsonElement> elements;
+
+    private JsonIndex(JsonElement root, Object2ObjectOpenHashMap<String, JsonElement> elements) {
+        this.root = root;
+        this.elements = elements;
+        this.elements.trim();
+    }
+
+    /**
+     * Indexes every element of the provided JSON structure.
+     *
+     * @param root the root of the structure to index.
+     * @return the built {@link JsonIndex}.
+     * @since 3.1.0
+     */
+    public static JsonIndex of(JsonElement root) {
+        return JsonIndex.of(root, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Indexes the elements of the provided JSON structure that lie at most {@code depth} levels below the {@code root}.
+     *
+     * @param root  the root of the structure to index.
+     * @param depth the maximum depth of the indexed elements, where {@code 0} only indexes the {@code root} itself.
+     * @return the built {@link JsonIndex}.
+     * @throws IllegalArgumentException if the {@code depth} is negative.
+     * @since 3.1.0
+     */
+    public static JsonIndex of(JsonElement root, int depth) {
+        if (depth < 0)
+            throw new IllegalArgumentException("Expected a non-negative depth, got %d.".formatted(depth));
+        var elements = new Object2ObjectOpenHashMap<String, JsonElement>();
+        JsonIndex.index(root, new StringBuilder(), 0, depth, elements);
+        return new JsonIndex(root, elements);
+    }
+
+    /**
+     * Indexes only the elements the provided paths lead to, relative to the {@code root}.
+     * <br><br>
+     * Paths that don't lead to any element are left out of the index.
+     *
+     * @param root  the root of the structure to index.
+     * @param paths the paths of the elements to index.
+     * @return the built {@link JsonIndex}.
+     * @throws IllegalArgumentException if any of the paths isn't {@link JsonPath#isDefinite() definite}.
+     * @since 3.1.0
+     */
+    public static JsonIndex of(JsonElement root, JsonPath... paths) {
+        var elements = new Object2ObjectOpenHashMap<String, JsonElement>(paths.length);
+        var extraction = PathExtractor.compile(paths)
+                .extract(root);
+        for (var i = 0; i < paths.length; i++) {
+            if (extraction.isPresent(i)) {
+                try {
+                    elements.put(paths[i].key(), extraction.get(i));
+                } catch (JsonException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return new JsonIndex(root, elements);
+    }
+
+    private static void index(JsonElement element,
+                              StringBuilder key,
+                              int level,
+                              int depth,
+                              Object2ObjectOpenHashMap<String, JsonElement> elements) {
+        elements.put(key.toString(), element);
+        if (level == depth)
+            return;
+        var length = key.length();
+        if (element instanceof JsonObject object) {
+            for (var entry : object.entries()) {
+                JsonIndex.index(entry.getValue(), JsonPath.appendProperty(key, entry.getKey()), level + 1, depth, elements);
+                key.setLength(length);
+            }
+        } else if (element instanceof JsonArray array) {
+            var children = array.children()
+                    .iterator();
+            for (var i = 0; children.hasNext(); i++) {
+                JsonIndex.index(children.next(), JsonPath.appendIndex(key, i), level + 1, depth, elements);
+                key.setLength(length);
+            }
+        }
+    }
+
+    /**
+     * Looks up the element at the provided path.
+     *
+     * @param path the path to look up.
+     * @return the {@link JsonElement} at the provided path.
+     * @throws JsonException if the provided path was incorrectly formatted, or the JSON structure doesn't match the one expected by the path.
+     * @since 3.1.0
+     */
+    @NotNull
+    public JsonElement get(String path) throws JsonException {
+        return this.get(JsonPath.intern(path));
+    }
+
+    /**
+     * Looks up the element at the provided precompiled {@link JsonPath}.
+     *
+     * @param path the path to look up.
+     * @return the {@link JsonElement} at the provided path.
+     * @throws JsonException if the JSON structure doesn't match the one expected by the path.
+     * @since 3.1.0
+     */
+    @NotNull
+    public JsonElement get(JsonPath path) throws JsonException {
+        var key = path.key();
+        if (key != null) {
+            var element = this.elements.get(key);
+            if (element != null)
+                return element;
+        }
+        return path.traverse(this.root);
+    }
+
+    /**
+     * Looks up the element at the provided path, and parses it according to the provided {@link Template}.
+     *
+     * @param path     the path to look up.
+     * @param template the {@link Template} the element at the provided path must satisfy.
+     * @return the parsed from the {@link JsonElement} value.
+     * @throws JsonException if the provided path was incorrectly formatted, the JSON structure doesn't match the one expected by the path,
+     *                       or the retrieved {@link JsonElement} doesn't satisfy the provided {@link Template}.
+     * @since 3.1.0
+     */
+    public <T> T get(String path, Template<T> template) throws JsonException {
+        return this.get(path).expect(template);
+    }
+
+    /**
+     * Looks up the element at the provided precompiled {@link JsonPath}, and parses it according to the provided {@link Template}.
+     *
+     * @param path     the path to look up.
+     * @param template the {@link Template} the element at the provided path must satisfy.
+     * @return the parsed from the {@link JsonElement} value.
+     * @throws JsonException if the JSON structure doesn't match the one expected by the path, or the retrieved {@link JsonElement} doesn't satisfy the provided {@link Template}.
+     * @since 3.1.0
+     */
+    public <T> T get(JsonPath path, Template<T> template) throws JsonException {
+        return this.get(path).expect(template);
+    }
+
+    /**
+     * Determines whether the provided path has been indexed.
+     *
+     * @param path the path to check.
+     * @return {@code true} if the element at the provided path can be looked up without traversing the structure, {@code false} otherwise.
+     * @since 3.1.0
+     */
+    public boolean contains(JsonPath path) {
+        var key = path.key();
+        return key != null && this.elements.containsKey(key);
+    }
+
+    /**
+     * Returns the root of the indexed JSON structure.
+     *
+     * @return the root {@link JsonElement}.
+     * @since 3.1.0
+     */
+    public JsonElement root() {
+        return this.root;
+    }
+
+    /**
+     * Returns the number of indexed paths.
+     *
+     * @return the number of indexed paths.
+     * @since 3.1.0
+     */
+    public int size() {
+        return this.elements.size();
+    }
+}
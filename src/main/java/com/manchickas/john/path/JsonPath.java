@@ -1,11 +1,20 @@
 package com.manchickas.john.path;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.exception.JsonException;
 import com.manchickas.john.path.segment.PathSegment;
+import com.manchickas.john.path.segment.PropertySegment;
+import com.manchickas.john.path.segment.SubscriptOperator;
 import com.manchickas.john.util.ArrayBuilder;
+import org.jetbrains.annotations.ApiStatus;
+import org.jspecify.annotations.Nullable;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Represents a path in an arbitrary JSON structure.
@@ -13,6 +22,16 @@ import java.util.Arrays;
 public final class JsonPath {
 
     private static final JsonPath THIS = new JsonPath(new PathSegment[]{PathSegment.THIS});
+    /**
+     * Holds the paths compiled by {@link #intern(String)}, keyed by their string form.
+     * <br><br>
+     * The number of entries is bounded by the {@code john.pathCacheSize} system property, defaulting to {@code 512}.
+     * Least recently used paths get evicted first.
+     */
+    private static final Cache<String, JsonPath> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(Long.getLong("john.pathCacheSize", 512))
+            .recordStats()
+            .build();
     /**
      * Represents the literal number of segments this path consists of.
      */
@@ -23,6 +42,10 @@ public final class JsonPath {
      */
     public final int depth;
     private final PathSegment[] segments;
+    /**
+     * The {@link #key() key} of the path, computed on first use.
+     */
+    private String key;
 
     private JsonPath(PathSegment[] segments) {
         this.segments = segments;
@@ -59,11 +82,42 @@ public final class JsonPath {
         return new JsonPath(parser.parse());
     }
 
+    /**
+     * Compiles the provided string into a {@link JsonPath}, reusing the result of a previous compilation of the same string if it's still cached.
+     * <br><br>
+     * The cache is shared across threads and bounded in size, making this method appropriate for paths
+     * that are repeatedly looked up by their string form. Malformed paths are never cached.
+     *
+     * @param path the path to compile.
+     * @return the compiled {@link JsonPath}.
+     * @throws JsonException if the provided path was incorrectly formatted.
+     * @since 3.1.0
+     */
+    public static JsonPath intern(String path) throws JsonException {
+        var cached = CACHE.getIfPresent(path);
+        if (cached != null)
+            return cached;
+        var compiled = JsonPath.compile(path);
+        CACHE.put(path, compiled);
+        return compiled;
+    }
+
+    /**
+     * Returns a snapshot of the hit and miss counters of the cache backing {@link #intern(String)}.
+     *
+     * @return the statistics of the path cache.
+     * @since 3.1.0
+     */
+    public static CacheStats cacheStats() {
+        return CACHE.stats();
+    }
+
     /**
      * Traverses the JSON structure according to the {@link JsonPath}, starting at the provided {@code root}.
      * <br><br>
      * The JSON structure must fully satisfy the one expected by the {@link JsonPath},
-     * or else a {@link JsonException} will get thrown.
+     * or else a {@link JsonException} will get thrown. The same applies to {@link #isDefinite() indefinite} paths,
+     * which should be {@link #stream(JsonElement) streamed} instead.
      *
      * @param root the element to traverse the path relative to.
      * @return the element relative to the provided {@code root}, according to the path.
@@ -75,6 +129,56 @@ public final class JsonPath {
         return root;
     }
 
+    /**
+     * Lazily selects every element matching the {@link JsonPath}, starting at the provided {@code root}.
+     * <br><br>
+     * Unlike {@link #traverse(JsonElement)}, selection supports indefinite segments, such as wildcards, slices,
+     * recursive descent and filters, and never fails. Branches of the JSON structure that don't satisfy the path
+     * are simply left out of the stream. Elements are selected one at a time as the stream gets consumed,
+     * so no intermediate collections are built.
+     *
+     * @param root the element to select relative to.
+     * @return a {@link Stream} of the matching elements, in document order.
+     * @since 3.1.0
+     */
+    public Stream<JsonElement> stream(JsonElement root) {
+        var stream = Stream.of(root);
+        for (var segment : this.segments)
+            stream = stream.flatMap(segment::select);
+        return stream;
+    }
+
+    /**
+     * Determines whether the {@link JsonPath} matches at most a single element, and may thus be {@link #traverse(JsonElement) traversed}.
+     *
+     * @return {@code true} if none of the segments may match multiple elements, {@code false} otherwise.
+     * @since 3.1.0
+     */
+    public boolean isDefinite() {
+        for (var segment : this.segments) {
+            if (!segment.isDefinite())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Resolves all the provided paths relative to the provided {@code root} within a single walk of the JSON structure,
+     * sharing the lookups of their common prefixes.
+     * <br><br>
+     * Consider {@link PathExtractor#compile(JsonPath...) compiling} a {@link PathExtractor} once when the same set of paths
+     * gets resolved repeatedly.
+     *
+     * @param root  the element to resolve the paths relative to.
+     * @param paths the paths to resolve.
+     * @return the {@link PathExtractor.Extraction} holding the results, indexed in the order of the provided paths.
+     * @since 3.1.0
+     */
+    public static PathExtractor.Extraction extractAll(JsonElement root, JsonPath... paths) {
+        return PathExtractor.compile(paths)
+                .extract(root);
+    }
+
     /**
      * Appends the provided {@link JsonPath} to the current one.
      *
@@ -105,6 +209,80 @@ public final class JsonPath {
         return true;
     }
 
+    /**
+     * Returns the segments of the path split into steps that each descend a single level, splitting subscripts
+     * off their operands and dropping the {@link PathSegment#THIS this} segments, such that {@code items[0]}
+     * and {@code ./items[0]} result in the same steps.
+     */
+    PathSegment[] steps() {
+        var steps = ArrayBuilder.<PathSegment>builderWithExpectedSize(this.depth);
+        for (var segment : this.segments)
+            JsonPath.flatten(segment, steps);
+        return steps.build(PathSegment[]::new);
+    }
+
+    private static void flatten(PathSegment segment, ArrayBuilder<PathSegment> steps) {
+        if (segment == PathSegment.THIS)
+            return;
+        if (segment instanceof SubscriptOperator subscript) {
+            JsonPath.flatten(subscript.operand(), steps);
+            steps.append(new SubscriptOperator(PathSegment.THIS, subscript.index()));
+            return;
+        }
+        steps.append(segment);
+    }
+
+    /**
+     * Returns a string that uniquely identifies the {@link #steps()} of the path, such that equivalent paths
+     * share the same key. The key is computed once per path, and reused afterward.
+     * <br><br>
+     * Returns {@code null} for {@link #isDefinite() indefinite} paths, which don't identify a single element.
+     */
+    @Nullable
+    String key() {
+        var key = this.key;
+        if (key == null && this.isDefinite()) {
+            var builder = new StringBuilder();
+            for (var step : this.steps()) {
+                if (step instanceof SubscriptOperator subscript) {
+                    JsonPath.appendIndex(builder, subscript.index());
+                } else {
+                    JsonPath.appendProperty(builder, ((PropertySegment) step).name());
+                }
+            }
+            this.key = key = builder.toString();
+        }
+        return key;
+    }
+
+    /**
+     * Appends the key of a property step, escaping the characters that would otherwise make keys ambiguous.
+     */
+    static StringBuilder appendProperty(StringBuilder key, String name) {
+        key.append('/');
+        for (var i = 0; i < name.length(); i++) {
+            var c = name.charAt(i);
+            if (c == '/' || c == '[' || c == '\\')
+                key.append('\\');
+            key.append(c);
+        }
+        return key;
+    }
+
+    /**
+     * Appends the key of a subscript step.
+     */
+    static StringBuilder appendIndex(StringBuilder key, int index) {
+        return key.append('[')
+                .append(index)
+                .append(']');
+    }
+
+    @ApiStatus.Internal
+    public List<PathSegment> segments() {
+        return List.of(this.segments);
+    }
+
     /**
      * Converts the {@link JsonPath} into its string representation,
      * mirroring the syntax needed for compilation.
@@ -144,4 +322,9 @@ public final class JsonPath {
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.segments);
+    }
 }
@@ -0,0 +1,175 @@
+package com.manchickas.john.path;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.path.segment.PathSegment;
+import com.manchickas.john.template.Template;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Resolves a fixed set of {@link JsonPath}s within a single walk of a JSON structure.
+ * <br><br>
+ * The paths are compiled into a prefix tree, so that the segments shared by several paths,
+ * in the sense of {@link JsonPath#startsWith(JsonPath)}, get resolved only once. Subscripts are treated as
+ * separate steps, which allows {@code items[0]/name} and {@code items[1]/name} to share the {@code items} lookup.
+ * <br><br>
+ * Extractors are immutable, and may thus be compiled once and reused across threads.
+ *
+ * @since 3.1.0
+ */
+public final class PathExtractor {
+
+    private final Node root;
+    private final int size;
+
+    private PathExtractor(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Compiles the provided paths into a {@link PathExtractor}.
+     *
+     * @param paths the paths to resolve, in the order their results get indexed by.
+     * @return the compiled {@link PathExtractor}.
+     * @throws IllegalArgumentException if any of the paths isn't {@link JsonPath#isDefinite() definite}.
+     * @since 3.1.0
+     */
+    public static PathExtractor compile(JsonPath... paths) {
+        var root = new Node();
+        for (var i = 0; i < paths.length; i++) {
+            if (!paths[i].isDefinite())
+                throw new IllegalArgumentException("Expected the path '%s' to match at most a single element.".formatted(paths[i]));
+            var node = root;
+            for (var step : paths[i].steps())
+                node = node.children.computeIfAbsent(step, __ -> new Node());
+            node.terminals.add(i);
+        }
+        return new PathExtractor(root, paths.length);
+    }
+
+    /**
+     * Resolves every compiled path relative to the provided {@code root}.
+     * <br><br>
+     * Paths the JSON structure doesn't satisfy don't interrupt the extraction. Instead, the
+     * {@link JsonException} that would've been thrown by {@link JsonPath#traverse(JsonElement)} gets
+     * recorded, and rethrown once the result of the path is requested.
+     *
+     * @param root the element to resolve the paths relative to.
+     * @return the {@link Extraction} holding the results, indexed in the order the paths were compiled in.
+     * @since 3.1.0
+     */
+    public Extraction extract(JsonElement root) {
+        var elements = new JsonElement[this.size];
+        var failures = new JsonException[this.size];
+        PathExtractor.extract(this.root, root, elements, failures);
+        return new Extraction(elements, failures);
+    }
+
+    private static void extract(Node node, JsonElement element, JsonElement[] elements, JsonException[] failures) {
+        for (var i = 0; i < node.terminals.size(); i++)
+            elements[node.terminals.getInt(i)] = element;
+        for (var entry : node.children.object2ObjectEntrySet()) {
+            JsonElement child;
+            try {
+                child = entry.getKey().resolve(element);
+            } catch (JsonException e) {
+                PathExtractor.fail(entry.getValue(), e, failures);
+                continue;
+            }
+            PathExtractor.extract(entry.getValue(), child, elements, failures);
+        }
+    }
+
+    private static void fail(Node node, JsonException failure, JsonException[] failures) {
+        for (var i = 0; i < node.terminals.size(); i++)
+            failures[node.terminals.getInt(i)] = failure;
+        for (var child : node.children.values())
+            PathExtractor.fail(child, failure, failures);
+    }
+
+    /**
+     * Returns the number of paths the extractor resolves.
+     *
+     * @return the number of compiled paths.
+     * @since 3.1.0
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private static final class Node {
+
+        private final Object2ObjectLinkedOpenHashMap<PathSegment, Node> children = new Object2ObjectLinkedOpenHashMap<>();
+        private final IntArrayList terminals = new IntArrayList(1);
+    }
+
+    /**
+     * Represents the results of a {@link PathExtractor#extract(JsonElement)} call,
+     * indexed in the order the paths were compiled in.
+     *
+     * @since 3.1.0
+     */
+    public static final class Extraction {
+
+        private final JsonElement[] elements;
+        private final JsonException[] failures;
+
+        private Extraction(JsonElement[] elements, JsonException[] failures) {
+            this.elements = elements;
+            this.failures = failures;
+        }
+
+        /**
+         * Determines whether the JSON structure satisfied the path at the provided index.
+         *
+         * @param index the index of the path.
+         * @return {@code true} if the path was resolved, {@code false} otherwise.
+         * @since 3.1.0
+         */
+        public boolean isPresent(int index) {
+            return this.elements[index] != null;
+        }
+
+        /**
+         * Returns the element the path at the provided index was resolved to.
+         *
+         * @param index the index of the path.
+         * @return the resolved {@link JsonElement}.
+         * @throws JsonException if the JSON structure doesn't match the one expected by the path.
+         * @since 3.1.0
+         */
+        @NotNull
+        public JsonElement get(int index) throws JsonException {
+            var element = this.elements[index];
+            if (element != null)
+                return element;
+            throw this.failures[index];
+        }
+
+        /**
+         * Parses the element the path at the provided index was resolved to according to the provided {@link Template}.
+         *
+         * @param index    the index of the path.
+         * @param template the {@link Template} the resolved element must satisfy.
+         * @return the parsed from the {@link JsonElement} value.
+         * @throws JsonException if the JSON structure doesn't match the one expected by the path, or the resolved {@link JsonElement} doesn't satisfy the provided {@link Template}.
+         * @since 3.1.0
+         */
+        public <T> T get(int index, Template<T> template) throws JsonException {
+            return this.get(index).expect(template);
+        }
+
+        /**
+         * Returns the number of paths the results are held for.
+         *
+         * @return the number of results.
+         * @since 3.1.0
+         */
+        public int size() {
+            return this.elements.length;
+        }
+    }
+}
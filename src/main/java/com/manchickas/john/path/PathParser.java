@@ -1,9 +1,19 @@
 package com.manchickas.john.path;
 
+import com.manchickas.john.John;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.primitive.JsonBoolean;
+import com.manchickas.john.ast.primitive.JsonNull;
+import com.manchickas.john.ast.primitive.JsonNumber;
+import com.manchickas.john.ast.primitive.JsonString;
 import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.path.segment.DescentSegment;
+import com.manchickas.john.path.segment.FilterOperator;
 import com.manchickas.john.path.segment.PathSegment;
 import com.manchickas.john.path.segment.PropertySegment;
+import com.manchickas.john.path.segment.SliceOperator;
 import com.manchickas.john.path.segment.SubscriptOperator;
+import com.manchickas.john.path.segment.WildcardSegment;
 import com.manchickas.john.reader.StringReader;
 import com.manchickas.john.util.ArrayBuilder;
 import org.jspecify.annotations.Nullable;
@@ -43,6 +53,14 @@ public final class PathParser extends StringReader {
                 this.read();
                 return this.process(this.readQuoted('\''));
             }
+            if (c == '*') {
+                this.read();
+                if (this.canRead() && this.peek() == '*') {
+                    this.read();
+                    return this.process(new DescentSegment());
+                }
+                return this.process(new WildcardSegment());
+            }
             return this.process(this.readUnquoted());
         }
         return null;
@@ -107,21 +125,41 @@ public final class PathParser extends StringReader {
             if (c == '/')
                 return segment;
             if (c == '[') {
-                var i = 0;
-                while (this.canRead()) {
-                    var d = this.read();
-                    if (StringReader.isDigit(d)) {
-                        i = i * 10 + (d - '0');
-                        continue;
+                if (this.skipWhitespace()) {
+                    var d = this.peek();
+                    if (d == '*') {
+                        this.read();
+                        this.expect(']');
+                        return this.process(new SliceOperator(segment, null, null, 1));
                     }
-                    if (d == ']') {
-                        var subscript = new SubscriptOperator(segment, i);
-                        return this.process(subscript);
+                    if (d == '?') {
+                        this.read();
+                        return this.process(this.readFilter(segment));
                     }
-                    throw new JsonException("Encountered an invalid index digit within a subscript operator '%c'.", d)
-                            .withSpan(this.relativeSpan(1, 0));
                 }
-                throw new JsonException("Encountered an unterminated subscript operator.");
+                var start = this.readIndex();
+                if (this.skipWhitespace() && this.peek() == ':') {
+                    this.read();
+                    var end = this.readIndex();
+                    var step = 1;
+                    if (this.skipWhitespace() && this.peek() == ':') {
+                        this.read();
+                        var index = this.readIndex();
+                        if (index != null) {
+                            if (index <= 0)
+                                throw new JsonException("Expected the step of a slice operator to be positive.")
+                                        .withSpan(this.relativeSpan(1, 0));
+                            step = index;
+                        }
+                    }
+                    this.expect(']');
+                    return this.process(new SliceOperator(segment, start, end, step));
+                }
+                if (start == null || start < 0)
+                    throw new JsonException("Expected a non-negative index within a subscript operator.")
+                            .withSpan(this.relativeSpan(1, 0));
+                this.expect(']');
+                return this.process(new SubscriptOperator(segment, start));
             }
             throw new JsonException("Encountered an unexpected character '%c' after a property segment.", c)
                     .withSpan(this.relativeSpan(1, 0));
@@ -129,6 +167,124 @@ public final class PathParser extends StringReader {
         return segment;
     }
 
+    /**
+     * Reads an optionally negative integer, returning {@code null} if there's none.
+     */
+    @Nullable
+    private Integer readIndex() throws JsonException {
+        this.skipWhitespace();
+        var negative = this.canRead() && this.peek() == '-';
+        if (negative)
+            this.read();
+        if (!this.canRead() || !StringReader.isDigit(this.peek())) {
+            if (negative)
+                throw new JsonException("Expected a digit to follow the minus sign.")
+                        .withSpan(this.relativeSpan(1, 0));
+            return null;
+        }
+        var i = 0L;
+        while (this.canRead() && StringReader.isDigit(this.peek())) {
+            i = i * 10 + (this.read() - '0');
+            if (i > Integer.MAX_VALUE)
+                throw new JsonException("Encountered an index exceeding the maximum of %d.", Integer.MAX_VALUE)
+                        .withSpan(this.relativeSpan(1, 0));
+        }
+        return (int) (negative ? -i : i);
+    }
+
+    private void expect(char expected) throws JsonException {
+        this.skipWhitespace();
+        if (!this.canRead())
+            throw new JsonException("Encountered an unterminated subscript operator.");
+        var c = this.read();
+        if (c != expected)
+            throw new JsonException("Encountered an unexpected character '%c' within a subscript operator. Expected '%c'.", c, expected)
+                    .withSpan(this.relativeSpan(1, 0));
+    }
+
+    /**
+     * Reads the body of a filter operator up to the matching closing bracket, splitting it into the relative path,
+     * and, optionally, the comparison operator and the literal to compare against.
+     */
+    private FilterOperator readFilter(PathSegment segment) throws JsonException {
+        var builder = new StringBuilder();
+        var depth = 0;
+        var quote = 0;
+        var split = -1;
+        FilterOperator.Comparison comparison = null;
+        while (this.canRead()) {
+            var c = this.read();
+            if (quote != 0) {
+                if (c == '\\' && this.canRead()) {
+                    builder.appendCodePoint(c);
+                    c = this.read();
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                builder.appendCodePoint(c);
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                if (depth-- == 0)
+                    return PathParser.filter(segment, builder.toString(), split, comparison);
+            } else if (comparison == null && depth == 0) {
+                for (var candidate : FilterOperator.Comparison.values()) {
+                    var symbol = candidate.symbol();
+                    if (c == symbol.charAt(0) && (symbol.length() == 1 || this.canRead() && this.peek() == symbol.charAt(1))) {
+                        if (symbol.length() > 1)
+                            this.read();
+                        comparison = candidate;
+                        split = builder.length();
+                        break;
+                    }
+                }
+                if (comparison != null)
+                    continue;
+            }
+            builder.appendCodePoint(c);
+        }
+        throw new JsonException("Encountered an unterminated filter operator.");
+    }
+
+    private static FilterOperator filter(PathSegment segment,
+                                         String body,
+                                         int split,
+                                         FilterOperator.@Nullable Comparison comparison) throws JsonException {
+        var path = (comparison != null ? body.substring(0, split) : body).strip();
+        if (path.isEmpty())
+            throw new JsonException("Encountered a filter operator without a path. Consider using '.' to refer to the element itself.");
+        if (comparison == null)
+            return new FilterOperator(segment, JsonPath.compile(path), null, null);
+        var literal = body.substring(split)
+                .strip();
+        if (literal.isEmpty())
+            throw new JsonException("Encountered a filter operator without a literal to compare against.");
+        return new FilterOperator(segment, JsonPath.compile(path), comparison, PathParser.literal(literal));
+    }
+
+    /**
+     * Parses the literal of a filter operator, stripping the {@link com.manchickas.john.position.SourceSpan SourceSpan}
+     * off the resulting element, so that equal filters compare equal regardless of their formatting.
+     * Single-quoted strings are accepted as well, for consistency with quoted property segments.
+     */
+    private static JsonElement literal(String literal) throws JsonException {
+        if (literal.length() > 1 && literal.charAt(0) == '\'' && literal.charAt(literal.length() - 1) == '\'')
+            return new JsonString(literal.substring(1, literal.length() - 1)
+                    .replace("\\'", "'"));
+        var element = John.parse(literal);
+        return switch (element) {
+            case JsonString string -> new JsonString(string.value());
+            case JsonNumber number -> new JsonNumber(number.value());
+            case JsonBoolean bool -> new JsonBoolean(bool.value());
+            case JsonNull __ -> new JsonNull();
+            default -> throw new JsonException("Expected the literal of a filter operator to be a primitive.");
+        };
+    }
+
     private char readEscaped() throws JsonException {
         var c = this.read();
         return switch (c) {
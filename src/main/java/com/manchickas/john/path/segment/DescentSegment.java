@@ -0,0 +1,44 @@
+package com.manchickas.john.path.segment;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.stream.Stream;
+
+/**
+ * Matches the element itself along with all of its descendants, in depth-first order, written as {@code **}.
+ * <br><br>
+ * The descendants are visited lazily, so that short-circuiting operations on the resulting stream
+ * don't walk the rest of the structure.
+ *
+ * @since 3.1.0
+ */
+public record DescentSegment() implements PathSegment {
+
+    @Override
+    public @NotNull JsonElement resolve(JsonElement root) throws JsonException {
+        throw PathSegment.indefinite(this);
+    }
+
+    @Override
+    public Stream<JsonElement> select(JsonElement root) {
+        return Stream.concat(Stream.of(root), root.children()
+                .flatMap(this::select));
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "**";
+    }
+
+    @Override
+    public int depth() {
+        return 1;
+    }
+}
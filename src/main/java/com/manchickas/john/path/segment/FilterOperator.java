@@ -0,0 +1,133 @@
+package com.manchickas.john.path.segment;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
+import com.manchickas.john.ast.primitive.JsonBoolean;
+import com.manchickas.john.ast.primitive.JsonNumber;
+import com.manchickas.john.ast.primitive.JsonString;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.path.JsonPath;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Matches the values of an object, or the elements of an array, that satisfy a predicate, written as {@code [?path]}
+ * or {@code [?path <op> literal]}.
+ * <br><br>
+ * The {@code path} is resolved relative to each candidate, and the candidate is matched if any of the elements
+ * the path selects exists, or satisfies the comparison with the {@code literal}, respectively. Numbers are compared
+ * by their value, and strings lexicographically. Comparing elements of different kinds never matches,
+ * except for the {@code !=} operator.
+ *
+ * @since 3.1.0
+ */
+public record FilterOperator(PathSegment operand,
+                             JsonPath path,
+                             @Nullable Comparison comparison,
+                             @Nullable JsonElement literal) implements PathSegment {
+
+    public FilterOperator {
+        if ((comparison == null) != (literal == null))
+            throw new IllegalArgumentException("Expected either both or neither of the comparison and the literal to be present.");
+    }
+
+    @Override
+    public @NotNull JsonElement resolve(JsonElement root) throws JsonException {
+        throw PathSegment.indefinite(this);
+    }
+
+    @Override
+    public Stream<JsonElement> select(JsonElement root) {
+        return this.operand.select(root)
+                .flatMap(JsonElement::children)
+                .filter(this::test);
+    }
+
+    private boolean test(JsonElement candidate) {
+        var selected = this.path.stream(candidate);
+        if (this.comparison != null)
+            return selected.anyMatch(element -> this.comparison.test(element, Objects.requireNonNull(this.literal)));
+        return selected.findAny()
+                .isPresent();
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        var builder = new StringBuilder(this.operand.toString())
+                .append("[?")
+                .append(this.path);
+        if (this.comparison != null)
+            builder.append(' ')
+                    .append(this.comparison.symbol)
+                    .append(' ')
+                    .append(this.literal);
+        return builder.append(']')
+                .toString();
+    }
+
+    @Override
+    public int depth() {
+        return this.operand.depth() + 1;
+    }
+
+    public enum Comparison {
+        EQUAL("=="),
+        NOT_EQUAL("!="),
+        LESS_OR_EQUAL("<="),
+        GREATER_OR_EQUAL(">="),
+        LESS("<"),
+        GREATER(">");
+
+        private final String symbol;
+
+        Comparison(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String symbol() {
+            return this.symbol;
+        }
+
+        public boolean test(JsonElement left, JsonElement right) {
+            var order = Comparison.compare(left, right);
+            return switch (this) {
+                case EQUAL -> order != null && order == 0;
+                case NOT_EQUAL -> order == null || order != 0;
+                case LESS_OR_EQUAL -> order != null && order <= 0 && Comparison.isOrdered(left);
+                case GREATER_OR_EQUAL -> order != null && order >= 0 && Comparison.isOrdered(left);
+                case LESS -> order != null && order < 0;
+                case GREATER -> order != null && order > 0;
+            };
+        }
+
+        /**
+         * Compares the provided elements, returning {@code null} if they aren't comparable. Booleans and nulls are
+         * only ever equal or not, in which case {@code 0} or {@code null} is returned.
+         */
+        private static @Nullable Integer compare(JsonElement left, JsonElement right) {
+            if (left.kind() != right.kind())
+                return null;
+            if (left instanceof JsonNumber l && right instanceof JsonNumber r)
+                return Double.compare(l.value().doubleValue(), r.value().doubleValue());
+            if (left instanceof JsonString l && right instanceof JsonString r)
+                return l.value().compareTo(r.value());
+            if (left.kind() == JsonKind.NULL)
+                return 0;
+            if (left instanceof JsonBoolean l && right instanceof JsonBoolean r)
+                return l.value().equals(r.value()) ? 0 : null;
+            return null;
+        }
+
+        private static boolean isOrdered(JsonElement element) {
+            return element.kind() == JsonKind.NUMBER || element.kind() == JsonKind.STRING;
+        }
+    }
+}
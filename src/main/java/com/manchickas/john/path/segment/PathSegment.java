@@ -4,6 +4,8 @@ import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.exception.JsonException;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.stream.Stream;
+
 public interface PathSegment {
 
     PathSegment THIS = new PathSegment() {
@@ -27,8 +29,44 @@ public interface PathSegment {
     @NotNull
     JsonElement resolve(JsonElement root) throws JsonException;
 
+    /**
+     * Lazily selects every element the segment matches, relative to the provided {@code root}.
+     * <br><br>
+     * Unlike {@link #resolve(JsonElement)}, selection never fails. Elements that don't satisfy the segment
+     * are simply left out of the stream. The default implementation selects the single element
+     * {@link #resolve(JsonElement) resolved} by the segment, if any.
+     *
+     * @param root the element to select relative to.
+     * @return a {@link Stream} of the matching elements.
+     * @since 3.1.0
+     */
+    default Stream<JsonElement> select(JsonElement root) {
+        try {
+            return Stream.of(this.resolve(root));
+        } catch (JsonException e) {
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Determines whether the segment matches at most a single element, and may thus be {@link #resolve(JsonElement) resolved}.
+     *
+     * @return {@code true} if the segment is definite, {@code false} otherwise.
+     * @since 3.1.0
+     */
+    default boolean isDefinite() {
+        return true;
+    }
+
     @Override
     String toString();
 
     int depth();
+
+    /**
+     * Creates the exception thrown when an indefinite segment gets {@link #resolve(JsonElement) resolved}.
+     */
+    static JsonException indefinite(PathSegment segment) {
+        return new JsonException("Encountered a segment '%s' that may match any number of elements. Consider using 'getAll' instead.", segment);
+    }
 }
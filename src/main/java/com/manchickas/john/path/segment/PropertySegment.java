@@ -1,9 +1,12 @@
 package com.manchickas.john.path.segment;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.exception.JsonException;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.stream.Stream;
+
 public record PropertySegment(String name) implements PathSegment {
 
     @Override
@@ -11,6 +14,13 @@ public record PropertySegment(String name) implements PathSegment {
         return root.property(this.name);
     }
 
+    @Override
+    public Stream<JsonElement> select(JsonElement root) {
+        if (root instanceof JsonObject object)
+            return Stream.ofNullable(object.find(this.name));
+        return Stream.empty();
+    }
+
     @Override
     public @NotNull String toString() {
         return this.name;
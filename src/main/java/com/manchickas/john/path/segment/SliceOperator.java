@@ -0,0 +1,88 @@
+package com.manchickas.john.path.segment;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
+import com.manchickas.john.exception.JsonException;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Matches the elements of an array within the {@code [start:end:step]} range, where negative bounds count from the end
+ * of the array, and missing bounds default to the whole array. The {@code [*]} operator is a slice without any bounds.
+ *
+ * @since 3.1.0
+ */
+public record SliceOperator(PathSegment operand, @Nullable Integer start, @Nullable Integer end, int step) implements PathSegment {
+
+    public SliceOperator {
+        if (step <= 0)
+            throw new IllegalArgumentException("Expected the step of a slice to be positive.");
+    }
+
+    @Override
+    public @NotNull JsonElement resolve(JsonElement root) throws JsonException {
+        throw PathSegment.indefinite(this);
+    }
+
+    @Override
+    public Stream<JsonElement> select(JsonElement root) {
+        return this.operand.select(root)
+                .filter(element -> element.kind() == JsonKind.ARRAY)
+                .flatMap(this::slice);
+    }
+
+    private Stream<JsonElement> slice(JsonElement array) {
+        var length = array.length();
+        var start = SliceOperator.bound(this.start, 0, length);
+        var end = SliceOperator.bound(this.end, length, length);
+        if (start == 0 && end == length && this.step == 1)
+            return array.children();
+        return IntStream.iterate(start, i -> i < end, i -> i + this.step)
+                .mapToObj(i -> {
+                    try {
+                        return array.subscript(i);
+                    } catch (JsonException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+
+    private static int bound(@Nullable Integer bound, int fallback, int length) {
+        if (bound == null)
+            return fallback;
+        if (bound < 0)
+            return Math.max(0, bound + length);
+        return Math.min(bound, length);
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        if (this.start == null && this.end == null && this.step == 1)
+            return this.operand.toString() + "[*]";
+        var builder = new StringBuilder(this.operand.toString())
+                .append('[');
+        if (this.start != null)
+            builder.append(this.start);
+        builder.append(':');
+        if (this.end != null)
+            builder.append(this.end);
+        if (this.step != 1)
+            builder.append(':')
+                    .append(this.step);
+        return builder.append(']')
+                .toString();
+    }
+
+    @Override
+    public int depth() {
+        return this.operand.depth() + 1;
+    }
+}
@@ -1,9 +1,12 @@
 package com.manchickas.john.path.segment;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.exception.JsonException;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.stream.Stream;
+
 public record SubscriptOperator(PathSegment operand, int index) implements PathSegment {
 
     @Override
@@ -12,6 +15,26 @@ public record SubscriptOperator(PathSegment operand, int index) implements PathS
                 .subscript(this.index);
     }
 
+    @Override
+    public Stream<JsonElement> select(JsonElement root) {
+        if (this.operand.isDefinite())
+            return PathSegment.super.select(root);
+        return this.operand.select(root)
+                .filter(element -> element.kind() == JsonKind.ARRAY && this.index < element.length())
+                .flatMap(element -> {
+                    try {
+                        return Stream.of(element.subscript(this.index));
+                    } catch (JsonException e) {
+                        return Stream.empty();
+                    }
+                });
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return this.operand.isDefinite();
+    }
+
     @Override
     public @NotNull String toString() {
         return this.operand.toString() + '[' + this.index + ']';
@@ -0,0 +1,40 @@
+package com.manchickas.john.path.segment;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.stream.Stream;
+
+/**
+ * Matches every value of an object, or every element of an array, written as {@code *}.
+ *
+ * @since 3.1.0
+ */
+public record WildcardSegment() implements PathSegment {
+
+    @Override
+    public @NotNull JsonElement resolve(JsonElement root) throws JsonException {
+        throw PathSegment.indefinite(this);
+    }
+
+    @Override
+    public Stream<JsonElement> select(JsonElement root) {
+        return root.children();
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "*";
+    }
+
+    @Override
+    public int depth() {
+        return 1;
+    }
+}
@@ -2,13 +2,29 @@ package com.manchickas.john.position;
 
 import org.jetbrains.annotations.NotNull;
 
-public record SourceSpan(String sourceLine, int line, int start, int end) {
+/**
+ * Represents the columns {@code start} through {@code end}, inclusive, of a single line of the source.
+ * <br><br>
+ * The {@code sourceLine} is usually the whole line. Sources read incrementally, which may consist of a single,
+ * arbitrarily long line, only retain an excerpt of it instead, preceded by {@code offset} columns of the line.
+ *
+ * @param sourceLine the line, or an excerpt of it, the span lies within.
+ * @param line       the number of the line, starting at {@code 1}.
+ * @param start      the first column of the span, starting at {@code 1}.
+ * @param end        the last column of the span.
+ * @param offset     the number of columns of the line preceding the {@code sourceLine}.
+ */
+public record SourceSpan(String sourceLine, int line, int start, int end, int offset) {
 
     private static final String LIGHT_GRAY = "\u001B[37m";
     private static final String GRAY = "\u001B[90m";
     private static final String RED = "\u001B[91m";
     private static final String RESET = "\u001B[0m";
 
+    public SourceSpan(String sourceLine, int line, int start, int end) {
+        this(sourceLine, line, start, end, 0);
+    }
+
     public static SourceSpan lineWide(String sourceLine, int line) {
         return new SourceSpan(sourceLine, line, 1, sourceLine.length());
     }
@@ -18,30 +34,35 @@ public record SourceSpan(String sourceLine, int line, int start, int end) {
     }
 
     public String underlineSource(boolean format) {
+        var start = this.start - this.offset;
+        var end = this.end - this.offset;
         return new StringBuilder()
                 .append(format ? LIGHT_GRAY : "")
-                .append(this.sourceLine, 0, this.start - 1)
+                .append(this.sourceLine, 0, start - 1)
                 .append(format ? RESET : "")
                 .append(format ? RED : "")
-                .append(this.sourceLine, this.start - 1, this.end)
+                .append(this.sourceLine, start - 1, end)
                 .append(format ? RESET : "")
                 .append(format ? LIGHT_GRAY : "")
-                .append(this.sourceLine, this.end, this.sourceLine.length())
+                .append(this.sourceLine, end, this.sourceLine.length())
                 .append(format ? RESET : "")
                 .append('\n')
-                .repeat(" ", this.start - 1)
+                .repeat(" ", start - 1)
                 .append(format ? GRAY : "")
-                .repeat("^", this.end - this.start + 1)
+                .repeat("^", end - start + 1)
                 .append(format ? RESET : "")
                 .toString();
     }
 
     public SourceSpan extend(SourceSpan span) {
-        if (span.line != this.line)
+        if (span.line != this.line || span.offset != this.offset)
             return this;
-        return new SourceSpan(this.sourceLine, this.line,
+        // Excerpts starting at the same column differ only in how far they extend
+        var sourceLine = span.sourceLine.length() > this.sourceLine.length() ? span.sourceLine : this.sourceLine;
+        return new SourceSpan(sourceLine, this.line,
                 Math.min(this.start, span.start),
-                Math.max(this.end, span.end));
+                Math.max(this.end, span.end),
+                this.offset);
     }
 
     @Override
@@ -0,0 +1,150 @@
+package com.manchickas.john.reader;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.function.IntSupplier;
+
+/**
+ * Exposes the characters of a {@link Reader} as a {@link CharSequence}, to be read by a {@link StringReader}
+ * without holding the whole source in memory.
+ * <br><br>
+ * The characters are kept in a buffer that only spans the part of the source the {@link StringReader} may still
+ * revisit, that is, the lexeme being read, along with some context preceding it. Whenever the buffer runs out,
+ * the characters before that part are discarded, and the rest is refilled from the {@link Reader}. The buffer only
+ * grows past its initial capacity to hold a single lexeme longer than it, such as a very long string.
+ * <br><br>
+ * The length of the sequence is unknown until the {@link Reader} is exhausted, and is reported as
+ * {@link Integer#MAX_VALUE} until then, which also bounds the length of the sources that may be read.
+ * Any {@link IOException} thrown by the {@link Reader} is rethrown as an {@link UncheckedIOException}.
+ *
+ * @since 3.1.0
+ */
+public final class SlidingSource implements CharSequence {
+
+    /**
+     * The number of characters the buffer holds, unless specified otherwise.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final Reader reader;
+    private char[] buffer;
+    /**
+     * The index within the source of the first character held by the buffer.
+     */
+    private int start;
+    /**
+     * The number of characters held by the buffer.
+     */
+    private int size;
+    private int length;
+    private IntSupplier retained;
+
+    public SlidingSource(Reader reader) {
+        this(reader, DEFAULT_CAPACITY);
+    }
+
+    public SlidingSource(Reader reader, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Expected a positive capacity, got %d.".formatted(capacity));
+        this.reader = reader;
+        this.buffer = new char[capacity];
+        this.start = 0;
+        this.size = 0;
+        this.length = -1;
+        this.retained = () -> this.start;
+    }
+
+    /**
+     * Sets the supplier of the index within the source, before which the characters are no longer needed.
+     */
+    void retain(IntSupplier retained) {
+        this.retained = retained;
+    }
+
+    /**
+     * Determines whether the source extends to the provided {@code index}, reading ahead if necessary.
+     *
+     * @param index the index within the source.
+     * @return {@code true} if there's a character at the provided {@code index}, {@code false} if the source ends before it.
+     */
+    public boolean has(int index) {
+        return index < this.start + this.size || this.fill(index);
+    }
+
+    /**
+     * Returns the index within the source of the first character still held by the buffer.
+     */
+    public int start() {
+        return this.start;
+    }
+
+    @Override
+    public int length() {
+        return this.length < 0 ? Integer.MAX_VALUE : this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index >= this.start + this.size && !this.fill(index))
+            throw new IndexOutOfBoundsException("Index %d out of bounds for length %d".formatted(index, this.length));
+        if (index < this.start)
+            throw new IllegalStateException("Attempted to revisit the character at %d, which has already been discarded.".formatted(index));
+        return this.buffer[index - this.start];
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(int start, int end) {
+        if (end > start)
+            this.charAt(end - 1);
+        if (start < this.start)
+            throw new IllegalStateException("Attempted to revisit the character at %d, which has already been discarded.".formatted(start));
+        return new String(this.buffer, start - this.start, end - start);
+    }
+
+    /**
+     * Returns the characters currently held by the buffer.
+     */
+    @Override
+    public @NotNull String toString() {
+        return new String(this.buffer, 0, this.size);
+    }
+
+    private boolean fill(int index) {
+        try {
+            while (index >= this.start + this.size) {
+                if (this.length >= 0)
+                    return false;
+                if (this.size == this.buffer.length)
+                    this.makeRoom();
+                var read = this.reader.read(this.buffer, this.size, this.buffer.length - this.size);
+                if (read < 0) {
+                    this.length = this.start + this.size;
+                    return false;
+                }
+                this.size += read;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Discards the characters that are no longer needed, or grows the buffer if too few of them can be.
+     */
+    private void makeRoom() {
+        var discarded = Math.clamp(this.retained.getAsInt() - this.start, 0, this.size);
+        if (discarded <= this.buffer.length / 4) {
+            var buffer = new char[this.buffer.length * 2];
+            System.arraycopy(this.buffer, discarded, buffer, 0, this.size - discarded);
+            this.buffer = buffer;
+        } else {
+            System.arraycopy(this.buffer, discarded, this.buffer, 0, this.size - discarded);
+        }
+        this.start += discarded;
+        this.size -= discarded;
+    }
+}
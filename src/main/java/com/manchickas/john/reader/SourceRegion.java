@@ -0,0 +1,103 @@
+package com.manchickas.john.reader;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Exposes regions of {@code char[]}s and UTF-8 encoded {@code byte[]}s as {@link CharSequence}s, to be read
+ * in place by a {@link StringReader}, with indices relative to the start of the region.
+ *
+ * @since 3.1.0
+ */
+public final class SourceRegion {
+
+    private SourceRegion() {
+    }
+
+    /**
+     * Exposes the provided region of the {@code chars} as a {@link CharSequence}, without copying it.
+     *
+     * @param chars  the buffer holding the region.
+     * @param offset the index of the first character of the region.
+     * @param length the number of characters in the region.
+     * @return the {@link CharSequence} viewing the region.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code chars}.
+     * @since 3.1.0
+     */
+    public static CharSequence of(char[] chars, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, chars.length);
+        return new Chars(chars, offset, length);
+    }
+
+    /**
+     * Exposes the provided region of the {@code bytes} as a {@link CharSequence}.
+     * <br><br>
+     * Regions consisting solely of ASCII characters, which covers the vast majority of JSON, are viewed in place,
+     * each byte standing for a single character. Any other region is decoded once, replacing malformed input
+     * with the {@code U+FFFD} replacement character.
+     *
+     * @param bytes  the buffer holding the region.
+     * @param offset the index of the first byte of the region.
+     * @param length the number of bytes in the region.
+     * @return the {@link CharSequence} of the characters encoded by the region.
+     * @throws IndexOutOfBoundsException if the region lies outside the bounds of the {@code bytes}.
+     * @since 3.1.0
+     */
+    public static CharSequence of(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        for (var i = offset; i < offset + length; i++) {
+            if (bytes[i] < 0)
+                return StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes, offset, length));
+        }
+        return new Ascii(bytes, offset, length);
+    }
+
+    /**
+     * A view of a region of a {@code char[]}.
+     */
+    private record Chars(char[] array, int offset, int length) implements CharSequence {
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, this.length);
+            return this.array[this.offset + index];
+        }
+
+        @Override
+        public @NotNull CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, this.length);
+            return new Chars(this.array, this.offset + start, end - start);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return new String(this.array, this.offset, this.length);
+        }
+    }
+
+    /**
+     * A view of a region of ASCII characters, each encoded by a single byte.
+     */
+    private record Ascii(byte[] bytes, int offset, int length) implements CharSequence {
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, this.length);
+            return (char) this.bytes[this.offset + index];
+        }
+
+        @Override
+        public @NotNull CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, this.length);
+            return new Ascii(this.bytes, this.offset + start, end - start);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return new String(this.bytes, this.offset, this.length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
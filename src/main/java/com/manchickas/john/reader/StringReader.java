@@ -1,29 +1,139 @@
 package com.manchickas.john.reader;
 
 import com.manchickas.john.position.SourceSpan;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
 import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
 
 public class StringReader {
 
-    private final String src;
+    /**
+     * The number of characters preceding the lexeme being read, which a {@link SlidingSource} retains as context.
+     */
+    private static final int CONTEXT_LENGTH = 1 << 6;
+    /**
+     * The number of characters following the lexeme being read, which an excerpt of a line extends to.
+     */
+    private static final int EXCERPT_LENGTH = 1 << 10;
+    /**
+     * The number of stamps and cached lines a reader keeps room for across {@link #reset(CharSequence) resets},
+     * beyond which the respective collections get shrunk back.
+     */
+    private static final int RETAINED_CAPACITY = 1 << 4;
+
+    private CharSequence src;
     private final ObjectArrayFIFOQueue<Position> stamps;
-    private final IntArrayFIFOQueue lineBounds;
-    private final Int2ObjectMap<String> readLines;
+    private final Int2ObjectOpenHashMap<String> readLines;
+    /**
+     * The largest number of stamps held at once since the last {@link #reset(CharSequence) reset}.
+     */
+    private int maxStamps;
     private int cursor;
     private int column;
     private int line;
+    /**
+     * The index of the first character of the current line.
+     */
+    private int lineStart;
+    /**
+     * The excerpt of the current line, used in place of the whole line by {@link SlidingSource}s.
+     */
+    private String excerpt;
+    private int excerptStart;
+    /**
+     * The column of the first character of the {@link #excerpt}, which differs from its index within the line
+     * whenever the line contains any surrogate pairs.
+     */
+    private int excerptColumn;
+    private int excerptLine;
+
+    /**
+     * Creates a reader over the provided {@code src}, which is read in place, and may thus be a view of a larger buffer,
+     * such as a {@link java.nio.CharBuffer CharBuffer} wrapping a region of a {@code char[]}.
+     *
+     * @param src the source to read.
+     */
+    public StringReader(CharSequence src) {
+        this(src, 1);
+    }
 
-    public StringReader(String src) {
+    /**
+     * Creates a reader over a source that starts at the provided {@code line} of some larger document,
+     * so that the {@link SourceSpan}s it reports refer to the lines of that document.
+     *
+     * @param src  the source to read.
+     * @param line the line of the document the source starts at.
+     * @since 3.1.0
+     */
+    public StringReader(CharSequence src, int line) {
         this.src = src;
         this.stamps = new ObjectArrayFIFOQueue<>();
-        this.lineBounds = new IntArrayFIFOQueue();
         this.readLines = new Int2ObjectOpenHashMap<>();
         this.cursor = 0;
         this.column = 1;
+        this.line = line;
+        this.lineStart = 0;
+        if (src instanceof SlidingSource source)
+            source.retain(this::retained);
+    }
+
+    /**
+     * Creates a reader over the same source as the provided one, positioned where the provided reader currently is,
+     * as if it had read everything before that position itself.
+     * <br><br>
+     * The created reader is independent of the provided one, allowing several readers to process disjoint parts
+     * of the same source concurrently, while still reporting the correct {@link SourceSpan}s.
+     *
+     * @param reader the reader to branch off.
+     * @since 3.1.0
+     */
+    protected StringReader(StringReader reader) {
+        this(reader.src);
+        this.cursor = reader.cursor;
+        this.column = reader.column;
+        this.line = reader.line;
+        this.lineStart = reader.lineStart;
+        this.readLines.put(this.line, reader.readLine());
+    }
+
+    /**
+     * Repositions the reader at the start of the provided {@code src}, discarding any state accumulated
+     * while reading the previous source, so that the reader may be reused without allocating a new one.
+     * <br><br>
+     * The backing collections keep their capacity, unless reading the previous source grew them
+     * beyond a small bound, in which case they're shrunk back.
+     *
+     * @param src the source to read next.
+     * @since 3.1.0
+     */
+    public void reset(CharSequence src) {
+        this.src = src;
+        this.stamps.clear();
+        if (this.maxStamps > RETAINED_CAPACITY)
+            this.stamps.trim();
+        this.maxStamps = 0;
+        this.readLines.clear();
+        this.readLines.trim(RETAINED_CAPACITY);
+        this.cursor = 0;
+        this.column = 1;
         this.line = 1;
+        this.lineStart = 0;
+        this.excerpt = null;
+        if (src instanceof SlidingSource source)
+            source.retain(this::retained);
+    }
+
+    /**
+     * Drops the references to the source, along with any lines copied out of it, so that the source
+     * may be garbage collected while the reader is kept around to be {@link #reset(CharSequence) reset} later.
+     * <br><br>
+     * The reader must not be read from until it's reset.
+     *
+     * @since 3.1.0
+     */
+    public void release() {
+        this.src = "";
+        this.excerpt = null;
+        this.readLines.clear();
     }
 
     public static boolean isSign(int c) {
@@ -47,16 +157,16 @@ public class StringReader {
     }
 
     public int peek() {
-        return this.src.codePointAt(this.cursor);
+        return Character.codePointAt(this.src, this.cursor);
     }
 
     public int peekAhead(int amount) {
         var cursor = this.cursor;
         while (amount-- > 0) {
-            var c = this.src.codePointAt(cursor);
+            var c = Character.codePointAt(this.src, cursor);
             cursor += Character.charCount(c);
         }
-        return this.src.codePointAt(cursor);
+        return Character.codePointAt(this.src, cursor);
     }
 
     public int read(int amount) {
@@ -69,7 +179,7 @@ public class StringReader {
         var c = this.peek();
         this.cursor += Character.charCount(c);
         if (c == '\n') {
-            this.lineBounds.enqueueFirst(this.cursor);
+            this.lineStart = this.cursor;
             this.column = 1;
             this.line++;
             return '\n';
@@ -84,15 +194,24 @@ public class StringReader {
         return this.canRead();
     }
 
+    /**
+     * Returns the index of the next character to be read within the source.
+     *
+     * @since 3.1.0
+     */
+    public int cursor() {
+        return this.cursor;
+    }
+
     public boolean canRead() {
-        return this.cursor < this.src.length();
+        return this.isWithinBounds(this.cursor);
     }
 
     public boolean canRead(int amount) {
         var cursor = this.cursor;
         var i = 0;
-        while (cursor < this.src.length()) {
-            var c = this.src.codePointAt(cursor);
+        while (this.isWithinBounds(cursor)) {
+            var c = Character.codePointAt(this.src, cursor);
             cursor += Character.charCount(c);
             if (++i == amount)
                 break;
@@ -102,6 +221,8 @@ public class StringReader {
 
     protected void pushStamp() {
         this.stamps.enqueueFirst(new Position(this.cursor, this.column, this.line));
+        if (this.stamps.size() > this.maxStamps)
+            this.maxStamps = this.stamps.size();
     }
 
     protected Position popStamp() {
@@ -127,46 +248,114 @@ public class StringReader {
     }
 
     public SourceSpan span(Position start) {
-        return new SourceSpan(this.readLine(), this.line,
-                start.column(), this.column - 1);
+        return this.span(start.column(), this.column - 1);
     }
 
     public SourceSpan charSpan() {
-        return SourceSpan.charWide(this.readLine(), this.line, this.column);
+        return this.span(this.column, this.column);
     }
 
     public SourceSpan relativeSpan(int left, int right) {
-        return new SourceSpan(this.readLine(), this.line,
-                this.column - left, this.column + right - 1);
+        return this.span(this.column - left, this.column + right - 1);
+    }
+
+    private SourceSpan span(int start, int end) {
+        if (this.src instanceof SlidingSource source) {
+            var excerpt = this.readExcerpt(source, start);
+            return new SourceSpan(excerpt, this.line, start, end, this.excerptColumn - 1);
+        }
+        return new SourceSpan(this.readLine(), this.line, start, end);
     }
 
     public String slice() {
         var stamp = this.popStamp();
         var start = stamp.cursor();
-        return this.src.substring(start, this.cursor);
+        return this.src.subSequence(start, this.cursor)
+                .toString();
     }
 
     public String readLine() {
+        if (this.src instanceof SlidingSource source)
+            return this.readExcerpt(source, this.column);
         var cached = this.readLines.get(this.line);
         if (cached == null) {
-            this.pushStamp();
-            this.cursor = this.lineBounds.isEmpty() ? 0
-                    : this.lineBounds.firstInt();
-            var builder = new StringBuilder();
-            while (this.canRead()) {
-                var c = this.peek();
-                if (c == '\n')
-                    break;
-                builder.appendCodePoint(this.read());
-            }
-            var line = builder.toString();
+            var start = this.lineStart;
+            var end = this.indexOf('\n', start);
+            var line = this.src.subSequence(start, end < 0 ? this.src.length() : end)
+                    .toString();
             this.readLines.put(this.line, line);
-            this.backtrack();
             return line;
         }
         return cached;
     }
 
+    /**
+     * Returns an excerpt of the current line, which spans from the provided {@code column} up to the cursor at least.
+     * <br><br>
+     * Excerpts extend some way past the cursor, so that the spans of the subsequent lexemes can share them,
+     * much like the spans of a line share the line itself.
+     */
+    private String readExcerpt(SlidingSource source, int column) {
+        var from = this.indexOfColumn(source, column);
+        if (this.excerpt == null || this.excerptLine != this.line || from < this.excerptStart
+                || this.cursor > this.excerptStart + this.excerpt.length()) {
+            var end = this.cursor;
+            while (end < this.cursor + EXCERPT_LENGTH && source.has(end) && source.charAt(end) != '\n')
+                end++;
+            // Reading ahead may have discarded some of the characters, so the start is only determined afterward
+            var floor = Math.max(this.lineStart, source.start());
+            var start = Math.max(floor, from - CONTEXT_LENGTH);
+            if (start > floor && Character.isLowSurrogate(source.charAt(start)) && Character.isHighSurrogate(source.charAt(start - 1)))
+                start--;
+            this.excerpt = source.subSequence(start, end)
+                    .toString();
+            this.excerptStart = start;
+            this.excerptColumn = this.column - Character.codePointCount(source, start, this.cursor);
+            this.excerptLine = this.line;
+        }
+        return this.excerpt;
+    }
+
+    /**
+     * Returns the index of the character at the provided {@code column} of the current line, walking back
+     * from the cursor one code point at a time, or the cursor itself if the column lies ahead of it.
+     */
+    private int indexOfColumn(SlidingSource source, int column) {
+        var floor = Math.max(this.lineStart, source.start());
+        var index = this.cursor;
+        for (var i = column; i < this.column && index > floor; i++) {
+            index--;
+            if (index > floor && Character.isLowSurrogate(source.charAt(index)) && Character.isHighSurrogate(source.charAt(index - 1)))
+                index--;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index within the source, before which the characters will never be revisited.
+     */
+    private int retained() {
+        var retained = this.stamps.isEmpty() ? this.cursor
+                : Math.min(this.cursor, this.stamps.last().cursor());
+        return Math.max(this.lineStart, retained - CONTEXT_LENGTH);
+    }
+
+    private boolean isWithinBounds(int index) {
+        if (this.src instanceof SlidingSource source)
+            return source.has(index);
+        return index < this.src.length();
+    }
+
+    private int indexOf(char c, int from) {
+        if (this.src instanceof String str)
+            return str.indexOf(c, from);
+        for (var i = from; i < this.src.length(); i++) {
+            if (this.src.charAt(i) == c)
+                return i;
+        }
+        return -1;
+    }
+
     public record Position(int cursor, int column, int line) {
     }
 }
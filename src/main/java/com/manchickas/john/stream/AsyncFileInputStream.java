@@ -0,0 +1,118 @@
+package com.manchickas.john.stream;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Reads an {@link AsynchronousFileChannel} as an {@link InputStream}, always keeping a single read of the next block
+ * in flight, so that the I/O of each block overlaps with the processing of the previous one.
+ * <br><br>
+ * The stream is meant to be consumed by a virtual thread, which only parks while waiting for a block that hasn't
+ * arrived yet. Closing the stream doesn't close the channel.
+ *
+ * @since 3.1.0
+ */
+public final class AsyncFileInputStream extends InputStream {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private final AsynchronousFileChannel channel;
+    private ByteBuffer current;
+    private ByteBuffer next;
+    private Future<Integer> pending;
+    private long position;
+    private boolean exhausted;
+
+    public AsyncFileInputStream(AsynchronousFileChannel channel) {
+        this(channel, 0);
+    }
+
+    public AsyncFileInputStream(AsynchronousFileChannel channel, long position) {
+        if (position < 0)
+            throw new IllegalArgumentException("Expected a non-negative position, got %d.".formatted(position));
+        this.channel = channel;
+        this.current = ByteBuffer.allocate(BLOCK_SIZE)
+                .limit(0);
+        this.next = ByteBuffer.allocate(BLOCK_SIZE);
+        this.position = position;
+        this.exhausted = false;
+        this.pending = channel.read(this.next, position);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.advance())
+            return this.current.get() & 0xFF;
+        return -1;
+    }
+
+    @Override
+    public int read(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        if (length == 0)
+            return 0;
+        if (this.advance()) {
+            var n = Math.min(length, this.current.remaining());
+            this.current.get(bytes, offset, n);
+            return n;
+        }
+        return -1;
+    }
+
+    @Override
+    public int available() {
+        return this.current.remaining();
+    }
+
+    @Override
+    public void close() {
+        if (this.pending != null)
+            this.pending.cancel(false);
+        this.pending = null;
+        this.exhausted = true;
+        this.current.limit(0);
+    }
+
+    /**
+     * Ensures the current block has any bytes remaining, swapping in the block read ahead, and requesting the one after it.
+     */
+    private boolean advance() throws IOException {
+        while (!this.current.hasRemaining()) {
+            if (this.exhausted)
+                return false;
+            var read = this.await();
+            if (read < 0) {
+                this.exhausted = true;
+                this.pending = null;
+                return false;
+            }
+            var block = this.next.flip();
+            this.next = this.current.clear();
+            this.current = block;
+            this.position += read;
+            this.pending = this.channel.read(this.next, this.position);
+        }
+        return true;
+    }
+
+    private int await() throws IOException {
+        try {
+            return this.pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while awaiting a read.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause)
+                throw cause;
+            throw new IOException(e.getCause());
+        }
+    }
+}
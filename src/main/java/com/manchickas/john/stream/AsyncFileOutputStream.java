@@ -0,0 +1,132 @@
+package com.manchickas.john.stream;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Writes to an {@link AsynchronousFileChannel} as an {@link OutputStream}, always keeping a single write of the previous
+ * block in flight, so that the I/O of each block overlaps with the production of the next one.
+ * <br><br>
+ * The stream is meant to be written to by a virtual thread, which only parks while waiting for the previous block
+ * to be written. Flushing the stream waits for every block to be written, while closing it doesn't close the channel.
+ *
+ * @see AsyncFileInputStream
+ * @since 3.1.0
+ */
+public final class AsyncFileOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private final AsynchronousFileChannel channel;
+    private ByteBuffer current;
+    private ByteBuffer written;
+    private Future<Integer> pending;
+    private long position;
+    private boolean closed;
+
+    public AsyncFileOutputStream(AsynchronousFileChannel channel) {
+        this(channel, 0);
+    }
+
+    public AsyncFileOutputStream(AsynchronousFileChannel channel, long position) {
+        if (position < 0)
+            throw new IllegalArgumentException("Expected a non-negative position, got %d.".formatted(position));
+        this.channel = channel;
+        this.current = ByteBuffer.allocate(BLOCK_SIZE);
+        this.written = ByteBuffer.allocate(BLOCK_SIZE);
+        this.position = position;
+        this.closed = false;
+    }
+
+    /**
+     * Returns the position within the file the next byte will be written at, once all the buffered bytes are written.
+     *
+     * @return the position of the next byte.
+     * @since 3.1.0
+     */
+    public long position() {
+        return this.position + (this.pending == null ? 0 : this.written.remaining()) + this.current.position();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.ensureOpen();
+        if (!this.current.hasRemaining())
+            this.submit();
+        this.current.put((byte) b);
+    }
+
+    @Override
+    public void write(byte @NotNull [] bytes, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        this.ensureOpen();
+        while (length > 0) {
+            if (!this.current.hasRemaining())
+                this.submit();
+            var n = Math.min(length, this.current.remaining());
+            this.current.put(bytes, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.ensureOpen();
+        if (this.current.position() > 0)
+            this.submit();
+        this.await();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!this.closed) {
+            this.flush();
+            this.closed = true;
+        }
+    }
+
+    /**
+     * Waits for the write of the previous block to finish, and starts writing the current one in its place.
+     */
+    private void submit() throws IOException {
+        this.await();
+        var block = this.current.flip();
+        this.current = this.written.clear();
+        this.written = block;
+        this.pending = this.channel.write(block, this.position);
+    }
+
+    /**
+     * Waits for the block in flight to be written as a whole, resuming the write whenever only a part of it has been written.
+     */
+    private void await() throws IOException {
+        while (this.pending != null) {
+            try {
+                this.position += this.pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while awaiting a write.");
+            } catch (ExecutionException e) {
+                this.pending = null;
+                if (e.getCause() instanceof IOException cause)
+                    throw cause;
+                throw new IOException(e.getCause());
+            }
+            this.pending = this.written.hasRemaining() ? this.channel.write(this.written, this.position) : null;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed)
+            throw new IOException("Attempted to write to a closed stream.");
+    }
+}
@@ -0,0 +1,219 @@
+package com.manchickas.john.stream;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Represents the compression formats JSON may be read and written in, which are applied block-by-block
+ * as the data streams through, so that neither the compressed, nor the uncompressed data needs to be held
+ * in memory as a whole.
+ *
+ * @since 3.1.0
+ */
+public enum Compression {
+
+    /**
+     * The data is left as is.
+     */
+    NONE {
+        @Override
+        public InputStream decompress(InputStream stream) {
+            return stream;
+        }
+
+        @Override
+        public OutputStream compress(OutputStream stream) {
+            return stream;
+        }
+    },
+    /**
+     * The data is compressed in the <a href="https://www.rfc-editor.org/rfc/rfc1952">gzip</a> format,
+     * as found in {@code .gz} files.
+     */
+    GZIP {
+        @Override
+        public InputStream decompress(InputStream stream) throws IOException {
+            return new GZIPInputStream(stream, BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream compress(OutputStream stream) throws IOException {
+            return new GZIPOutputStream(stream, BUFFER_SIZE, true);
+        }
+    },
+    /**
+     * The data is compressed in the <a href="https://www.rfc-editor.org/rfc/rfc1950">zlib</a> format,
+     * as used by the {@code deflate} HTTP content coding.
+     */
+    DEFLATE {
+        @Override
+        public InputStream decompress(InputStream stream) {
+            // Streams given their own inflater don't release it on their own
+            return new InflaterInputStream(stream, new Inflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        this.inf.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public OutputStream compress(OutputStream stream) {
+            return new DeflaterOutputStream(stream, new Deflater(), BUFFER_SIZE, true) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        this.def.end();
+                    }
+                }
+            };
+        }
+    };
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Wraps the provided {@code stream} into one yielding its decompressed contents.
+     * <br><br>
+     * Closing the returned stream closes the provided {@code stream} as well.
+     *
+     * @param stream the stream to decompress.
+     * @return the decompressing {@link InputStream}.
+     * @throws IOException if the header of the compressed data couldn't be read, or is malformed.
+     * @since 3.1.0
+     */
+    public abstract InputStream decompress(InputStream stream) throws IOException;
+
+    /**
+     * Wraps the provided {@code stream} into one compressing the data written to it.
+     * <br><br>
+     * Flushing the returned stream flushes whatever data has been compressed so far to the provided {@code stream},
+     * and closing it writes the remaining data, along with the trailer, before closing the provided {@code stream} as well.
+     *
+     * @param stream the stream to write the compressed data to.
+     * @return the compressing {@link OutputStream}.
+     * @throws IOException if the header of the compressed data couldn't be written.
+     * @since 3.1.0
+     */
+    public abstract OutputStream compress(OutputStream stream) throws IOException;
+
+    /**
+     * Determines the compression of the data the provided {@code stream} holds, based on its first bytes,
+     * without consuming them.
+     * <br><br>
+     * The gzip format is recognized by its magic number, and the zlib format by a header using the default window size,
+     * which is what virtually every encoder emits. Neither of the two may begin a valid JSON text.
+     *
+     * @param stream the stream to inspect, which must {@linkplain InputStream#markSupported() support marking}.
+     * @return the detected {@link Compression}, or {@link #NONE} if the data doesn't appear to be compressed.
+     * @throws IOException if any I/O error occurs while reading.
+     * @throws IllegalArgumentException if the {@code stream} doesn't support marking.
+     * @since 3.1.0
+     */
+    public static Compression detect(InputStream stream) throws IOException {
+        if (!stream.markSupported())
+            throw new IllegalArgumentException("Expected a stream supporting marking.");
+        stream.mark(2);
+        var first = stream.read();
+        var second = stream.read();
+        stream.reset();
+        if (first == 0x1F && second == 0x8B)
+            return GZIP;
+        if (first == 0x78 && second >= 0 && ((first << 8) | second) % 31 == 0)
+            return DEFLATE;
+        return NONE;
+    }
+
+    /**
+     * Wraps the provided {@code stream} into one yielding its decompressed contents, detecting the compression
+     * once the data is first read.
+     * <br><br>
+     * Closing the returned stream closes the provided {@code stream} as well.
+     *
+     * @param stream the stream to decompress.
+     * @return the decompressing {@link InputStream}.
+     * @see #detect(InputStream)
+     * @since 3.1.0
+     */
+    public static InputStream decompressDetected(InputStream stream) {
+        return new DetectingInputStream(Compression.buffer(stream));
+    }
+
+    private static InputStream buffer(InputStream stream) {
+        return stream.markSupported() ? stream : new BufferedInputStream(stream, BUFFER_SIZE);
+    }
+
+    /**
+     * Defers the detection of the compression until the data is first read, so that creating the stream
+     * never blocks, nor fails.
+     */
+    private static final class DetectingInputStream extends FilterInputStream {
+
+        private boolean detected;
+
+        private DetectingInputStream(InputStream stream) {
+            super(stream);
+            this.detected = false;
+        }
+
+        private InputStream resolve() throws IOException {
+            if (!this.detected) {
+                this.in = Compression.detect(this.in)
+                        .decompress(this.in);
+                this.detected = true;
+            }
+            return this.in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return this.resolve().read();
+        }
+
+        @Override
+        public int read(byte @NotNull [] bytes, int offset, int length) throws IOException {
+            return this.resolve().read(bytes, offset, length);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return this.resolve().skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return this.resolve().available();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void mark(int limit) {
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new IOException("Attempted to reset a stream not supporting marking.");
+        }
+    }
+}
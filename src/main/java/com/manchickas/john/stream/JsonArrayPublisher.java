@@ -0,0 +1,255 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.template.Template;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Adapts a {@link Flow.Publisher} of the bytes of a JSON array into a {@link Flow.Publisher} of its elements,
+ * each bound according to a {@link Template}.
+ * <br><br>
+ * Every subscription subscribes to the upstream publisher anew, and parses the array incrementally on a virtual thread
+ * of its own, as the buffers arrive, so that neither the bytes, nor the elements of the whole array are held in memory
+ * at once. The bytes are expected to be UTF-8 encoded, and are decompressed on the fly if they're compressed in any of
+ * the supported {@linkplain Compression formats}.
+ * <br><br>
+ * Every signal is delivered on the parsing thread, with each element being parsed only once it's been requested.
+ * The demand of the subscriber is thus propagated upstream: once the subscriber stops requesting elements, the parsing
+ * thread parks, and so stops requesting buffers. Invalid JSON, or an element not satisfying the {@link Template},
+ * is reported through {@link Flow.Subscriber#onError(Throwable) onError} as a {@link JsonException}, after every valid
+ * element preceding it has been delivered, and the upstream subscription has been cancelled.
+ *
+ * @param <T> the type of the published elements.
+ * @since 3.1.0
+ */
+public final class JsonArrayPublisher<T> implements Flow.Publisher<T> {
+
+    private final Flow.Publisher<ByteBuffer> upstream;
+    private final Template<T> template;
+
+    public JsonArrayPublisher(Flow.Publisher<ByteBuffer> upstream, Template<T> template) {
+        this.upstream = Objects.requireNonNull(upstream);
+        this.template = Objects.requireNonNull(template);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        var input = new BufferInputStream();
+        this.upstream.subscribe(input);
+        new ElementSubscription(subscriber, input).start();
+    }
+
+    /**
+     * Parses the elements on a virtual thread of its own, which parks whenever the subscriber has no outstanding demand.
+     */
+    private final class ElementSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final BufferInputStream input;
+        private final Thread thread;
+        private final AtomicLong demand;
+        private volatile boolean cancelled;
+        /**
+         * The violation of the subscription's contract by the subscriber, reported in place of completion.
+         */
+        private volatile Throwable violation;
+
+        private ElementSubscription(Flow.Subscriber<? super T> subscriber, BufferInputStream input) {
+            this.subscriber = subscriber;
+            this.input = input;
+            this.thread = Thread.ofVirtual()
+                    .unstarted(this::run);
+            this.demand = new AtomicLong();
+        }
+
+        private void start() {
+            this.thread.start();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.violation = new IllegalArgumentException("Expected a positive number of elements to be requested, got %d.".formatted(n));
+                this.cancel();
+                return;
+            }
+            this.demand.getAndAccumulate(n, (demand, added) -> demand + added < 0 ? Long.MAX_VALUE : demand + added);
+            LockSupport.unpark(this.thread);
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.input.cancel();
+            LockSupport.unpark(this.thread);
+        }
+
+        private void run() {
+            this.subscriber.onSubscribe(this);
+            Throwable failure = null;
+            try (this.input) {
+                var reader = new JsonArrayReader(new InputStreamReader(Compression.decompressDetected(this.input), StandardCharsets.UTF_8));
+                while (reader.hasNext() && this.awaitDemand())
+                    this.subscriber.onNext(reader.next(JsonArrayPublisher.this.template));
+            } catch (UncheckedIOException e) {
+                failure = e.getCause();
+            } catch (JsonException | RuntimeException e) {
+                failure = e;
+            }
+            var violation = this.violation;
+            if (violation != null) {
+                this.subscriber.onError(violation);
+            } else if (!this.cancelled) {
+                if (failure != null) {
+                    this.subscriber.onError(failure);
+                } else {
+                    this.subscriber.onComplete();
+                }
+            }
+        }
+
+        /**
+         * Parks the parsing thread until the subscriber requests another element, consuming a unit of its demand.
+         *
+         * @return {@code true} if another element has been requested, {@code false} if the subscription has been cancelled.
+         */
+        private boolean awaitDemand() {
+            while (!this.cancelled) {
+                var demand = this.demand.get();
+                if (demand > 0) {
+                    // A demand of Long.MAX_VALUE is effectively unbounded, and is thus never consumed
+                    if (demand != Long.MAX_VALUE)
+                        this.demand.decrementAndGet();
+                    return true;
+                }
+                LockSupport.park(this);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Exposes the buffers received from the upstream publisher as an {@link InputStream}, requesting the next buffer
+     * only once the previous one has been consumed.
+     */
+    private static final class BufferInputStream extends InputStream implements Flow.Subscriber<ByteBuffer> {
+
+        private static final ByteBuffer COMPLETE = ByteBuffer.allocate(0);
+
+        private final LinkedBlockingQueue<ByteBuffer> buffers;
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable failure;
+        private volatile boolean cancelled;
+        private ByteBuffer current;
+        private boolean complete;
+
+        private BufferInputStream() {
+            this.buffers = new LinkedBlockingQueue<>();
+            this.current = COMPLETE;
+            this.complete = false;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (this.cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer buffer) {
+            this.buffers.add(buffer);
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            this.failure = failure;
+            this.buffers.add(COMPLETE);
+        }
+
+        @Override
+        public void onComplete() {
+            this.buffers.add(COMPLETE);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.advance())
+                return this.current.get() & 0xFF;
+            return -1;
+        }
+
+        @Override
+        public int read(byte @NotNull [] bytes, int offset, int length) throws IOException {
+            Objects.checkFromIndexSize(offset, length, bytes.length);
+            if (length == 0)
+                return 0;
+            if (this.advance()) {
+                var n = Math.min(length, this.current.remaining());
+                this.current.get(bytes, offset, n);
+                return n;
+            }
+            return -1;
+        }
+
+        /**
+         * Cancels the upstream subscription from any thread, waking up the reading thread if it's awaiting a buffer.
+         */
+        private void cancel() {
+            this.cancelled = true;
+            var subscription = this.subscription;
+            if (subscription != null)
+                subscription.cancel();
+            this.buffers.add(COMPLETE);
+        }
+
+        @Override
+        public void close() {
+            if (!this.complete) {
+                this.complete = true;
+                var subscription = this.subscription;
+                if (subscription != null)
+                    subscription.cancel();
+            }
+        }
+
+        private boolean advance() throws IOException {
+            while (!this.current.hasRemaining()) {
+                if (this.complete)
+                    return false;
+                try {
+                    var buffer = this.buffers.take();
+                    if (buffer == COMPLETE) {
+                        this.complete = true;
+                        if (this.failure != null)
+                            throw new IOException("The upstream publisher failed.", this.failure);
+                        return false;
+                    }
+                    this.current = buffer;
+                    this.subscription.request(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while awaiting a buffer.");
+                }
+            }
+            return true;
+        }
+    }
+}
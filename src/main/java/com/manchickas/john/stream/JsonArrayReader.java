@@ -0,0 +1,375 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.exception.UncheckedJsonException;
+import com.manchickas.john.lexer.Lexer;
+import com.manchickas.john.lexer.lexeme.Lexeme;
+import com.manchickas.john.lexer.lexeme.LexemeType;
+import com.manchickas.john.parser.Parser;
+import com.manchickas.john.path.JsonPath;
+import com.manchickas.john.path.segment.PathSegment;
+import com.manchickas.john.path.segment.PropertySegment;
+import com.manchickas.john.path.segment.SubscriptOperator;
+import com.manchickas.john.reader.SlidingSource;
+import com.manchickas.john.template.Template;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the elements of a JSON array one at a time, so that only a single element needs to be held
+ * in memory at any time, rather than the whole array.
+ * <br><br>
+ * Each element is fully parsed before being returned, whereas the array itself is only validated as far
+ * as it's been read. Any content following the closing bracket is left unread.
+ * <br><br>
+ * The array may also be nested within the source, in which case the reader {@linkplain #seek(JsonPath) seeks} to it first,
+ * skipping over everything preceding it at the lexical level.
+ *
+ * @since 3.1.0
+ */
+public final class JsonArrayReader {
+
+    private static final int START = 0;
+    private static final int ELEMENT = 1;
+    private static final int SEPARATOR = 2;
+    private static final int END = 3;
+    /**
+     * The number of elements split off by the first split of a {@link Stream}, which grows with each subsequent split.
+     */
+    private static final int BATCH_UNIT = 1 << 8;
+    private static final int MAX_BATCH = 1 << 14;
+
+    private final Lexer lexer;
+    private final Parser parser;
+    /**
+     * Whether the whole source is held in memory, such that parts of it may be parsed by {@linkplain Lexer#fork() forks} of the lexer.
+     */
+    private final boolean forkable;
+    private int state;
+
+    public JsonArrayReader(CharSequence source) {
+        this(new Lexer(source), true);
+    }
+
+    /**
+     * Creates a reader reading the array incrementally from the provided {@code reader}.
+     * <br><br>
+     * Any {@link java.io.IOException IOException} thrown by the {@code reader} is rethrown as an {@link UncheckedIOException}.
+     *
+     * @see SlidingSource
+     * @since 3.1.0
+     */
+    public JsonArrayReader(Reader reader) {
+        this(new Lexer(new SlidingSource(reader)), false);
+    }
+
+    private JsonArrayReader(Lexer lexer, boolean forkable) {
+        this.lexer = lexer;
+        this.parser = new Parser(lexer);
+        this.forkable = forkable;
+        this.state = START;
+    }
+
+    /**
+     * Seeks to the array at the provided {@code path}, skipping over the values preceding it, without parsing them.
+     * <br><br>
+     * The skipped values are only validated loosely, as described by {@link Lexer#skipValue()}.
+     *
+     * @param path the path of the array, consisting only of property segments and subscripts.
+     * @return the current {@link JsonArrayReader}.
+     * @throws JsonException if the source contains any invalid JSON along the path, or if there's no element at the path.
+     * @throws IllegalArgumentException if the path contains any segment other than a property segment or a subscript.
+     * @throws IllegalStateException if any elements have already been read.
+     * @since 3.1.0
+     */
+    public JsonArrayReader seek(JsonPath path) throws JsonException {
+        if (this.state != START)
+            throw new IllegalStateException("Attempted to seek after having read the array.");
+        for (var segment : path.segments()) {
+            if (!JsonArrayReader.isSeekable(segment))
+                throw new IllegalArgumentException("Expected the path '%s' to consist only of property segments and subscripts.".formatted(path));
+        }
+        for (var segment : path.segments())
+            this.seek(segment, path);
+        return this;
+    }
+
+    /**
+     * Determines whether the array holds any more elements, consuming the brackets and commas along the way.
+     *
+     * @return {@code true} if there's another element ahead, {@code false} if the array has been closed.
+     * @throws JsonException if the source doesn't hold an array, or if the array is malformed.
+     * @since 3.1.0
+     */
+    public boolean hasNext() throws JsonException {
+        if (this.state == START) {
+            var open = this.lexer.nextLexeme();
+            if (open == null)
+                throw new JsonException("Encountered an EOF in place of a JSON array.");
+            if (!open.isOf(LexemeType.SEPARATOR, '['))
+                throw new JsonException("Expected a JSON array, got '%s'.", open.value())
+                        .withSpan(open.span());
+            if (this.lexer.peekSignificant() == ']') {
+                this.lexer.nextLexeme();
+                this.state = END;
+            } else {
+                this.state = ELEMENT;
+            }
+        } else if (this.state == SEPARATOR) {
+            var separator = this.lexer.nextLexeme();
+            if (separator == null)
+                throw new JsonException("Encountered an unterminated array literal.");
+            if (separator.isOf(LexemeType.SEPARATOR, ']')) {
+                this.state = END;
+            } else if (separator.isOf(LexemeType.SEPARATOR, ',')) {
+                this.state = ELEMENT;
+            } else {
+                throw new JsonException("Expected either a comma or a closing bracket.")
+                        .withSpan(separator.span());
+            }
+        }
+        return this.state == ELEMENT;
+    }
+
+    /**
+     * Parses the next element into an arbitrary {@link JsonElement}.
+     *
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the next element is invalid JSON, or if the array is malformed.
+     * @throws NoSuchElementException if the array has been closed.
+     * @since 3.1.0
+     */
+    @NotNull
+    public JsonElement next() throws JsonException {
+        if (!this.hasNext())
+            throw new NoSuchElementException("Attempted to read past the last element of the array.");
+        var element = this.parser.parse();
+        this.state = SEPARATOR;
+        return element;
+    }
+
+    /**
+     * Parses the next element into a typed value, based on the provided {@link Template}.
+     *
+     * @param template the {@link Template} the element must satisfy.
+     * @return the parsed value.
+     * @throws JsonException if the next element is invalid JSON, doesn't satisfy the provided {@link Template},
+     *                       or if the array is malformed.
+     * @throws NoSuchElementException if the array has been closed.
+     * @since 3.1.0
+     */
+    public <T> T next(Template<T> template) throws JsonException {
+        return this.next().expect(template);
+    }
+
+    /**
+     * Lazily parses the remaining elements into arbitrary {@link JsonElement}s.
+     *
+     * @return a sequential {@link Stream} of the parsed elements. Consuming the stream throws an {@link UncheckedJsonException}
+     * once an invalid element is encountered, or the array turns out to be malformed.
+     * @since 3.1.0
+     */
+    public Stream<JsonElement> stream() {
+        return StreamSupport.stream(new ElementSpliterator(), false);
+    }
+
+    /**
+     * Lazily parses the remaining elements into typed values, based on the provided {@link Template}.
+     *
+     * @param template the {@link Template} each element must satisfy.
+     * @return a sequential {@link Stream} of the parsed values. Consuming the stream throws an {@link UncheckedJsonException}
+     * once an invalid element, or an element not satisfying the {@link Template}, is encountered, or the array turns out to be malformed.
+     * @since 3.1.0
+     */
+    public <T> Stream<T> stream(Template<T> template) {
+        return this.stream()
+                .map(element -> {
+                    try {
+                        return element.expect(template);
+                    } catch (JsonException e) {
+                        throw new UncheckedJsonException(e);
+                    }
+                });
+    }
+
+    private void seek(PathSegment segment, JsonPath path) throws JsonException {
+        switch (segment) {
+            case PropertySegment property -> this.seekProperty(property.name(), path);
+            case SubscriptOperator subscript -> {
+                this.seek(subscript.operand(), path);
+                this.seekIndex(subscript.index(), path);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void seekProperty(String name, JsonPath path) throws JsonException {
+        var open = this.next("Encountered an EOF in place of a JSON object.");
+        if (!open.isOf(LexemeType.SEPARATOR, '{'))
+            throw new JsonException("Expected a JSON object along the path '%s', got '%s'.", path, open.value())
+                    .withSpan(open.span());
+        var lexeme = this.next("Encountered an unterminated object literal.");
+        while (!lexeme.isOf(LexemeType.SEPARATOR, '}')) {
+            var key = lexeme.expect(LexemeType.STRING);
+            this.next("Encountered an unterminated object literal.")
+                    .expect(LexemeType.SEPARATOR, ':');
+            if (key.equals(name))
+                return;
+            this.lexer.skipValue();
+            var separator = this.next("Encountered an unterminated object literal.");
+            if (separator.isOf(LexemeType.SEPARATOR, '}')) {
+                lexeme = separator;
+                break;
+            }
+            if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                throw new JsonException("Expected either a comma or a closing brace.")
+                        .withSpan(separator.span());
+            lexeme = this.next("Encountered an unterminated object literal.");
+        }
+        throw new JsonException("Encountered no property '%s' along the path '%s'.", name, path)
+                .withSpan(open.span().extend(lexeme.span()));
+    }
+
+    private void seekIndex(int index, JsonPath path) throws JsonException {
+        var open = this.next("Encountered an EOF in place of a JSON array.");
+        if (!open.isOf(LexemeType.SEPARATOR, '['))
+            throw new JsonException("Expected a JSON array along the path '%s', got '%s'.", path, open.value())
+                    .withSpan(open.span());
+        if (this.lexer.peekSignificant() != ']') {
+            for (var i = 0; i < index; i++) {
+                this.lexer.skipValue();
+                var separator = this.next("Encountered an unterminated array literal.");
+                if (separator.isOf(LexemeType.SEPARATOR, ']'))
+                    throw new JsonException("Encountered no element at index %d along the path '%s'.", index, path)
+                            .withSpan(open.span().extend(separator.span()));
+                if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                    throw new JsonException("Expected either a comma or a closing bracket.")
+                            .withSpan(separator.span());
+            }
+            return;
+        }
+        var close = this.next("Encountered an unterminated array literal.");
+        throw new JsonException("Encountered no element at index %d along the path '%s'.", index, path)
+                .withSpan(open.span().extend(close.span()));
+    }
+
+    private Lexeme<?> next(String message) throws JsonException {
+        var lexeme = this.lexer.nextLexeme();
+        if (lexeme == null)
+            throw new JsonException(message);
+        return lexeme;
+    }
+
+    private static boolean isSeekable(PathSegment segment) {
+        return switch (segment) {
+            case PropertySegment ignored -> true;
+            case SubscriptOperator subscript -> JsonArrayReader.isSeekable(subscript.operand());
+            default -> segment == PathSegment.THIS;
+        };
+    }
+
+    /**
+     * Splits the array into batches of consecutive elements. Batches of sources held in memory are only skipped over
+     * when split off, and then parsed by a {@linkplain Lexer#fork() fork} of the lexer on the thread processing the batch.
+     * Batches of incrementally read sources are parsed up front, since the characters they consist of are about to be discarded.
+     */
+    private final class ElementSpliterator extends Spliterators.AbstractSpliterator<JsonElement> {
+
+        private int batch;
+
+        private ElementSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.batch = 0;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super JsonElement> action) {
+            var reader = JsonArrayReader.this;
+            try {
+                if (reader.hasNext()) {
+                    action.accept(reader.next());
+                    return true;
+                }
+                return false;
+            } catch (JsonException e) {
+                throw new UncheckedJsonException(e);
+            }
+        }
+
+        @Override
+        public @Nullable Spliterator<JsonElement> trySplit() {
+            var reader = JsonArrayReader.this;
+            this.batch = Math.min(this.batch + BATCH_UNIT, MAX_BATCH);
+            try {
+                if (!reader.hasNext())
+                    return null;
+                if (reader.forkable) {
+                    var fork = reader.lexer.fork();
+                    var count = 0;
+                    do {
+                        reader.lexer.skipValue();
+                        reader.state = SEPARATOR;
+                        count++;
+                    } while (count < this.batch && reader.hasNext());
+                    return new BatchSpliterator(fork, count);
+                }
+                var elements = new JsonElement[this.batch];
+                var count = 0;
+                do {
+                    elements[count++] = reader.next();
+                } while (count < this.batch && reader.hasNext());
+                return Spliterators.spliterator(elements, 0, count, Spliterator.ORDERED | Spliterator.NONNULL);
+            } catch (JsonException e) {
+                throw new UncheckedJsonException(e);
+            }
+        }
+    }
+
+    /**
+     * Parses a batch of consecutive elements, which have already been skipped over by the reader, through a fork of its lexer.
+     */
+    private static final class BatchSpliterator extends Spliterators.AbstractSpliterator<JsonElement> {
+
+        private final Lexer lexer;
+        private final Parser parser;
+        private int remaining;
+
+        private BatchSpliterator(Lexer lexer, int count) {
+            super(count, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED);
+            this.lexer = lexer;
+            this.parser = new Parser(lexer);
+            this.remaining = count;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super JsonElement> action) {
+            if (this.remaining == 0)
+                return false;
+            try {
+                var element = this.parser.parse();
+                if (--this.remaining > 0)
+                    this.lexer.nextLexeme(); // Consume the comma, which has already been validated by the reader
+                action.accept(element);
+                return true;
+            } catch (JsonException e) {
+                throw new UncheckedJsonException(e);
+            }
+        }
+
+        @Override
+        public @Nullable Spliterator<JsonElement> trySplit() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.John;
+import com.manchickas.john.ast.JsonArray;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.ast.primitive.JsonBoolean;
+import com.manchickas.john.ast.primitive.JsonNull;
+import com.manchickas.john.ast.primitive.JsonNumber;
+import com.manchickas.john.ast.primitive.JsonString;
+import com.manchickas.john.exception.JsonException;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Appends the minified JSON representation of {@link JsonElement}s directly to a {@link StringBuilder},
+ * without going through their {@link JsonElement#stringifyPattern() stringify patterns}.
+ */
+@ApiStatus.Internal
+public final class JsonEncoder {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JsonEncoder() {
+    }
+
+    /**
+     * Writes the minified JSON representation of the provided {@code element} to the provided {@code writer},
+     * handing it over in chunks as it's being encoded, so that the representation is never held in memory as a whole.
+     * <br><br>
+     * The {@code writer} gets flushed, but isn't closed.
+     *
+     * @param element the {@link JsonElement} to encode.
+     * @param writer  the {@link Writer} to write the representation to.
+     * @throws IOException if any I/O error occurs while writing.
+     * @since 3.1.0
+     */
+    public static void encode(JsonElement element, Writer writer) throws IOException {
+        var output = new OutputBuffer(writer);
+        JsonEncoder.encode(element, output);
+        output.flush();
+    }
+
+    /**
+     * Walks the containers on its own, so that the buffer can be handed over in between their entries,
+     * while encoding the rest of the elements straight into the buffer.
+     */
+    private static void encode(JsonElement element, OutputBuffer output) throws IOException {
+        switch (element) {
+            case JsonObject object -> {
+                output.append('{');
+                var first = true;
+                for (var entry : object.entries()) {
+                    if (!first)
+                        output.append(',');
+                    first = false;
+                    JsonEncoder.encode(entry.getKey(), output.builder());
+                    output.append(':');
+                    JsonEncoder.encode(entry.getValue(), output);
+                }
+                output.append('}');
+            }
+            case JsonArray array -> {
+                output.append('[');
+                try {
+                    for (var i = 0; i < array.length(); i++) {
+                        if (i > 0)
+                            output.append(',');
+                        JsonEncoder.encode(array.subscript(i), output);
+                    }
+                } catch (JsonException e) {
+                    throw new AssertionError("Unreachable");
+                }
+                output.append(']');
+            }
+            default -> {
+                JsonEncoder.encode(element, output.builder());
+                output.flushIfFull();
+            }
+        }
+    }
+
+    static void encode(JsonElement element, StringBuilder builder) {
+        switch (element) {
+            case JsonObject object -> {
+                builder.append('{');
+                var first = true;
+                for (var entry : object.entries()) {
+                    if (!first)
+                        builder.append(',');
+                    first = false;
+                    JsonEncoder.encode(entry.getKey(), builder);
+                    builder.append(':');
+                    JsonEncoder.encode(entry.getValue(), builder);
+                }
+                builder.append('}');
+            }
+            case JsonArray array -> {
+                builder.append('[');
+                try {
+                    for (var i = 0; i < array.length(); i++) {
+                        if (i > 0)
+                            builder.append(',');
+                        JsonEncoder.encode(array.subscript(i), builder);
+                    }
+                } catch (JsonException e) {
+                    throw new AssertionError("Unreachable");
+                }
+                builder.append(']');
+            }
+            case JsonString string -> JsonEncoder.encode(string.value(), builder);
+            case JsonNumber number -> builder.append(number.value());
+            case JsonBoolean bool -> builder.append(bool.value().booleanValue());
+            case JsonNull ignored -> builder.append("null");
+            default -> builder.append(John.stringify(element));
+        }
+    }
+
+    static void encode(String string, StringBuilder builder) {
+        builder.append('"');
+        var start = 0;
+        for (var i = 0; i < string.length(); i++) {
+            var c = string.charAt(i);
+            if (c >= ' ' && c != '"' && c != '\\')
+                continue;
+            builder.append(string, start, i)
+                    .append('\\');
+            switch (c) {
+                case '"', '\\' -> builder.append(c);
+                case '\b' -> builder.append('b');
+                case '\f' -> builder.append('f');
+                case '\n' -> builder.append('n');
+                case '\r' -> builder.append('r');
+                case '\t' -> builder.append('t');
+                default -> builder.append("u00")
+                        .append(HEX[c >> 4])
+                        .append(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        builder.append(string, start, string.length())
+                .append('"');
+    }
+}
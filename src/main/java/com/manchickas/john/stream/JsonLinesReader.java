@@ -0,0 +1,162 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.exception.UncheckedJsonException;
+import com.manchickas.john.lexer.Lexer;
+import com.manchickas.john.parser.Parser;
+import com.manchickas.john.template.Template;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads newline-delimited JSON (also known as <a href="https://jsonlines.org">JSON Lines</a> or NDJSON),
+ * where each line of the source holds a single JSON value.
+ * <br><br>
+ * The source is read in large blocks and split into lines on the thread consuming the stream, while the lines
+ * themselves are parsed and bound by the threads of the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+ * Lines consisting only of whitespace are skipped.
+ * <br><br>
+ * Each line is parsed on its own, yet the {@link com.manchickas.john.position.SourceSpan SourceSpan}s of the parsed
+ * elements, and thus the errors, refer to the physical lines of the source.
+ * <br><br>
+ * Streams compressed in any of the supported {@linkplain Compression formats} are decompressed on the fly,
+ * the compression being detected from their first bytes.
+ *
+ * @since 3.1.0
+ */
+public final class JsonLinesReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedReader reader;
+    private int line;
+
+    public JsonLinesReader(InputStream stream) {
+        this(new InputStreamReader(Compression.decompressDetected(stream), StandardCharsets.UTF_8));
+    }
+
+    public JsonLinesReader(Reader reader) {
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+        this.line = 0;
+    }
+
+    /**
+     * Parses each line into an arbitrary {@link JsonElement}.
+     *
+     * @return a parallel, ordered {@link Stream} of the parsed elements.
+     * Consuming the stream throws an {@link UncheckedJsonException} once a line containing invalid JSON is encountered.
+     * @see #stream(Template)
+     * @since 3.1.0
+     */
+    public Stream<JsonElement> stream() {
+        return StreamSupport.stream(new LineSpliterator(), true)
+                .map(Line::parse)
+                .onClose(this::closeUnchecked);
+    }
+
+    /**
+     * Parses each line into a typed value, based on the provided {@link Template}.
+     * <br><br>
+     * The returned stream is parallel and ordered, so that terminal operations such as {@link Stream#toList()}
+     * or {@link Stream#forEachOrdered(Consumer)} observe the values in the order of the lines. Whenever the order
+     * doesn't matter, {@link Stream#unordered()} allows the values to be consumed as soon as they're bound,
+     * while {@link Stream#sequential()} parses every line on the consuming thread instead.
+     * <br><br>
+     * Closing the stream closes the underlying source.
+     *
+     * @param template the {@link Template} each line must satisfy.
+     * @return a parallel, ordered {@link Stream} of the parsed values.
+     * Consuming the stream throws an {@link UncheckedJsonException} once a line containing invalid JSON,
+     * or a value not satisfying the {@link Template}, is encountered, and an {@link UncheckedIOException}
+     * if any I/O error occurs while reading the source.
+     * @since 3.1.0
+     */
+    public <T> Stream<T> stream(Template<T> template) {
+        return StreamSupport.stream(new LineSpliterator(), true)
+                .map(line -> line.parse(template))
+                .onClose(this::closeUnchecked);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private void closeUnchecked() {
+        try {
+            this.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Represents a single non-blank line of the source, along with its physical line number.
+     */
+    private record Line(String source, int number) {
+
+        private JsonElement parse() {
+            var lexer = new Lexer(this.source, this.number);
+            try {
+                var element = new Parser(lexer).parse();
+                if (lexer.peekSignificant() != -1)
+                    throw new JsonException("Expected each line to hold a single JSON value.")
+                            .withSpan(lexer.charSpan());
+                return element;
+            } catch (JsonException e) {
+                throw new UncheckedJsonException(e);
+            }
+        }
+
+        private <T> T parse(Template<T> template) {
+            try {
+                return this.parse()
+                        .expect(template);
+            } catch (JsonException e) {
+                throw new UncheckedJsonException(e);
+            }
+        }
+    }
+
+    /**
+     * Splits the source into lines. Splitting the spliterator itself, as done by parallel streams, reads ahead
+     * batches of lines of increasing size, which then get parsed concurrently.
+     */
+    private final class LineSpliterator extends Spliterators.AbstractSpliterator<Line> {
+
+        private LineSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Line> action) {
+            var reader = JsonLinesReader.this;
+            try {
+                String source;
+                while ((source = reader.reader.readLine()) != null) {
+                    var number = ++reader.line;
+                    if (!source.isBlank()) {
+                        action.accept(new Line(source, number));
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Writes values as newline-delimited JSON (also known as <a href="https://jsonlines.org">JSON Lines</a> or NDJSON),
+ * serializing each according to a {@link Template}, and writing it as a single minified line of UTF-8 encoded JSON.
+ * <br><br>
+ * Values are written in batches: the encoded lines are accumulated in a reusable buffer, and handed to the underlying
+ * stream once the batch is full, once the writer is {@link #flush() flushed}, or once it's {@link #close() closed}.
+ * By default, the underlying stream itself only gets flushed along with the writer, which may be changed through
+ * {@link Builder#flushEachBatch(boolean)}.
+ * <br><br>
+ * Writers built with {@link Builder#parallel(boolean) parallel} encoding defer the serialization of a batch until it's full,
+ * and then split it across the threads of the {@link ForkJoinPool#commonPool() common pool}.
+ * <br><br>
+ * The output may also be {@linkplain Builder#compression(Compression) compressed} on the fly, in which case each batch is
+ * compressed as it's written, and flushing the writer flushes whatever has been compressed so far.
+ * <br><br>
+ * Writers aren't thread-safe, and must thus be confined to a single thread, or externally synchronized.
+ *
+ * <pre>{@code
+ *      try (var writer = JsonLinesWriter.builder(template)
+ *              .batchSize(4096)
+ *              .parallel(true)
+ *              .build(stream)) {
+ *          for (var record : records)
+ *              writer.write(record);
+ *      }
+ * }</pre>
+ *
+ * @param <T> the type of the written values.
+ * @since 3.1.0
+ */
+public final class JsonLinesWriter<T> implements Closeable, Flushable {
+
+    /**
+     * The number of values per batch, unless specified otherwise.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1 << 10;
+    /**
+     * The minimal number of values per part of a batch encoded in parallel.
+     */
+    private static final int MIN_PART_SIZE = 1 << 6;
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private final OutputStream stream;
+    private final Template<T> template;
+    private final int batchSize;
+    private final boolean flushEachBatch;
+    private final boolean parallel;
+    private final CharsetEncoder encoder;
+    private final char[] chars;
+    private final ByteBuffer bytes;
+    private final StringBuilder[] parts;
+    private final Object[] pending;
+    private int size;
+    private boolean closed;
+
+    public JsonLinesWriter(OutputStream stream, Template<T> template) {
+        this(stream, template, DEFAULT_BATCH_SIZE, false, false);
+    }
+
+    private JsonLinesWriter(OutputStream stream, Template<T> template, int batchSize, boolean flushEachBatch, boolean parallel) {
+        this.stream = stream;
+        this.template = template;
+        this.batchSize = batchSize;
+        this.flushEachBatch = flushEachBatch;
+        this.parallel = parallel;
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = new char[CHUNK_SIZE];
+        this.bytes = ByteBuffer.allocate(CHUNK_SIZE * 3);
+        var parts = parallel ? ForkJoinPool.getCommonPoolParallelism() : 1;
+        this.parts = new StringBuilder[parts];
+        for (var i = 0; i < parts; i++)
+            this.parts[i] = new StringBuilder();
+        this.pending = parallel ? new Object[batchSize] : null;
+        this.size = 0;
+        this.closed = false;
+    }
+
+    /**
+     * Creates a {@link Builder} of writers serializing values according to the provided {@link Template}.
+     *
+     * @param template the {@link Template} the written values must satisfy.
+     * @return the created {@link Builder}.
+     * @since 3.1.0
+     */
+    public static <T> Builder<T> builder(Template<T> template) {
+        return new Builder<>(template);
+    }
+
+    /**
+     * Writes the provided {@code value} as a single line.
+     * <br><br>
+     * Unless the writer encodes in parallel, the value gets serialized right away, and a value that fails to serialize
+     * is thus rejected without affecting the rest of the output. Writers encoding in parallel serialize the values once
+     * the batch is full, and report the first value of the batch that failed to serialize, writing only the values
+     * preceding it, and discarding the rest of the batch.
+     *
+     * @param value the value to write.
+     * @throws JsonException if the value, or any other value of a batch encoded in parallel, doesn't satisfy the {@link Template}.
+     * @throws IOException   if any I/O error occurs while writing to the underlying stream.
+     * @throws IllegalStateException if the writer has been closed.
+     * @since 3.1.0
+     */
+    public void write(T value) throws JsonException, IOException {
+        if (this.closed)
+            throw new IllegalStateException("Attempted to write to a closed writer.");
+        if (this.parallel) {
+            this.pending[this.size++] = value;
+        } else {
+            var result = this.template.serializeAndPromote(value);
+            if (result.isError())
+                throw JsonLinesWriter.failure(result);
+            JsonLinesWriter.encode(result.unwrap(), this.parts[0]);
+            this.size++;
+        }
+        if (this.size == this.batchSize)
+            this.writeBatch();
+    }
+
+    /**
+     * Writes each of the provided {@code values} as a single line, in order.
+     *
+     * @param values the values to write.
+     * @throws JsonException if any of the values doesn't satisfy the {@link Template}.
+     * @throws IOException   if any I/O error occurs while writing to the underlying stream.
+     * @see #write(Object)
+     * @since 3.1.0
+     */
+    public void writeAll(Iterable<? extends T> values) throws JsonException, IOException {
+        for (var value : values)
+            this.write(value);
+    }
+
+    /**
+     * Writes the current batch, however full, to the underlying stream, and flushes it.
+     *
+     * @throws IOException if any I/O error occurs while writing to the underlying stream, or if any value
+     *                     of a batch encoded in parallel doesn't satisfy the {@link Template}.
+     * @since 3.1.0
+     */
+    @Override
+    public void flush() throws IOException {
+        try {
+            this.writeBatch();
+        } catch (JsonException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        this.stream.flush();
+    }
+
+    /**
+     * Writes the current batch, however full, to the underlying stream, and closes it.
+     *
+     * @throws IOException if any I/O error occurs while writing to the underlying stream, or if any value
+     *                     of a batch encoded in parallel doesn't satisfy the {@link Template}.
+     * @since 3.1.0
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed)
+            return;
+        this.closed = true;
+        try (this.stream) {
+            this.writeBatch();
+        } catch (JsonException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private void writeBatch() throws JsonException, IOException {
+        if (this.size == 0)
+            return;
+        if (this.parallel) {
+            this.writeParallel();
+        } else {
+            try {
+                this.write(this.parts[0]);
+            } finally {
+                this.parts[0].setLength(0);
+                this.size = 0;
+            }
+        }
+        if (this.flushEachBatch)
+            this.stream.flush();
+    }
+
+    /**
+     * Serializes and encodes the pending batch in parallel, splitting it into parts of consecutive values.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeParallel() throws JsonException, IOException {
+        var size = this.size;
+        var count = Math.max(1, Math.min(this.parts.length, size / MIN_PART_SIZE));
+        var failures = new Result<?>[count];
+        JsonException failure = null;
+        try {
+            IntStream.range(0, count)
+                    .parallel()
+                    .forEach(part -> {
+                        var builder = this.parts[part];
+                        var to = (int) ((long) size * (part + 1) / count);
+                        for (var i = (int) ((long) size * part / count); i < to; i++) {
+                            var result = this.template.serializeAndPromote((T) this.pending[i]);
+                            if (result.isError()) {
+                                failures[part] = result;
+                                return;
+                            }
+                            JsonLinesWriter.encode(result.unwrap(), builder);
+                        }
+                    });
+            for (var part = 0; part < count && failure == null; part++) {
+                this.write(this.parts[part]);
+                if (failures[part] != null)
+                    failure = JsonLinesWriter.failure(failures[part]);
+            }
+        } finally {
+            // Whatever happens, the batch is discarded, so that none of its lines get written twice
+            Arrays.fill(this.pending, 0, size, null);
+            this.size = 0;
+            for (var part = 0; part < count; part++)
+                this.parts[part].setLength(0);
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Writes the contents of the provided {@code builder} to the underlying stream as UTF-8, in chunks
+     * that reuse the same buffers, and clears the builder.
+     */
+    private void write(StringBuilder builder) throws IOException {
+        var length = builder.length();
+        var offset = 0;
+        while (offset < length) {
+            var n = Math.min(this.chars.length, length - offset);
+            if (offset + n < length && Character.isHighSurrogate(builder.charAt(offset + n - 1)))
+                n--; // Keep surrogate pairs within a single chunk
+            builder.getChars(offset, offset + n, this.chars, 0);
+            this.encoder.reset()
+                    .encode(CharBuffer.wrap(this.chars, 0, n), this.bytes, true);
+            this.encoder.flush(this.bytes);
+            this.stream.write(this.bytes.array(), 0, this.bytes.position());
+            this.bytes.clear();
+            offset += n;
+        }
+        builder.setLength(0);
+    }
+
+    private static void encode(JsonElement element, StringBuilder builder) {
+        JsonEncoder.encode(element, builder);
+        builder.append('\n');
+    }
+
+    private static JsonException failure(Result<?> result) {
+        return new JsonException(result.message())
+                .withSpan(result.span());
+    }
+
+    /**
+     * Configures the batching, flushing and encoding of a {@link JsonLinesWriter}.
+     *
+     * @param <T> the type of the written values.
+     * @since 3.1.0
+     */
+    public static final class Builder<T> {
+
+        private final Template<T> template;
+        private int batchSize;
+        private boolean flushEachBatch;
+        private boolean parallel;
+        private Compression compression;
+
+        private Builder(Template<T> template) {
+            this.template = template;
+            this.batchSize = DEFAULT_BATCH_SIZE;
+            this.flushEachBatch = false;
+            this.parallel = false;
+            this.compression = Compression.NONE;
+        }
+
+        /**
+         * Sets the number of values written to the underlying stream at once.
+         *
+         * @param batchSize the number of values per batch.
+         * @return the current {@link Builder}.
+         * @throws IllegalArgumentException if the {@code batchSize} isn't positive.
+         * @since 3.1.0
+         */
+        public Builder<T> batchSize(int batchSize) {
+            if (batchSize < 1)
+                throw new IllegalArgumentException("Expected a positive batch size, got %d.".formatted(batchSize));
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets whether the underlying stream gets flushed after each batch, so that consumers observe the written values
+         * with at most a batch of delay, rather than only once the writer is flushed or closed.
+         *
+         * @param flushEachBatch whether to flush the underlying stream after each batch.
+         * @return the current {@link Builder}.
+         * @since 3.1.0
+         */
+        public Builder<T> flushEachBatch(boolean flushEachBatch) {
+            this.flushEachBatch = flushEachBatch;
+            return this;
+        }
+
+        /**
+         * Sets whether the values of each batch get serialized and encoded in parallel.
+         * <br><br>
+         * Parallel encoding only pays off for large batches of values that are expensive to serialize.
+         *
+         * @param parallel whether to encode the batches in parallel.
+         * @return the current {@link Builder}.
+         * @since 3.1.0
+         */
+        public Builder<T> parallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Compression} applied to the output, such as {@link Compression#GZIP} for writing {@code .jsonl.gz} files.
+         *
+         * @param compression the {@link Compression} to apply.
+         * @return the current {@link Builder}.
+         * @since 3.1.0
+         */
+        public Builder<T> compression(Compression compression) {
+            this.compression = Objects.requireNonNull(compression);
+            return this;
+        }
+
+        /**
+         * Builds a writer writing to the provided {@code stream}.
+         *
+         * @param stream the stream to write to.
+         * @return the built {@link JsonLinesWriter}.
+         * @throws IOException if the header of the compressed output couldn't be written.
+         * @since 3.1.0
+         */
+        public JsonLinesWriter<T> build(OutputStream stream) throws IOException {
+            return new JsonLinesWriter<>(this.compression.compress(stream), this.template, this.batchSize, this.flushEachBatch, this.parallel);
+        }
+
+        /**
+         * Builds a writer writing to the provided {@code channel}.
+         *
+         * @param channel the channel to write to.
+         * @return the built {@link JsonLinesWriter}.
+         * @throws IOException if the header of the compressed output couldn't be written.
+         * @since 3.1.0
+         */
+        public JsonLinesWriter<T> build(WritableByteChannel channel) throws IOException {
+            return this.build(Channels.newOutputStream(channel));
+        }
+    }
+}
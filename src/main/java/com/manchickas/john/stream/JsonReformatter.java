@@ -0,0 +1,232 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.lexer.Lexer;
+import com.manchickas.john.reader.SlidingSource;
+import com.manchickas.john.reader.StringReader;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Minifies or pretty-prints JSON by piping it from a source to a sink token by token, without building
+ * any {@link com.manchickas.john.ast.JsonElement JsonElement}s, so that reformatting requires constant memory,
+ * regardless of the size of the document.
+ * <br><br>
+ * String and number literals are copied verbatim, preserving their escape sequences and precision, rather than
+ * being decoded and encoded back. The structure of the document, along with the number and literal lexemes,
+ * is validated as strictly as by the {@link com.manchickas.john.parser.Parser Parser}, while the strings are ensured
+ * to be terminated and to contain only valid escape sequences.
+ * <br><br>
+ * Pretty-printed output places each property and element on a line of its own, indented according to its depth,
+ * and separates each key from its value with a single space. Empty objects and arrays are written as {@code {}} and {@code []}.
+ *
+ * @since 3.1.0
+ */
+public final class JsonReformatter {
+
+    private final int indentation;
+
+    /**
+     * Creates a reformatter indenting each level of nesting by the provided number of spaces.
+     *
+     * @param indentation the number of spaces per level of nesting, or {@code 0} to minify.
+     * @throws IllegalArgumentException if the {@code indentation} is negative.
+     * @since 3.1.0
+     */
+    public JsonReformatter(int indentation) {
+        if (indentation < 0)
+            throw new IllegalArgumentException("Expected a non-negative indentation, got %d.".formatted(indentation));
+        this.indentation = indentation;
+    }
+
+    /**
+     * Reformats the JSON read from the provided {@code source}, writing the result to the provided {@code sink}.
+     * <br><br>
+     * The {@code source} is read incrementally, as described by {@link SlidingSource}. Neither the {@code source},
+     * nor the {@code sink} are closed, while the {@code sink} gets flushed once the document is reformatted.
+     *
+     * @param source the reader to read the JSON from.
+     * @param sink   the writer to write the reformatted JSON to.
+     * @throws JsonException if the source contains any invalid JSON.
+     * @throws IOException   if any I/O error occurs while reading or writing.
+     * @since 3.1.0
+     */
+    public void reformat(Reader source, Writer sink) throws JsonException, IOException {
+        var output = new OutputBuffer(sink);
+        try {
+            this.reformat(new Lexer(new SlidingSource(source)), output);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.flush();
+    }
+
+    /**
+     * Reformats the provided {@code source}.
+     *
+     * @param source the source containing the JSON to reformat.
+     * @return the reformatted JSON.
+     * @throws JsonException if the source contains any invalid JSON.
+     * @since 3.1.0
+     */
+    @NotNull
+    public String reformat(String source) throws JsonException {
+        var sink = new StringWriter(source.length());
+        var output = new OutputBuffer(sink);
+        try {
+            this.reformat(new Lexer(source), output);
+            output.flush();
+        } catch (IOException e) {
+            throw new AssertionError("Unreachable", e);
+        }
+        return sink.toString();
+    }
+
+    /**
+     * Reformats the single value ahead, iterating over its tokens while keeping track of the enclosing containers,
+     * each of which is {@code true} for an object, and {@code false} for an array.
+     */
+    private void reformat(Lexer lexer, OutputBuffer output) throws JsonException, IOException {
+        var containers = new BooleanArrayList();
+        var literal = new StringBuilder();
+        var expectsValue = true;
+        while (true) {
+            if (expectsValue) {
+                var c = lexer.peekSignificant();
+                // Within objects, values always follow a colon, after which the Parser reports the missing value instead
+                if (c == -1 && !containers.isEmpty() && !containers.topBoolean())
+                    throw new JsonException("Encountered an unterminated array literal.");
+                if (c == '{' || c == '[') {
+                    var object = c == '{';
+                    var close = object ? '}' : ']';
+                    lexer.read();
+                    output.append((char) c);
+                    if (lexer.peekSignificant() == close) {
+                        lexer.read();
+                        output.append(close);
+                        expectsValue = false;
+                        continue;
+                    }
+                    containers.push(object);
+                    this.appendNewLine(output, containers.size());
+                    if (object)
+                        JsonReformatter.key(lexer, output, this.indentation);
+                    continue;
+                }
+                if (c == '"') {
+                    lexer.copyValue(output);
+                } else {
+                    JsonReformatter.literal(lexer, output, literal);
+                }
+                expectsValue = false;
+                continue;
+            }
+            if (containers.isEmpty())
+                break;
+            var object = containers.topBoolean();
+            var c = lexer.peekSignificant();
+            if (c == ',') {
+                lexer.read();
+                output.append(',');
+                this.appendNewLine(output, containers.size());
+                if (object)
+                    JsonReformatter.key(lexer, output, this.indentation);
+                expectsValue = true;
+                continue;
+            }
+            if (c == (object ? '}' : ']')) {
+                lexer.read();
+                containers.popBoolean();
+                this.appendNewLine(output, containers.size());
+                output.append((char) c);
+                continue;
+            }
+            if (c == -1)
+                throw new JsonException("Encountered an unterminated %s literal.", object ? "object" : "array");
+            throw new JsonException("Expected either a comma or a closing %s.", object ? "brace" : "bracket")
+                    .withSpan(lexer.charSpan());
+        }
+        if (lexer.peekSignificant() != -1)
+            throw new JsonException("Expected the source to hold a single JSON value.")
+                    .withSpan(lexer.charSpan());
+    }
+
+    private static void key(Lexer lexer, OutputBuffer output, int indentation) throws JsonException, IOException {
+        var c = lexer.peekSignificant();
+        if (c == -1)
+            throw new JsonException("Encountered an unterminated object literal.");
+        if (c != '"')
+            throw new JsonException("Expected a string key.")
+                    .withSpan(lexer.charSpan());
+        lexer.copyValue(output);
+        var colon = lexer.peekSignificant();
+        if (colon == -1)
+            throw new JsonException("Encountered an unterminated object literal.");
+        if (colon != ':')
+            throw new JsonException("Expected a colon to follow the key.")
+                    .withSpan(lexer.charSpan());
+        lexer.read();
+        output.append(':');
+        if (indentation > 0)
+            output.append(' ');
+    }
+
+    /**
+     * Copies the number, boolean or null literal ahead, ensuring it's valid.
+     */
+    private static void literal(Lexer lexer, OutputBuffer output, StringBuilder literal) throws JsonException, IOException {
+        literal.setLength(0);
+        lexer.copyValue(literal);
+        if (!JsonReformatter.isLiteral(literal))
+            throw new JsonException("Unexpected lexeme '%s'.", literal)
+                    .withSpan(lexer.relativeSpan(literal.length(), 0));
+        output.append(literal);
+    }
+
+    /**
+     * Determines whether the provided {@code literal} is either a boolean, {@code null}, or a number accepted by the {@link Lexer},
+     * that is, one matching {@code -?D+(\.D*)?([eE][+-]?D+)?}.
+     */
+    private static boolean isLiteral(CharSequence literal) {
+        var length = literal.length();
+        var first = length > 0 ? literal.charAt(0) : 0;
+        if (first == 't' || first == 'f' || first == 'n')
+            return "true".contentEquals(literal) || "false".contentEquals(literal) || "null".contentEquals(literal);
+        var i = first == '-' ? 1 : 0;
+        var digits = i;
+        while (i < length && StringReader.isDigit(literal.charAt(i)))
+            i++;
+        if (i == digits)
+            return false;
+        if (i < length && literal.charAt(i) == '.') {
+            i++;
+            while (i < length && StringReader.isDigit(literal.charAt(i)))
+                i++;
+        }
+        if (i < length && (literal.charAt(i) == 'e' || literal.charAt(i) == 'E')) {
+            i++;
+            if (i < length && StringReader.isSign(literal.charAt(i)))
+                i++;
+            var exponent = i;
+            while (i < length && StringReader.isDigit(literal.charAt(i)))
+                i++;
+            if (i == exponent)
+                return false;
+        }
+        return i == length;
+    }
+
+    private void appendNewLine(OutputBuffer output, int depth) throws IOException {
+        if (this.indentation > 0) {
+            output.append('\n');
+            for (var i = 0; i < this.indentation * depth; i++)
+                output.append(' ');
+        }
+    }
+}
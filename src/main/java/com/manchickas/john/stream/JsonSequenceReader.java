@@ -0,0 +1,170 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.exception.UncheckedJsonException;
+import com.manchickas.john.lexer.Lexer;
+import com.manchickas.john.parser.Parser;
+import com.manchickas.john.reader.SlidingSource;
+import com.manchickas.john.template.Template;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads successive JSON values from a single source, such as concatenated values ({@code {..}{..}}),
+ * whitespace-separated values, or <a href="https://www.rfc-editor.org/rfc/rfc7464">RFC 7464</a> JSON text sequences,
+ * where each value is preceded by a {@linkplain Lexer#RECORD_SEPARATOR record separator}.
+ * <br><br>
+ * Every value is parsed by the same {@link Lexer}, directly from the source, without copying it into a string of its own.
+ * The {@link com.manchickas.john.position.SourceSpan SourceSpan}s of the parsed elements, and thus the errors, refer
+ * to the lines of the whole source.
+ * <br><br>
+ * Unlike {@link com.manchickas.john.John#parse(String) John.parse}, which ignores anything following the first value,
+ * the reader expects the source to consist solely of values, whitespace and record separators.
+ * <br><br>
+ * The source may also be read incrementally from a {@link Reader}, as described by {@link SlidingSource}, so that
+ * arbitrarily long sequences, such as ones received over a socket, can be consumed value by value. In that case,
+ * any {@link java.io.IOException IOException} thrown by the reader is rethrown as an {@link UncheckedIOException}.
+ *
+ * @since 3.1.0
+ */
+public final class JsonSequenceReader {
+
+    private final Lexer lexer;
+    private final Parser parser;
+
+    public JsonSequenceReader(String source) {
+        this(new Lexer(source));
+    }
+
+    /**
+     * Creates a reader reading the values incrementally from the provided {@code reader}, which isn't closed by the reader.
+     *
+     * @see SlidingSource
+     * @since 3.1.0
+     */
+    public JsonSequenceReader(Reader reader) {
+        this(new Lexer(new SlidingSource(reader)));
+    }
+
+    /**
+     * Creates a reader reading the values incrementally from the UTF-8 encoded contents of the provided {@code stream}.
+     * <br><br>
+     * Streams compressed in any of the supported {@linkplain Compression formats} are decompressed on the fly,
+     * the compression being detected from their first bytes.
+     *
+     * @see #JsonSequenceReader(Reader)
+     * @since 3.1.0
+     */
+    public JsonSequenceReader(InputStream stream) {
+        this(new InputStreamReader(Compression.decompressDetected(stream), StandardCharsets.UTF_8));
+    }
+
+    private JsonSequenceReader(Lexer lexer) {
+        this.lexer = lexer;
+        this.parser = new Parser(lexer);
+    }
+
+    /**
+     * Determines whether the source holds any more values.
+     *
+     * @return {@code true} if there's another value ahead, {@code false} if the source is exhausted.
+     * @since 3.1.0
+     */
+    public boolean hasNext() {
+        int c;
+        while ((c = this.lexer.peekSignificant()) == Lexer.RECORD_SEPARATOR)
+            this.lexer.read();
+        return c != -1;
+    }
+
+    /**
+     * Parses the next value into an arbitrary {@link JsonElement}.
+     *
+     * @return the parsed {@link JsonElement}.
+     * @throws JsonException if the next value is invalid JSON.
+     * @throws NoSuchElementException if the source is exhausted.
+     * @since 3.1.0
+     */
+    @NotNull
+    public JsonElement next() throws JsonException {
+        if (!this.hasNext())
+            throw new NoSuchElementException("Attempted to read past the last value of the sequence.");
+        return this.parser.parse();
+    }
+
+    /**
+     * Parses the next value into a typed value, based on the provided {@link Template}.
+     *
+     * @param template the {@link Template} the value must satisfy.
+     * @return the parsed value.
+     * @throws JsonException if the next value is invalid JSON, or doesn't satisfy the provided {@link Template}.
+     * @throws NoSuchElementException if the source is exhausted.
+     * @since 3.1.0
+     */
+    public <T> T next(Template<T> template) throws JsonException {
+        return this.next().expect(template);
+    }
+
+    /**
+     * Lazily parses the remaining values into arbitrary {@link JsonElement}s.
+     *
+     * @return a sequential {@link Stream} of the parsed elements. Consuming the stream throws an {@link UncheckedJsonException}
+     * once a value containing invalid JSON is encountered.
+     * @since 3.1.0
+     */
+    public Stream<JsonElement> stream() {
+        return StreamSupport.stream(new ValueSpliterator(), false);
+    }
+
+    /**
+     * Lazily parses the remaining values into typed values, based on the provided {@link Template}.
+     *
+     * @param template the {@link Template} each value must satisfy.
+     * @return a sequential {@link Stream} of the parsed values. Consuming the stream throws an {@link UncheckedJsonException}
+     * once a value containing invalid JSON, or a value not satisfying the {@link Template}, is encountered.
+     * @since 3.1.0
+     */
+    public <T> Stream<T> stream(Template<T> template) {
+        return this.stream()
+                .map(element -> {
+                    try {
+                        return element.expect(template);
+                    } catch (JsonException e) {
+                        throw new UncheckedJsonException(e);
+                    }
+                });
+    }
+
+    private final class ValueSpliterator extends Spliterators.AbstractSpliterator<JsonElement> {
+
+        private ValueSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super JsonElement> action) {
+            var reader = JsonSequenceReader.this;
+            if (reader.hasNext()) {
+                try {
+                    action.accept(reader.parser.parse());
+                    return true;
+                } catch (JsonException e) {
+                    throw new UncheckedJsonException(e);
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.manchickas.john.stream;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.lexer.Lexer;
+import com.manchickas.john.lexer.lexeme.Lexeme;
+import com.manchickas.john.lexer.lexeme.LexemeType;
+import com.manchickas.john.parser.Parser;
+import com.manchickas.john.parser.Projection;
+import com.manchickas.john.path.JsonPath;
+import com.manchickas.john.path.segment.PathSegment;
+import com.manchickas.john.reader.SlidingSource;
+import com.manchickas.john.template.Template;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rewrites JSON as it streams from a source to a sink, applying a set of path-based rules, without ever building
+ * the tree of the whole document.
+ * <br><br>
+ * Only the objects and arrays lying along the paths of the rules are lexed, and written out minified. Any other value
+ * is copied verbatim, character by character, including its whitespace. Values that get {@linkplain Builder#replace
+ * replaced} are the only ones parsed into {@link JsonElement}s, so that the memory required is bounded by the largest
+ * replaced value, rather than the size of the document.
+ * <br><br>
+ * Rules are matched against the location of each value, through paths consisting of property segments, subscripts,
+ * wildcards and slices with non-negative bounds. Once several rules match the same value, the one added first applies.
+ * The rules are applied top-down, and a value that gets dropped, replaced or copied verbatim isn't visited by the rules
+ * targeting the values within it.
+ *
+ * <pre>{@code
+ *      var transformer = JsonTransformer.builder()
+ *              .drop(JsonPath.compile("./meta/internal"))
+ *              .rename(JsonPath.compile("./user/name"), "username")
+ *              .replace(JsonPath.compile("./order/total"), Template.NUMBER, total -> total.doubleValue() * 1.2)
+ *              .build();
+ *      transformer.transform(input, output);
+ * }</pre>
+ * <p>
+ * Transformers are immutable, and may thus be built once and shared across threads.
+ *
+ * @since 3.1.0
+ */
+public final class JsonTransformer {
+
+    private final Projection projection;
+    private final Rule[] rules;
+
+    private JsonTransformer(Projection projection, Rule[] rules) {
+        this.projection = projection;
+        this.rules = rules;
+    }
+
+    /**
+     * Creates a {@link Builder} of transformers.
+     *
+     * @return the created {@link Builder}.
+     * @since 3.1.0
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Transforms the JSON read from the provided {@code source}, writing the result to the provided {@code sink}.
+     * <br><br>
+     * The {@code source} is read incrementally, as described by {@link SlidingSource}. Neither the {@code source},
+     * nor the {@code sink} are closed, while the {@code sink} gets flushed once the transformation completes.
+     * Should the transformation fail, whatever has been written to the {@code sink} so far is left as is.
+     *
+     * @param source the reader to read the JSON from.
+     * @param sink   the writer to write the transformed JSON to.
+     * @throws JsonException if the source contains any invalid JSON along the visited parts, or if any of the replaced
+     *                       values doesn't satisfy its {@link Template}.
+     * @throws IOException   if any I/O error occurs while reading or writing.
+     * @since 3.1.0
+     */
+    public void transform(Reader source, Writer sink) throws JsonException, IOException {
+        var output = new OutputBuffer(sink);
+        try {
+            new Transformation(new Lexer(new SlidingSource(source)), output).run();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.flush();
+    }
+
+    /**
+     * Transforms the UTF-8 encoded JSON read from the provided {@code source}, writing the result to the provided {@code sink},
+     * encoded as UTF-8 as well.
+     * <br><br>
+     * Sources compressed in any of the supported {@linkplain Compression formats} are decompressed on the fly.
+     * The output may be compressed by wrapping the {@code sink} through {@link Compression#compress(OutputStream)}.
+     *
+     * @param source the stream to read the JSON from.
+     * @param sink   the stream to write the transformed JSON to.
+     * @throws JsonException if the source contains any invalid JSON along the visited parts, or if any of the replaced
+     *                       values doesn't satisfy its {@link Template}.
+     * @throws IOException   if any I/O error occurs while reading or writing.
+     * @see #transform(Reader, Writer)
+     * @since 3.1.0
+     */
+    public void transform(InputStream source, OutputStream sink) throws JsonException, IOException {
+        this.transform(new InputStreamReader(Compression.decompressDetected(source), StandardCharsets.UTF_8),
+                new OutputStreamWriter(sink, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Transforms the provided {@code source}.
+     *
+     * @param source the source containing the JSON to transform.
+     * @return the transformed JSON.
+     * @throws JsonException if the source contains any invalid JSON along the visited parts, or if any of the replaced
+     *                       values doesn't satisfy its {@link Template}.
+     * @since 3.1.0
+     */
+    @NotNull
+    public String transform(String source) throws JsonException {
+        var sink = new StringWriter(source.length());
+        var output = new OutputBuffer(sink);
+        try {
+            new Transformation(new Lexer(source), output).run();
+            output.flush();
+        } catch (IOException e) {
+            throw new AssertionError("Unreachable", e);
+        }
+        return sink.toString();
+    }
+
+    /**
+     * Represents the action taken upon a matched value.
+     */
+    private sealed interface Rule {
+    }
+
+    private record Drop() implements Rule {
+    }
+
+    private record Rename(String name) implements Rule {
+    }
+
+    private record Verbatim() implements Rule {
+    }
+
+    private record Replace(Replacement replacement) implements Rule {
+    }
+
+    @FunctionalInterface
+    private interface Replacement {
+
+        JsonElement apply(JsonElement element) throws JsonException;
+    }
+
+    /**
+     * Performs a single transformation, walking the source along the projection compiled from the paths of the rules.
+     */
+    private final class Transformation {
+
+        private final Lexer lexer;
+        private final Parser parser;
+        private final OutputBuffer output;
+
+        private Transformation(Lexer lexer, OutputBuffer output) {
+            this.lexer = lexer;
+            this.parser = new Parser(lexer);
+            this.output = output;
+        }
+
+        private void run() throws JsonException, IOException {
+            var root = JsonTransformer.this.projection;
+            this.value(root, this.rule(root));
+            if (this.lexer.peekSignificant() != -1)
+                throw new JsonException("Expected the source to hold a single JSON value.")
+                        .withSpan(this.lexer.charSpan());
+        }
+
+        /**
+         * Transforms the next value, matched by the provided projection {@code node}, if any.
+         */
+        private void value(@Nullable Projection node, @Nullable Rule rule) throws JsonException, IOException {
+            switch (rule) {
+                case Replace replace -> {
+                    var replaced = replace.replacement()
+                            .apply(this.parser.parse());
+                    JsonEncoder.encode(replaced, this.output.builder());
+                    this.output.flushIfFull();
+                }
+                case Verbatim ignored -> this.lexer.copyValue(this.output);
+                case null, default -> {
+                    if (node == null) {
+                        this.lexer.copyValue(this.output);
+                        return;
+                    }
+                    var c = this.lexer.peekSignificant();
+                    if (c == '{' && node.hasProperties()) {
+                        this.object(node);
+                    } else if (c == '[' && node.hasIndices()) {
+                        this.array(node);
+                    } else {
+                        this.lexer.copyValue(this.output);
+                    }
+                }
+            }
+        }
+
+        private void object(Projection node) throws JsonException, IOException {
+            this.lexer.nextLexeme();
+            this.output.append('{');
+            var lexeme = this.next("Encountered an unterminated object literal.");
+            if (lexeme.isOf(LexemeType.SEPARATOR, '}')) {
+                this.output.append('}');
+                return;
+            }
+            var first = true;
+            while (true) {
+                var key = lexeme.expect(LexemeType.STRING);
+                this.next("Encountered an unterminated object literal.")
+                        .expect(LexemeType.SEPARATOR, ':');
+                var child = node.property(key);
+                var rule = this.rule(child);
+                if (rule instanceof Drop) {
+                    this.lexer.skipValue();
+                } else {
+                    if (!first)
+                        this.output.append(',');
+                    first = false;
+                    JsonEncoder.encode(rule instanceof Rename rename ? rename.name() : key, this.output.builder());
+                    this.output.append(':');
+                    this.value(child, rule);
+                }
+                var separator = this.next("Encountered an unterminated object literal.");
+                if (separator.isOf(LexemeType.SEPARATOR, '}'))
+                    break;
+                if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                    throw new JsonException("Expected either a comma or a closing brace.")
+                            .withSpan(separator.span());
+                lexeme = this.next("Encountered an unterminated object literal.");
+            }
+            this.output.append('}');
+        }
+
+        private void array(Projection node) throws JsonException, IOException {
+            this.lexer.nextLexeme();
+            this.output.append('[');
+            if (this.lexer.peekSignificant() == ']') {
+                this.lexer.nextLexeme();
+                this.output.append(']');
+                return;
+            }
+            var first = true;
+            for (var i = 0; ; i++) {
+                if (this.lexer.peekSignificant() == -1)
+                    throw new JsonException("Encountered an unterminated array literal.");
+                var child = node.index(i);
+                var rule = this.rule(child);
+                if (rule instanceof Drop) {
+                    this.lexer.skipValue();
+                } else {
+                    if (!first)
+                        this.output.append(',');
+                    first = false;
+                    this.value(child, rule);
+                }
+                var separator = this.next("Encountered an unterminated array literal.");
+                if (separator.isOf(LexemeType.SEPARATOR, ']'))
+                    break;
+                if (!separator.isOf(LexemeType.SEPARATOR, ','))
+                    throw new JsonException("Expected either a comma or a closing bracket.")
+                            .withSpan(separator.span());
+            }
+            this.output.append(']');
+        }
+
+        @Nullable
+        private Rule rule(@Nullable Projection node) {
+            if (node == null)
+                return null;
+            var terminal = node.terminal();
+            return terminal < 0 ? null : JsonTransformer.this.rules[terminal];
+        }
+
+        private Lexeme<?> next(String message) throws JsonException {
+            var lexeme = this.lexer.nextLexeme();
+            if (lexeme == null)
+                throw new JsonException(message);
+            return lexeme;
+        }
+    }
+
+    /**
+     * Collects the rules of a {@link JsonTransformer}.
+     *
+     * @since 3.1.0
+     */
+    public static final class Builder {
+
+        private final List<JsonPath> paths;
+        private final List<Rule> rules;
+
+        private Builder() {
+            this.paths = new ArrayList<>();
+            this.rules = new ArrayList<>();
+        }
+
+        /**
+         * Drops the values matched by the provided {@code path}, along with their keys, or their slots within an array.
+         *
+         * @param path the path of the values to drop.
+         * @return the current {@link Builder}.
+         * @throws IllegalArgumentException if the path refers to the root of the document.
+         * @since 3.1.0
+         */
+        public Builder drop(JsonPath path) {
+            if (path.segments().stream().allMatch(segment -> segment == PathSegment.THIS))
+                throw new IllegalArgumentException("Attempted to drop the root of the document.");
+            return this.add(path, new Drop());
+        }
+
+        /**
+         * Renames the properties whose values are matched by the provided {@code path}, keeping their values,
+         * which are still visited by the rules targeting the values within them.
+         * <br><br>
+         * The rule has no effect on the elements of an array, nor on the root of the document.
+         *
+         * @param path the path of the values whose properties to rename.
+         * @param name the new name of the properties.
+         * @return the current {@link Builder}.
+         * @since 3.1.0
+         */
+        public Builder rename(JsonPath path, String name) {
+            return this.add(path, new Rename(Objects.requireNonNull(name)));
+        }
+
+        /**
+         * Copies the values matched by the provided {@code path} verbatim, shielding them from the rules targeting the values within them.
+         *
+         * @param path the path of the values to copy.
+         * @return the current {@link Builder}.
+         * @since 3.1.0
+         */
+        public Builder verbatim(JsonPath path) {
+            return this.add(path, new Verbatim());
+        }
+
+        /**
+         * Replaces the values matched by the provided {@code path}, by binding each according to the provided {@link Template},
+         * applying the provided {@code operator}, and serializing the result back according to the same {@link Template}.
+         *
+         * @param path     the path of the values to replace.
+         * @param template the {@link Template} the values must satisfy.
+         * @param operator the operator computing the replacements.
+         * @return the current {@link Builder}.
+         * @since 3.1.0
+         */
+        public <T> Builder replace(JsonPath path, Template<T> template, UnaryOperator<T> operator) {
+            return this.replace(path, template, template, operator);
+        }
+
+        /**
+         * Replaces the values matched by the provided {@code path}, by binding each according to the {@code source} {@link Template},
+         * applying the provided {@code function}, and serializing the result according to the {@code target} {@link Template}.
+         * <br><br>
+         * The values within a replaced value aren't visited by any other rules.
+         *
+         * @param path     the path of the values to replace.
+         * @param source   the {@link Template} the values must satisfy.
+         * @param target   the {@link Template} the replacements must satisfy.
+         * @param function the function computing the replacements.
+         * @return the current {@link Builder}.
+         * @since 3.1.0
+         */
+        public <S, T> Builder replace(JsonPath path, Template<S> source, Template<T> target, Function<? super S, ? extends T> function) {
+            Objects.requireNonNull(source);
+            Objects.requireNonNull(target);
+            Objects.requireNonNull(function);
+            return this.add(path, new Replace(element -> {
+                var result = target.serializeAndPromote(function.apply(element.expect(source)));
+                if (result.isError())
+                    throw new JsonException(result.message())
+                            .withSpan(element.span());
+                return result.unwrap();
+            }));
+        }
+
+        private Builder add(JsonPath path, Rule rule) {
+            this.paths.add(Objects.requireNonNull(path));
+            this.rules.add(rule);
+            return this;
+        }
+
+        /**
+         * Builds a transformer applying the collected rules.
+         *
+         * @return the built {@link JsonTransformer}.
+         * @throws IllegalArgumentException if any of the paths contains a segment other than a property segment,
+         *                                  a subscript, a wildcard or a slice with non-negative bounds.
+         * @since 3.1.0
+         */
+        public JsonTransformer build() {
+            var projection = Projection.compile(this.paths.toArray(JsonPath[]::new));
+            return new JsonTransformer(projection, this.rules.toArray(Rule[]::new));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.manchickas.john.stream;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Buffers the characters written to a {@link Writer}, handing them over in large chunks, and without any locking.
+ */
+final class OutputBuffer implements Appendable {
+
+    private static final int CAPACITY = 1 << 14;
+
+    private final Writer writer;
+    private final StringBuilder builder;
+
+    OutputBuffer(Writer writer) {
+        this.writer = writer;
+        this.builder = new StringBuilder(CAPACITY);
+    }
+
+    /**
+     * Exposes the buffer itself, to be appended to directly, after which {@link #flushIfFull()} must be called.
+     */
+    StringBuilder builder() {
+        return this.builder;
+    }
+
+    @Override
+    public OutputBuffer append(CharSequence sequence) throws IOException {
+        this.builder.append(sequence);
+        this.flushIfFull();
+        return this;
+    }
+
+    @Override
+    public OutputBuffer append(CharSequence sequence, int start, int end) throws IOException {
+        this.builder.append(sequence, start, end);
+        this.flushIfFull();
+        return this;
+    }
+
+    @Override
+    public OutputBuffer append(char c) throws IOException {
+        this.builder.append(c);
+        this.flushIfFull();
+        return this;
+    }
+
+    void flushIfFull() throws IOException {
+        if (this.builder.length() >= CAPACITY) {
+            this.writer.append(this.builder);
+            this.builder.setLength(0);
+        }
+    }
+
+    void flush() throws IOException {
+        this.writer.append(this.builder);
+        this.builder.setLength(0);
+        this.writer.flush();
+    }
+}
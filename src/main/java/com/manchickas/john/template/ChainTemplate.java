@@ -0,0 +1,221 @@
+package com.manchickas.john.template;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.parser.Projection;
+import com.manchickas.john.position.SourceSpan;
+import com.manchickas.john.template.number.type.WholeTemplate;
+import com.manchickas.john.util.ArrayBuilder;
+import com.manchickas.john.util.Mapper;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Represents a {@link Template} that applies a sequence of {@link Step}s on top of a {@code source} template.
+ * <br><br>
+ * Chains are produced by {@link Template#map(Mapper, Mapper)}, {@link Template#refine(Predicate, Supplier)} and
+ * {@link Template#describe(UnaryOperator)}, each contributing a single step. {@link Template#optimize() Optimizing}
+ * a chain whose source is another chain fuses the two into one, so that the whole sequence is applied within a single
+ * {@link Template#parse(JsonElement)} call, allocating a single {@link Result}.
+ *
+ * @param <S> the type of the source template.
+ * @param <T> the type produced by the last step.
+ */
+public final class ChainTemplate<S, T> implements Template<T> {
+
+    private final Template<S> source;
+    private final Step[] steps;
+
+    ChainTemplate(Template<S> source, Step... steps) {
+        this.source = source;
+        this.steps = steps;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<T> parse(JsonElement element) {
+        var result = this.source.parse(element);
+        if (result.isSuccess()) {
+            Object value = result.unwrap();
+            for (var step : this.steps) {
+                switch (step) {
+                    case Step.Map map -> {
+                        try {
+                            value = map.mapper().map(value);
+                        } catch (Throwable t) {
+                            return Mapper.wrapFailure(t, element::span);
+                        }
+                    }
+                    case Step.Refine refine -> {
+                        if (!refine.predicate().test(value))
+                            return Result.error(refine.message().get(), element.span());
+                    }
+                    case Step.Whole __ -> {
+                        if (((Number) value).doubleValue() % 1 != 0)
+                            return Result.error(WholeTemplate.MESSAGE, element.span());
+                    }
+                    case Step.Describe __ -> {
+                    }
+                }
+            }
+            return Result.success((T) value);
+        }
+        return (Result<T>) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<JsonElement> serialize(T value) {
+        var result = this.unwind(value);
+        if (result.isSuccess())
+            return this.source.serialize(result.unwrap());
+        return (Result<JsonElement>) (Result<?>) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<JsonElement> serializeTagged(T value, String key, JsonElement tag) {
+        var result = this.unwind(value);
+        if (result.isSuccess())
+            return this.source.serializeTagged(result.unwrap(), key, tag);
+        return (Result<JsonElement>) (Result<?>) result;
+    }
+
+    /**
+     * Applies the steps in reverse order, transforming the {@code value} back into the one expected by the {@link #source}.
+     */
+    @SuppressWarnings("unchecked")
+    private Result<S> unwind(T value) {
+        Object current = value;
+        for (var i = this.steps.length - 1; i >= 0; i--) {
+            var unwound = current;
+            switch (this.steps[i]) {
+                case Step.Map map -> {
+                    try {
+                        current = map.remapper().map(current);
+                    } catch (Throwable t) {
+                        return Mapper.wrapFailure(t, () -> SourceSpan.lineWide(unwound.toString(), 1));
+                    }
+                }
+                case Step.Refine refine -> {
+                    if (!refine.predicate().test(current))
+                        return Result.error(refine.message().get(), SourceSpan.lineWide(current.toString(), 1));
+                }
+                case Step.Whole __ -> {
+                    if (current == null)
+                        return Result.mismatch();
+                    if (((Number) current).doubleValue() % 1 != 0)
+                        return Result.error(WholeTemplate.MESSAGE, SourceSpan.lineWide(current.toString(), 1));
+                }
+                case Step.Describe __ -> {
+                }
+            }
+        }
+        return Result.success((S) current);
+    }
+
+    @Override
+    public String name(IntSet encountered) {
+        var name = this.source.name(encountered);
+        for (var step : this.steps) {
+            if (step instanceof Step.Describe describe)
+                name = describe.name().apply(name);
+        }
+        return name;
+    }
+
+    @Override
+    public Shape shape() {
+        return this.source.shape();
+    }
+
+    /**
+     * Optimizes the {@link #source} and, if it turns out to be a chain itself, fuses it with the current one.
+     * A {@link WholeTemplate} source gets absorbed into the chain as well.
+     */
+    @Override
+    public Template<T> optimize(TemplateOptimizer optimizer) {
+        Template<?> source = optimizer.optimize(this.source);
+        var prefix = ArrayBuilder.<Step>builder();
+        while (true) {
+            if (source instanceof ChainTemplate<?, ?> chain) {
+                for (var i = chain.steps.length - 1; i >= 0; i--)
+                    prefix.append(chain.steps[i]);
+                source = chain.source;
+                continue;
+            }
+            if (source instanceof WholeTemplate whole) {
+                prefix.append(Step.Whole.INSTANCE);
+                source = whole.source();
+                continue;
+            }
+            break;
+        }
+        if (prefix.isEmpty() && source == this.source)
+            return this;
+        var steps = ArrayBuilder.<Step>builderWithExpectedSize(prefix.length() + this.steps.length);
+        while (!prefix.isEmpty())
+            steps.append(prefix.trimLast());
+        return new ChainTemplate<>(source, steps.appendAll(this.steps)
+                .build(Step[]::new));
+    }
+
+    /**
+     * Delegates to the {@link #source}, since none of the steps read the JSON element themselves.
+     */
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        return projector.project(this.source);
+    }
+
+    @ApiStatus.Internal
+    public Template<S> source() {
+        return this.source;
+    }
+
+    @ApiStatus.Internal
+    public List<Step> steps() {
+        return List.of(this.steps);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.source.hashCode();
+    }
+
+    /**
+     * Represents a single transformation applied by a {@link ChainTemplate}.
+     */
+    @ApiStatus.Internal
+    public sealed interface Step {
+
+        /**
+         * Transforms the value with the {@code mapper} when parsing, and with the {@code remapper} when serializing.
+         */
+        record Map(Mapper<Object, Object> mapper, Mapper<Object, Object> remapper) implements Step {
+        }
+
+        /**
+         * Rejects values that don't satisfy the {@code predicate} with the supplied {@code message}.
+         */
+        record Refine(Predicate<Object> predicate, Supplier<String> message) implements Step {
+        }
+
+        /**
+         * Adjusts the name of the template without affecting its behavior.
+         */
+        record Describe(UnaryOperator<String> name) implements Step {
+        }
+
+        /**
+         * Rejects numbers with a fractional part, mirroring {@link com.manchickas.john.template.number.NumericTemplate#requireWhole()}.
+         */
+        enum Whole implements Step {
+            INSTANCE
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.manchickas.john.template;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.parser.Projection;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Supplier;
@@ -29,12 +31,65 @@ public final class LazyTemplate<T> implements Template<T> {
                 .serialize(value);
     }
 
+    @Override
+    public Result<JsonElement> serializeTagged(T value, String key, JsonElement tag) {
+        return this.getOrCache()
+                .serializeTagged(value, key, tag);
+    }
+
     @Override
     public String name(IntSet encountered) {
         return this.getOrCache()
                 .name(encountered);
     }
 
+    /**
+     * Returns the {@link Shape} of the underlying template, if it has already been initialized.
+     * <br><br>
+     * Unlike the other operations, querying the shape <b>doesn't</b> initialize the underlying template, as
+     * shapes are usually computed while the templates are still being constructed, and the {@code supplier}
+     * may not be able to provide the template yet.
+     */
+    @Override
+    public Shape shape() {
+        var cached = this.cached;
+        if (cached != null)
+            return cached.shape();
+        return Shape.ANY;
+    }
+
+    /**
+     * Resolves the lazy template to the one returned by the {@link TemplateOptimizer optimizer}, rather than
+     * the one from the {@code supplier}.
+     */
+    @Override
+    public Template<T> optimize(TemplateOptimizer optimizer) {
+        return optimizer.optimize(this.getOrCache());
+    }
+
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        return projector.project(this.getOrCache());
+    }
+
+    /**
+     * Returns the underlying template, initializing it if necessary.
+     *
+     * @return the underlying template.
+     * @since 3.1.0
+     */
+    @ApiStatus.Internal
+    public Template<T> get() {
+        return this.getOrCache();
+    }
+
+    /**
+     * Resolves a forward reference created by a {@link TemplateOptimizer} once the referenced template has been optimized.
+     */
+    void resolve(Template<T> template) {
+        this.cached = template;
+    }
+
     private Template<T> getOrCache() {
         if (this.cached == null) {
             synchronized (this) {
@@ -1,6 +1,7 @@
 package com.manchickas.john.template;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.ast.primitive.JsonNull;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
@@ -41,4 +42,9 @@ public final class NullTemplate implements Template<Void> {
     public String name(IntSet encountered) {
         return "null";
     }
+
+    @Override
+    public Shape shape() {
+        return Shape.of(JsonKind.NULL);
+    }
 }
@@ -1,8 +1,11 @@
 package com.manchickas.john.template;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.ast.primitive.JsonNull;
+import com.manchickas.john.parser.Projection;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -53,6 +56,35 @@ public final class OptionalTemplate<T> implements Template<T> {
         return this.template.name(encountered) + '?';
     }
 
+    @Override
+    public Shape shape() {
+        return this.template.shape()
+                .or(Shape.of(JsonKind.NULL));
+    }
+
+    @Override
+    public Template<T> optimize(TemplateOptimizer optimizer) {
+        var template = optimizer.optimize(this.template);
+        if (template == this.template)
+            return this;
+        return new OptionalTemplate<>(template, this.supplier);
+    }
+
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        return projector.project(this.template);
+    }
+
+    @ApiStatus.Internal
+    public Template<T> template() {
+        return this.template;
+    }
+
+    @ApiStatus.Internal
+    public Supplier<@Nullable T> supplier() {
+        return this.supplier;
+    }
+
     @Override
     public int hashCode() {
         return this.template.hashCode();
@@ -0,0 +1,91 @@
+package com.manchickas.john.template;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+
+/**
+ * Binds the elements of a collection across the threads of a {@link ForkJoinPool}.
+ * <br><br>
+ * The indices are split in halves until each part is small enough to be bound sequentially. Parts are bound by the
+ * {@link ForkJoinPool} the caller runs in, if any, so that nested collections share the same pool, and by the
+ * {@link ForkJoinPool#commonPool() common pool} otherwise.
+ * <br><br>
+ * Failures are reported deterministically: whenever several elements fail to bind, the failure of the element
+ * at the lowest index wins, exactly as if the elements were bound sequentially.
+ *
+ * @since 3.1.0
+ */
+@ApiStatus.Internal
+public final class ParallelBinder {
+
+    /**
+     * The number of elements at or above which collections get bound in parallel, unless specified otherwise.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 12;
+
+    private ParallelBinder() {
+    }
+
+    /**
+     * Binds every index within {@code [0, length)} with the provided {@code binder}, which is expected to store
+     * the bound value itself.
+     *
+     * @param length the number of elements to bind.
+     * @param binder the function binding the element at the provided index.
+     * @return the unsuccessful {@link Result} of the element at the lowest index, or {@code null} if every element was bound.
+     */
+    @Nullable
+    public static Result<?> bind(int length, IntFunction<? extends Result<?>> binder) {
+        var pool = ForkJoinTask.getPool();
+        if (pool == null)
+            pool = ForkJoinPool.commonPool();
+        var grain = Math.max(1, length / (pool.getParallelism() * 8));
+        var task = new Task(binder, 0, length, grain);
+        if (ForkJoinTask.inForkJoinPool())
+            return task.invoke();
+        return pool.invoke(task);
+    }
+
+    private static final class Task extends RecursiveTask<Result<?>> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient IntFunction<? extends Result<?>> binder;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        private Task(IntFunction<? extends Result<?>> binder, int from, int to, int grain) {
+            this.binder = binder;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Result<?> compute() {
+            if (this.to - this.from <= this.grain) {
+                for (var i = this.from; i < this.to; i++) {
+                    var result = this.binder.apply(i);
+                    if (!result.isSuccess())
+                        return result;
+                }
+                return null;
+            }
+            var middle = (this.from + this.to) >>> 1;
+            var left = new Task(this.binder, this.from, middle, this.grain);
+            left.fork();
+            var right = new Task(this.binder, middle, this.to, this.grain)
+                    .compute();
+            var failure = left.join();
+            return failure != null ? failure : right;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.manchickas.john.template;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.manchickas.john.ast.JsonKind;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Describes which {@link com.manchickas.john.ast.JsonElement JsonElement}s a {@link Template} could <b>possibly</b> match.
+ * <br><br>
+ * A {@link Shape} is a conservative approximation. An element that falls outside the shape of a template is guaranteed
+ * to never be successfully parsed by it, whereas an element that falls within the shape may still be rejected by the template.
+ * <ul>
+ *     <li>{@link #kinds()} lists the {@link JsonKind}s the template accepts.</li>
+ *     <li>{@link #literals()} lists the exact strings the template accepts, or is {@code null} if any string may be accepted.</li>
+ *     <li>{@link #requiredKeys()} lists the properties an object must include for the template to accept it.</li>
+ * </ul>
+ *
+ * @param kinds        the kinds of elements the template accepts.
+ * @param literals     the exact strings the template accepts, or {@code null} if unrestricted.
+ * @param requiredKeys the properties an accepted object must include.
+ * @since 3.1.0
+ */
+public record Shape(Set<JsonKind> kinds,
+                    @Nullable Set<String> literals,
+                    Set<String> requiredKeys) {
+
+    /**
+     * Represents a {@link Shape} that accepts all JSON elements.
+     */
+    public static final Shape ANY = new Shape(EnumSet.allOf(JsonKind.class), null, Set.of());
+    /**
+     * Represents a {@link Shape} that accepts no JSON elements at all.
+     */
+    public static final Shape NONE = new Shape(EnumSet.noneOf(JsonKind.class), null, Set.of());
+
+    public Shape {
+        kinds = Sets.immutableEnumSet(kinds);
+        literals = literals != null ? ImmutableSet.copyOf(literals) : null;
+        requiredKeys = ImmutableSet.copyOf(requiredKeys);
+    }
+
+    public static Shape of(JsonKind kind, JsonKind... rest) {
+        return new Shape(EnumSet.of(kind, rest), null, Set.of());
+    }
+
+    public Shape withLiterals(Set<String> literals) {
+        return new Shape(this.kinds, literals, this.requiredKeys);
+    }
+
+    public Shape withRequiredKeys(Set<String> requiredKeys) {
+        return new Shape(this.kinds, this.literals, requiredKeys);
+    }
+
+    /**
+     * Computes the {@link Shape} that accepts everything either of the two shapes accepts.
+     *
+     * @param other the shape to combine with.
+     * @return the combined {@link Shape}.
+     */
+    public Shape or(Shape other) {
+        var kinds = EnumSet.noneOf(JsonKind.class);
+        kinds.addAll(this.kinds);
+        kinds.addAll(other.kinds);
+        return new Shape(kinds,
+                this.orLiterals(other),
+                this.orRequiredKeys(other));
+    }
+
+    public boolean accepts(JsonKind kind) {
+        return this.kinds.contains(kind);
+    }
+
+    @Nullable
+    private Set<String> orLiterals(Shape other) {
+        if (!this.accepts(JsonKind.STRING))
+            return other.literals;
+        if (!other.accepts(JsonKind.STRING))
+            return this.literals;
+        if (this.literals == null || other.literals == null)
+            return null;
+        return Sets.union(this.literals, other.literals);
+    }
+
+    private Set<String> orRequiredKeys(Shape other) {
+        if (!this.accepts(JsonKind.OBJECT))
+            return other.requiredKeys;
+        if (!other.accepts(JsonKind.OBJECT))
+            return this.requiredKeys;
+        return Sets.intersection(this.requiredKeys, other.requiredKeys);
+    }
+}
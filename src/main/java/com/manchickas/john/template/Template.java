@@ -1,22 +1,28 @@
 package com.manchickas.john.template;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
+import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.ast.primitive.JsonBoolean;
 import com.manchickas.john.ast.primitive.JsonNumber;
 import com.manchickas.john.ast.primitive.JsonString;
+import com.manchickas.john.parser.Projection;
 import com.manchickas.john.position.SourceSpan;
 import com.manchickas.john.template.array.ArrayTemplate;
+import com.manchickas.john.template.compiler.TemplateCompiler;
 import com.manchickas.john.template.number.NumericTemplate;
 import com.manchickas.john.template.number.type.MaxTemplate;
 import com.manchickas.john.template.number.type.MinTemplate;
 import com.manchickas.john.template.number.type.RangeTemplate;
 import com.manchickas.john.template.object.DiscriminatedUnionTemplate;
+import com.manchickas.john.template.object.IndexedUnionTemplate;
 import com.manchickas.john.template.object.MapTemplate;
 import com.manchickas.john.template.object.constructor.*;
 import com.manchickas.john.template.object.property.PropertyAccessor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
 import com.manchickas.john.template.object.property.type.RequiredPropertyTemplate;
 import com.manchickas.john.template.object.type.*;
+import com.manchickas.john.template.string.EnumTemplate;
 import com.manchickas.john.template.string.LiteralTemplate;
 import com.manchickas.john.template.string.PatternTemplate;
 import com.manchickas.john.template.union.UnionTemplate;
@@ -100,6 +106,11 @@ public interface Template<T> {
         public String name(IntSet encountered) {
             return "string";
         }
+
+        @Override
+        public Shape shape() {
+            return Shape.of(JsonKind.STRING);
+        }
     };
 
     /**
@@ -150,12 +161,18 @@ public interface Template<T> {
         public String name(IntSet encountered) {
             return "boolean";
         }
+
+        @Override
+        public Shape shape() {
+            return Shape.of(JsonKind.BOOLEAN);
+        }
     };
 
     /**
      * Represents a {@link Template} that consists of multiple strategies, defined by the provided templates.
      * <br><br>
      * The strategies are attempted fuzzily, but strictly in-order, short-circuiting on the first match.
+     * Strategies whose {@link #shape()} rules out the element are skipped without being attempted.
      *
      * @param templates the strategies to attempt.
      * @param <T>       the type of all strategies.
@@ -214,6 +231,39 @@ public interface Template<T> {
         return new LiteralTemplate(literal);
     }
 
+    /**
+     * Represents a {@link Template} that matches the {@link Enum#name() names} of the constants of the provided enum.
+     *
+     * @param type the class of the enum.
+     * @param <E>  the type of the enum.
+     * @return a {@link Template} representing the enum.
+     * @see #enumOf(Class, Function)
+     * @since 3.1.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static <E extends Enum<E>> @NotNull EnumTemplate<E> enumOf(Class<E> type) {
+        return Template.enumOf(type, Enum::name);
+    }
+
+    /**
+     * Represents a {@link Template} that matches the names of the constants of the provided enum, as determined by the {@code naming} function.
+     * <br><br>
+     * The names are looked up in a precomputed perfect hash table, so matching a string costs a single probe regardless
+     * of the number of constants, and no exceptions are thrown for unknown names. Each constant gets serialized into
+     * the same cached {@link JsonString}.
+     *
+     * @param type   the class of the enum.
+     * @param naming the function that maps each constant to its JSON name, case-sensitive.
+     * @param <E>    the type of the enum.
+     * @return a {@link Template} representing the enum.
+     * @throws IllegalArgumentException if any two constants share the same name.
+     * @since 3.1.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static <E extends Enum<E>> @NotNull EnumTemplate<E> enumOf(Class<E> type, Function<E, String> naming) {
+        return new EnumTemplate<>(type, naming);
+    }
+
     /**
      * Represents a {@link Template} that matches all strings that themselves match the provided regular expression.
      *
@@ -257,6 +307,53 @@ public interface Template<T> {
         return new DiscriminatedUnionTemplate<>(discriminator, resolver);
     }
 
+    /**
+     * Represents a {@link Template} that delegates its operations to one of the provided {@code variants}, based on a <b>discriminator</b>,
+     * represented by the {@code discriminator} property template.
+     * <br><br>
+     * As opposed to the {@link #discriminatedUnion(PropertyTemplate, Function) resolver-based} union, the variants are known upfront.
+     * The appropriate variant is thus looked up in a precomputed table, the discriminator of each variant is serialized only once,
+     * and gets written straight into the object produced by the variant's template. Values whose type doesn't match the
+     * {@linkplain #variant(Class, Template) variant} of their discriminator result in a mismatch.
+     *
+     * <pre>{@code
+     *      Template<Shape> template = Template.discriminatedUnion(
+     *              Template.STRING.property("type", Shape::type),
+     *              Map.of(
+     *                      "circle", Template.variant(Circle.class, Circle.TEMPLATE),
+     *                      "square", Template.variant(Square.class, Square.TEMPLATE)
+     *              )
+     *      );
+     * }</pre>
+     *
+     * @param discriminator the template of the discriminator.
+     * @param variants      the variants, keyed by their discriminator value.
+     * @param <Instance>    the supertype of all variants.
+     * @param <Disc>        the type of the discriminator property.
+     * @return a {@link Template} representing the discriminated union.
+     * @throws IllegalArgumentException if any of the discriminator values doesn't satisfy the discriminator template.
+     * @since 3.1.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static <Instance, Disc> @NotNull Template<Instance> discriminatedUnion(PropertyTemplate<Instance, Disc, ?> discriminator,
+                                                                           Map<Disc, ? extends IndexedUnionTemplate.Variant<? extends Instance>> variants) {
+        return new IndexedUnionTemplate<>(discriminator, variants);
+    }
+
+    /**
+     * Represents a single variant of a {@link #discriminatedUnion(PropertyTemplate, Map) discriminated union}.
+     *
+     * @param type     the class of the variant.
+     * @param template the template of the variant.
+     * @param <P>      the type of the variant.
+     * @return the {@link IndexedUnionTemplate.Variant}.
+     * @since 3.1.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static <P> IndexedUnionTemplate.@NotNull Variant<P> variant(Class<P> type, Template<P> template) {
+        return new IndexedUnionTemplate.Variant<>(type, template);
+    }
+
     /**
      * Represents a {@link Template} that matches any <b>arbitrary-keyed</b> JSON object, as long as each entry
      * of the object satisfies the provided {@code template}.
@@ -270,6 +367,36 @@ public interface Template<T> {
         return new MapTemplate<>(template);
     }
 
+    /**
+     * Represents a {@link Template} equivalent to the one returned by {@link #map(Template)}, which binds the entries
+     * of objects of at least {@value ParallelBinder#DEFAULT_THRESHOLD} entries in parallel.
+     *
+     * @param template the template of an entry.
+     * @param <T>      the type of the template.
+     * @return a {@link Template} representing the map.
+     * @see #parallelMap(Template, int)
+     * @since 3.1.0
+     */
+    static <T> Template<Map<String, T>> parallelMap(Template<T> template) {
+        return Template.parallelMap(template, ParallelBinder.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Represents a {@link Template} equivalent to the one returned by {@link #map(Template)}, which binds the entries
+     * of objects of at least {@code threshold} entries in parallel.
+     *
+     * @param template  the template of an entry.
+     * @param threshold the number of entries at or above which the entries get bound in parallel.
+     * @param <T>       the type of the template.
+     * @return a {@link Template} representing the map.
+     * @throws IllegalArgumentException if the {@code threshold} isn't positive.
+     * @see MapTemplate#parallel(int)
+     * @since 3.1.0
+     */
+    static <T> Template<Map<String, T>> parallelMap(Template<T> template, int threshold) {
+        return new MapTemplate<>(template).parallel(threshold);
+    }
+
     @Contract("_, _ -> new")
     static <Instance, A> @NotNull Template<Instance> record(PropertyTemplate<Instance, A, ?> first,
                                                             UniConstructor<A, Instance> constructor) {
@@ -393,6 +520,11 @@ public interface Template<T> {
             public String name(IntSet encountered) {
                 return "never";
             }
+
+            @Override
+            public Shape shape() {
+                return Shape.NONE;
+            }
         };
     }
 
@@ -414,6 +546,28 @@ public interface Template<T> {
         );
     }
 
+    /**
+     * Serializes the provided {@code value}, and, if it gets serialized into a {@link com.manchickas.john.ast.JsonObject JsonObject},
+     * includes the provided {@code tag} under the {@code key} property as the first entry of the object.
+     * <br><br>
+     * The default implementation copies the serialized object afterward. Templates that build objects themselves,
+     * such as {@link com.manchickas.john.template.object.RecordTemplate RecordTemplate}s, write the tag while serializing instead.
+     *
+     * @param value the value to serialize.
+     * @param key   the name of the property to write the {@code tag} under.
+     * @param tag   the element to write.
+     * @return a {@link Result} representing the state of the operation.
+     * @since 3.1.0
+     */
+    @ApiStatus.Internal
+    default Result<JsonElement> serializeTagged(T value, String key, JsonElement tag) {
+        return this.serialize(value).map(element -> {
+            if (element instanceof JsonObject object)
+                return object.with(key, tag);
+            return element;
+        });
+    }
+
     /**
      * Attempts to parse the provided {@link JsonElement}.
      *
@@ -440,6 +594,99 @@ public interface Template<T> {
      */
     String name(IntSet encountered);
 
+    /**
+     * Describes which JSON elements the template could possibly match.
+     * <br><br>
+     * The returned {@link Shape} is used by composite templates, such as {@link #union(Template[]) unions}, to rule out
+     * templates that are guaranteed to mismatch without attempting them. The default implementation conservatively
+     * assumes that any element may match.
+     *
+     * @return the {@link Shape} of the template.
+     * @since 3.1.0
+     */
+    @ApiStatus.Internal
+    default Shape shape() {
+        return Shape.ANY;
+    }
+
+    /**
+     * Returns a {@link Template} equivalent to the current one, with as few indirections as possible.
+     * <br><br>
+     * Walks the whole template graph, fusing adjacent {@link #map(Mapper, Mapper)}, {@link #refine(Predicate, Supplier)}
+     * and {@link #describe(UnaryOperator)} wrappers into single nodes, and replacing {@link #lazy(Supplier) lazy} templates
+     * with the templates they resolve to. Recursive templates remain recursive, routing every cycle through a single lazy reference.
+     * <br><br>
+     * Since lazy templates get resolved, the optimization should only be performed once every template
+     * the current one refers to has been constructed, ideally right when defining the {@code static final} constant.
+     * <pre>{@code
+     *      static final Template<Person> TEMPLATE = Template.record(...)
+     *              .optimize();
+     * }</pre>
+     *
+     * @return an optimized {@link Template}, equivalent to the current one.
+     * @since 3.1.0
+     */
+    @Contract(pure = true)
+    default @NotNull Template<T> optimize() {
+        return new TemplateOptimizer().optimize(this);
+    }
+
+    /**
+     * Returns an optimized version of the current template, optimizing every template it refers to
+     * through the provided {@link TemplateOptimizer}.
+     * <br><br>
+     * The default implementation returns the template as-is, which is appropriate for leaves.
+     *
+     * @param optimizer the optimizer to optimize the referred templates with.
+     * @return an optimized {@link Template}, equivalent to the current one.
+     * @since 3.1.0
+     */
+    @ApiStatus.Internal
+    default Template<T> optimize(TemplateOptimizer optimizer) {
+        return this;
+    }
+
+    /**
+     * Describes which parts of a JSON element the template could possibly read, deriving the projections
+     * of every template it refers to through the provided {@link TemplateProjector}.
+     * <br><br>
+     * The default implementation relies on the {@link #shape()} of the template, assuming that templates that may match
+     * an object or an array read all of it, while templates that only match primitives don't read into containers at all.
+     *
+     * @param projector the projector to derive the projections of the referred templates with.
+     * @return the {@link Projection} of the template.
+     * @since 3.1.0
+     */
+    @ApiStatus.Internal
+    default Projection projection(TemplateProjector projector) {
+        var shape = this.shape();
+        if (shape.accepts(JsonKind.OBJECT) || shape.accepts(JsonKind.ARRAY))
+            return Projection.all();
+        return Projection.none();
+    }
+
+    /**
+     * Compiles the template into a dedicated class, with parsing and serialization logic specialized for the template graph.
+     * <br><br>
+     * The template gets {@link #optimize() optimized} first. Records, arrays, maps, unions, optionals, as well as chains of
+     * {@link #map(Mapper, Mapper)}, {@link #refine(Predicate, Supplier)} and {@link #describe(UnaryOperator)} are then compiled
+     * into straight-line code, which invokes the provided functions directly. All other templates are invoked as-is.
+     * <br><br>
+     * Compilation is comparatively expensive, and should thus only be performed on templates that are used repeatedly,
+     * once they, and every template they refer to, have been constructed.
+     * <pre>{@code
+     *      static final Template<Person> TEMPLATE = Template.record(...)
+     *              .compile();
+     * }</pre>
+     *
+     * @return a compiled {@link Template}, equivalent to the current one.
+     * @since 3.1.0
+     */
+    @Contract(pure = true)
+    default @NotNull Template<T> compile() {
+        return TemplateCompiler.compile(this);
+    }
+
     /**
      * Composes a {@link Template} that yields an array using the current template for every element in the array.
      * <br><br>
@@ -454,6 +701,36 @@ public interface Template<T> {
         return new ArrayTemplate<>(this, factory);
     }
 
+    /**
+     * Composes a {@link Template} equivalent to the one returned by {@link #array(IntFunction)}, which binds the elements
+     * of arrays of at least {@value ParallelBinder#DEFAULT_THRESHOLD} elements in parallel.
+     *
+     * @param factory the factory needed to create the resulting array with.
+     * @return a {@link Template} representing an array equivalent of the template.
+     * @see #parallelArray(IntFunction, int)
+     * @since 3.1.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    default @NotNull Template<T[]> parallelArray(IntFunction<T[]> factory) {
+        return this.parallelArray(factory, ParallelBinder.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Composes a {@link Template} equivalent to the one returned by {@link #array(IntFunction)}, which binds the elements
+     * of arrays of at least {@code threshold} elements in parallel.
+     *
+     * @param factory   the factory needed to create the resulting array with.
+     * @param threshold the number of elements at or above which the elements get bound in parallel.
+     * @return a {@link Template} representing an array equivalent of the template.
+     * @throws IllegalArgumentException if the {@code threshold} isn't positive.
+     * @see ArrayTemplate#parallel(int)
+     * @since 3.1.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    default @NotNull Template<T[]> parallelArray(IntFunction<T[]> factory, int threshold) {
+        return new ArrayTemplate<>(this, factory).parallel(threshold);
+    }
+
     /**
      * Composes a {@link Template} that accesses the provided {@code name} property on a {@link com.manchickas.john.ast.JsonObject}
      * using the current template, and serializes the property by first accessing it with the provided {@link PropertyAccessor}, and then delegating
@@ -508,38 +785,13 @@ public interface Template<T> {
      * @return a {@link Template} that transforms the current template's value.
      * @since 1.0.0
      */
+    @SuppressWarnings("unchecked")
     default <V> Template<V> map(Mapper<T, V> mapper,
                                 Mapper<V, T> remapper) {
-        return new Template<>() {
-
-            @Override
-            @SuppressWarnings("unchecked")
-            public Result<V> parse(JsonElement element) {
-                var result = Template.this.parse(element);
-                if (result.isSuccess())
-                    return mapper.mapAndWrap(result.unwrap(), element::span);
-                return (Result<V>) (result);
-            }
-
-            @Override
-            @SuppressWarnings("unchecked")
-            public Result<JsonElement> serialize(V value) {
-                var result = remapper.mapAndWrap(value, () -> SourceSpan.lineWide(value.toString(), 1));
-                if (result.isSuccess())
-                    return Template.this.serialize(result.unwrap());
-                return (Result<JsonElement>) (result);
-            }
-
-            @Override
-            public String name(IntSet encountered) {
-                return Template.this.name(encountered);
-            }
-
-            @Override
-            public int hashCode() {
-                return Template.this.hashCode();
-            }
-        };
+        return new ChainTemplate<>(this, new ChainTemplate.Step.Map(
+                (Mapper<Object, Object>) (Mapper<?, ?>) mapper,
+                (Mapper<Object, Object>) (Mapper<?, ?>) remapper
+        ));
     }
 
     /**
@@ -554,42 +806,9 @@ public interface Template<T> {
      * @return a {@link Template} that yields the current template's value, if it satisfies the given predicate; otherwise, errors with the supplied error message.
      * @since 1.0.0
      */
+    @SuppressWarnings("unchecked")
     default Template<T> refine(Predicate<T> predicate, Supplier<String> message) {
-        return new Template<>() {
-
-            @Override
-            public Result<T> parse(JsonElement element) {
-                return Template.this.parse(element)
-                        .flatMap(value -> {
-                            if (predicate.test(value))
-                                return Result.success(value);
-                            return Result.error(
-                                    message.get(),
-                                    element.span()
-                            );
-                        });
-            }
-
-            @Override
-            public Result<JsonElement> serialize(T value) {
-                if (predicate.test(value))
-                    return Template.this.serialize(value);
-                return Result.error(
-                        message.get(),
-                        SourceSpan.lineWide(value.toString(), 1)
-                );
-            }
-
-            @Override
-            public String name(IntSet encountered) {
-                return Template.this.name(encountered);
-            }
-
-            @Override
-            public int hashCode() {
-                return Template.this.hashCode();
-            }
-        };
+        return new ChainTemplate<>(this, new ChainTemplate.Step.Refine((Predicate<Object>) predicate, message));
     }
 
     /**
@@ -601,23 +820,7 @@ public interface Template<T> {
      * @since 2.1.0
      */
     default Template<T> describe(UnaryOperator<String> name) {
-        return new Template<>() {
-
-            @Override
-            public Result<T> parse(JsonElement element) {
-                return Template.this.parse(element);
-            }
-
-            @Override
-            public Result<JsonElement> serialize(@Nullable T value) {
-                return Template.this.serialize(value);
-            }
-
-            @Override
-            public String name(IntSet encountered) {
-                return name.apply(Template.this.name(encountered));
-            }
-        };
+        return new ChainTemplate<>(this, new ChainTemplate.Step.Describe(name));
     }
 
     /**
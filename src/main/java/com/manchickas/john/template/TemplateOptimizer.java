@@ -0,0 +1,55 @@
+package com.manchickas.john.template;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Map;
+
+/**
+ * Walks a graph of {@link Template}s, optimizing every template exactly once.
+ * <br><br>
+ * Templates are tracked by identity, so that templates shared across the graph remain shared after the optimization.
+ * Once the optimizer reaches a template that's still being optimized, meaning the graph is recursive, a forward
+ * {@link LazyTemplate} is returned instead, and gets resolved to the optimized template as soon as it's available.
+ *
+ * @see Template#optimize()
+ * @since 3.1.0
+ */
+@ApiStatus.Internal
+public final class TemplateOptimizer {
+
+    private final Map<Template<?>, Template<?>> optimized;
+    /**
+     * The templates currently being optimized, mapped to their forward reference, if one was requested.
+     */
+    private final Map<Template<?>, LazyTemplate<?>> pending;
+
+    public TemplateOptimizer() {
+        this.optimized = new Reference2ObjectOpenHashMap<>();
+        this.pending = new Reference2ObjectOpenHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Template<T> optimize(Template<T> template) {
+        var optimized = (Template<T>) this.optimized.get(template);
+        if (optimized != null)
+            return optimized;
+        if (this.pending.containsKey(template)) {
+            var forward = (LazyTemplate<T>) this.pending.get(template);
+            if (forward == null) {
+                forward = new LazyTemplate<>(() -> {
+                    throw new IllegalStateException("Attempted to use a template while it was being optimized.");
+                });
+                this.pending.put(template, forward);
+            }
+            return forward;
+        }
+        this.pending.put(template, null);
+        var result = template.optimize(this);
+        var forward = (LazyTemplate<T>) this.pending.remove(template);
+        if (forward != null)
+            forward.resolve(result);
+        this.optimized.put(template, result);
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package com.manchickas.john.template;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.manchickas.john.parser.Projection;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Map;
+
+/**
+ * Walks a graph of {@link Template}s, deriving the {@link Projection} of every template exactly once.
+ * <br><br>
+ * The projection of a template describes the parts of a JSON structure the template could possibly read,
+ * allowing the {@link com.manchickas.john.parser.ProjectionParser ProjectionParser} to skip over the rest.
+ * Once the projector reaches a template whose projection is still being derived, meaning the graph is recursive,
+ * a {@link Projection#deferred() deferred} projection is returned instead, and gets resolved as soon as the projection is available.
+ *
+ * @see Template#projection(TemplateProjector)
+ * @since 3.1.0
+ */
+@ApiStatus.Internal
+public final class TemplateProjector {
+
+    private static final Cache<Template<?>, Projection> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final Map<Template<?>, Projection> projected;
+    /**
+     * The templates whose projection is currently being derived, mapped to their deferred projection, if one was requested.
+     */
+    private final Map<Template<?>, Projection> pending;
+
+    public TemplateProjector() {
+        this.projected = new Reference2ObjectOpenHashMap<>();
+        this.pending = new Reference2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Returns the {@link Projection} of the provided template, deriving it only once per template instance.
+     */
+    public static Projection of(Template<?> template) {
+        var projection = CACHE.getIfPresent(template);
+        if (projection == null) {
+            projection = new TemplateProjector().project(template);
+            CACHE.put(template, projection);
+        }
+        return projection;
+    }
+
+    public Projection project(Template<?> template) {
+        var projected = this.projected.get(template);
+        if (projected != null)
+            return projected;
+        if (this.pending.containsKey(template)) {
+            var deferred = this.pending.get(template);
+            if (deferred == null) {
+                deferred = Projection.deferred();
+                this.pending.put(template, deferred);
+            }
+            return deferred;
+        }
+        this.pending.put(template, null);
+        var result = template.projection(this);
+        var deferred = this.pending.remove(template);
+        if (deferred != null) {
+            deferred.resolve(result);
+            result = deferred;
+        }
+        this.projected.put(template, result);
+        return result;
+    }
+}
@@ -2,11 +2,18 @@ package com.manchickas.john.template.array;
 
 import com.manchickas.john.ast.JsonArray;
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.parser.Projection;
+import com.manchickas.john.template.ParallelBinder;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
+import com.manchickas.john.template.TemplateProjector;
 import com.manchickas.john.util.ArrayBuilder;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.function.IntFunction;
 
@@ -14,10 +21,50 @@ public final class ArrayTemplate<T> implements Template<T[]> {
 
     private final Template<T> template;
     private final IntFunction<T[]> factory;
+    /**
+     * The number of elements at or above which the elements get bound in parallel.
+     */
+    private final int threshold;
 
     public ArrayTemplate(Template<T> template, IntFunction<T[]> factory) {
+        this(template, factory, Integer.MAX_VALUE);
+    }
+
+    private ArrayTemplate(Template<T> template, IntFunction<T[]> factory, int threshold) {
         this.template = template;
         this.factory = factory;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Composes a {@link Template} equivalent to the current one, which binds the elements of arrays of at least
+     * {@value ParallelBinder#DEFAULT_THRESHOLD} elements in parallel.
+     *
+     * @return a {@link Template} binding large arrays in parallel.
+     * @see #parallel(int)
+     * @since 3.1.0
+     */
+    public ArrayTemplate<T> parallel() {
+        return this.parallel(ParallelBinder.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Composes a {@link Template} equivalent to the current one, which binds the elements of arrays of at least
+     * {@code threshold} elements in parallel, across the threads of a {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+     * <br><br>
+     * Parallel binding only pays off for large arrays, or elements that are expensive to bind, such as nested records.
+     * The element template gets invoked from multiple threads at once, and must thus be free of side effects,
+     * like any template meant to be shared. Should several elements fail to bind, the error of the first one is reported.
+     *
+     * @param threshold the number of elements at or above which the elements get bound in parallel.
+     * @return a {@link Template} binding large arrays in parallel.
+     * @throws IllegalArgumentException if the {@code threshold} isn't positive.
+     * @since 3.1.0
+     */
+    public ArrayTemplate<T> parallel(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Expected a positive threshold, got %d.".formatted(threshold));
+        return new ArrayTemplate<>(this.template, this.factory, threshold);
     }
 
     @Override
@@ -25,6 +72,8 @@ public final class ArrayTemplate<T> implements Template<T[]> {
     public Result<T[]> parse(JsonElement element) {
         if (element instanceof JsonArray array) {
             var length = array.length();
+            if (length >= this.threshold)
+                return this.parseParallel(array, length);
             var builder = ArrayBuilder.<T>builderWithExpectedSize(length);
             for (var i = 0; i < length; i++) {
                 try {
@@ -44,6 +93,24 @@ public final class ArrayTemplate<T> implements Template<T[]> {
         return Result.mismatch();
     }
 
+    @SuppressWarnings("unchecked")
+    private Result<T[]> parseParallel(JsonArray array, int length) {
+        var values = this.factory.apply(length);
+        var failure = ParallelBinder.bind(length, i -> {
+            try {
+                var result = this.template.parseAndPromote(array.subscript(i));
+                if (result.isSuccess())
+                    values[i] = result.unwrap();
+                return result;
+            } catch (JsonException e) {
+                throw new AssertionError("Unreachable");
+            }
+        });
+        if (failure != null)
+            return (Result<T[]>) failure;
+        return Result.success(values);
+    }
+
     @Override
     public Result<JsonElement> serialize(T[] value) {
         if (value != null) {
@@ -65,4 +132,37 @@ public final class ArrayTemplate<T> implements Template<T[]> {
     public String name(IntSet encountered) {
         return this.template.name(encountered) + "[]";
     }
+
+    @Override
+    public Shape shape() {
+        return Shape.of(JsonKind.ARRAY);
+    }
+
+    @Override
+    public Template<T[]> optimize(TemplateOptimizer optimizer) {
+        var template = optimizer.optimize(this.template);
+        if (template == this.template)
+            return this;
+        return new ArrayTemplate<>(template, this.factory, this.threshold);
+    }
+
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        return Projection.array(projector.project(this.template));
+    }
+
+    @ApiStatus.Internal
+    public Template<T> template() {
+        return this.template;
+    }
+
+    @ApiStatus.Internal
+    public IntFunction<T[]> factory() {
+        return this.factory;
+    }
+
+    @ApiStatus.Internal
+    public boolean isParallel() {
+        return this.threshold != Integer.MAX_VALUE;
+    }
 }
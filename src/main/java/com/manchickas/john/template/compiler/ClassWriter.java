@@ -0,0 +1,101 @@
+package com.manchickas.john.template.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assembles a class file out of fields and methods.
+ * <br><br>
+ * The class file targets version {@code 49}, the last one verified by type inference. That spares the writer
+ * from computing stack map frames, at the cost of not being able to invoke static interface methods.
+ */
+final class ClassWriter {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int VERSION = 49;
+
+    private final ConstantPool pool;
+    private final String name;
+    private final String superName;
+    private final List<Member> fields;
+    private final List<Member> methods;
+
+    ClassWriter(String name, String superName) {
+        this.pool = new ConstantPool();
+        this.name = name;
+        this.superName = superName;
+        this.fields = new ArrayList<>();
+        this.methods = new ArrayList<>();
+    }
+
+    void field(int access, String name, String descriptor) {
+        this.fields.add(new Member(access, name, descriptor, null));
+    }
+
+    /**
+     * Creates a new method, whose body is emitted through the returned {@link CodeWriter}.
+     *
+     * @param parameters the number of local slots taken by the receiver and the parameters.
+     */
+    CodeWriter method(int access, String name, String descriptor, int parameters) {
+        var code = new CodeWriter(this.pool, parameters);
+        this.methods.add(new Member(access, name, descriptor, code));
+        return code;
+    }
+
+    String name() {
+        return this.name;
+    }
+
+    byte[] toByteArray() {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            var thisClass = this.pool.type(this.name);
+            var superClass = this.pool.type(this.superName);
+            var codeName = this.pool.utf8("Code");
+            var members = new ByteArrayOutputStream();
+            var body = new DataOutputStream(members);
+            this.writeMembers(body, this.fields, codeName);
+            this.writeMembers(body, this.methods, codeName);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            this.pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            members.writeTo(out);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeMembers(DataOutputStream out, List<Member> members, int codeName) throws IOException {
+        out.writeShort(members.size());
+        for (var member : members) {
+            out.writeShort(member.access());
+            out.writeShort(this.pool.utf8(member.name()));
+            out.writeShort(this.pool.utf8(member.descriptor()));
+            if (member.code() != null) {
+                out.writeShort(1);
+                member.code().writeTo(out, codeName);
+                continue;
+            }
+            out.writeShort(0);
+        }
+    }
+
+    private record Member(int access, String name, String descriptor, CodeWriter code) {
+    }
+}
@@ -0,0 +1,310 @@
+package com.manchickas.john.template.compiler;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Emits the bytecode of a single method, tracking the depth of the operand stack and the number of locals.
+ * <br><br>
+ * Branch targets are represented by {@link Label}s, which may be referred to before they're bound,
+ * and get patched once their position is known.
+ */
+final class CodeWriter {
+
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9A;
+    static final int IF_ICMPGE = 0xA2;
+    static final int IFNULL = 0xC6;
+    static final int IFNONNULL = 0xC7;
+
+    private final ConstantPool pool;
+    private final IntArrayList handlers;
+    private byte[] code;
+    private int length;
+    private int stack;
+    private int maxStack;
+    private int locals;
+
+    CodeWriter(ConstantPool pool, int parameters) {
+        this.pool = pool;
+        this.handlers = new IntArrayList();
+        this.code = new byte[64];
+        this.locals = parameters;
+    }
+
+    int newLocal() {
+        return this.locals++;
+    }
+
+    Label newLabel() {
+        return new Label();
+    }
+
+    void bind(Label label) {
+        label.position = this.length;
+        for (var i = 0; i < label.fixups.size(); i++) {
+            var fixup = label.fixups.getInt(i);
+            var offset = this.length - fixup;
+            this.set(fixup + 1, offset >> 8);
+            this.set(fixup + 2, offset);
+        }
+        if (label.stack >= 0)
+            this.stack = label.stack;
+    }
+
+    /**
+     * Binds the provided exception {@code handler}, which starts with the caught exception on the stack.
+     */
+    void bindHandler(Label handler) {
+        handler.stack = 1;
+        this.bind(handler);
+    }
+
+    /**
+     * Registers the {@code handler} for exceptions of the provided {@code type} thrown between {@code start} and {@code end}.
+     * All three labels have to be bound beforehand.
+     */
+    void catching(Label start, Label end, Label handler, String type) {
+        this.handlers.add(start.position);
+        this.handlers.add(end.position);
+        this.handlers.add(handler.position);
+        this.handlers.add(this.pool.type(type));
+    }
+
+    void aload(int local) {
+        this.local(0x19, local, 1);
+    }
+
+    void astore(int local) {
+        this.local(0x3A, local, -1);
+    }
+
+    void iload(int local) {
+        this.local(0x15, local, 1);
+    }
+
+    void istore(int local) {
+        this.local(0x36, local, -1);
+    }
+
+    void iinc(int local, int delta) {
+        this.put(0x84);
+        this.put(local);
+        this.put(delta);
+    }
+
+    void iconst(int value) {
+        if (value >= -1 && value <= 5) {
+            this.op(0x03 + value, 1);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            this.op(0x10, 1);
+            this.put(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            this.op(0x11, 1);
+            this.putShort(value);
+        } else {
+            this.ldc(this.pool.integer(value));
+        }
+    }
+
+    void ldc(String value) {
+        this.ldc(this.pool.string(value));
+    }
+
+    private void ldc(int index) {
+        if (index <= 0xFF) {
+            this.op(0x12, 1);
+            this.put(index);
+        } else {
+            this.op(0x13, 1);
+            this.putShort(index);
+        }
+    }
+
+    void dup() {
+        this.op(0x59, 1);
+    }
+
+    void pop() {
+        this.op(0x57, -1);
+    }
+
+    void aaload() {
+        this.op(0x32, -1);
+    }
+
+    void aastore() {
+        this.op(0x53, -3);
+    }
+
+    void arrayLength() {
+        this.op(0xBE, 0);
+    }
+
+    void areturn() {
+        this.op(0xB0, -1);
+    }
+
+    void vreturn() {
+        this.op(0xB1, 0);
+    }
+
+    void anew(String type) {
+        this.op(0xBB, 1);
+        this.putShort(this.pool.type(type));
+    }
+
+    void anewArray(String type) {
+        this.op(0xBD, 0);
+        this.putShort(this.pool.type(type));
+    }
+
+    void checkcast(String type) {
+        this.op(0xC0, 0);
+        this.putShort(this.pool.type(type));
+    }
+
+    void instanceOf(String type) {
+        this.op(0xC1, 0);
+        this.putShort(this.pool.type(type));
+    }
+
+    void getField(String owner, String name, String descriptor) {
+        this.op(0xB4, 0);
+        this.putShort(this.pool.field(owner, name, descriptor));
+    }
+
+    void putField(String owner, String name, String descriptor) {
+        this.op(0xB5, -2);
+        this.putShort(this.pool.field(owner, name, descriptor));
+    }
+
+    void invokeVirtual(String owner, String name, String descriptor) {
+        this.invoke(0xB6, owner, name, descriptor, false, true);
+    }
+
+    void invokeSpecial(String owner, String name, String descriptor) {
+        this.invoke(0xB7, owner, name, descriptor, false, true);
+    }
+
+    void invokeStatic(String owner, String name, String descriptor) {
+        this.invoke(0xB8, owner, name, descriptor, false, false);
+    }
+
+    void invokeInterface(String owner, String name, String descriptor) {
+        this.invoke(0xB9, owner, name, descriptor, true, true);
+        this.put(CodeWriter.slots(descriptor) + 1);
+        this.put(0);
+    }
+
+    private void invoke(int opcode, String owner, String name, String descriptor, boolean isInterface, boolean receiver) {
+        var index = this.pool.method(owner, name, descriptor, isInterface);
+        var delta = -CodeWriter.slots(descriptor) - (receiver ? 1 : 0);
+        var ret = descriptor.charAt(descriptor.indexOf(')') + 1);
+        if (ret != 'V')
+            delta += ret == 'J' || ret == 'D' ? 2 : 1;
+        this.op(opcode, delta);
+        this.putShort(index);
+    }
+
+    void jump(int opcode, Label target) {
+        this.op(opcode, opcode == IF_ICMPGE ? -2 : -1);
+        this.branch(target);
+    }
+
+    void jump(Label target) {
+        this.op(0xA7, 0);
+        this.branch(target);
+    }
+
+    private void branch(Label target) {
+        var position = this.length - 1;
+        if (target.stack < 0)
+            target.stack = this.stack;
+        if (target.position >= 0) {
+            this.putShort(target.position - position);
+            return;
+        }
+        target.fixups.add(position);
+        this.putShort(0);
+    }
+
+    private void local(int opcode, int local, int delta) {
+        this.op(opcode, delta);
+        this.put(local);
+        this.locals = Math.max(this.locals, local + 1);
+    }
+
+    private void op(int opcode, int delta) {
+        this.put(opcode);
+        this.stack += delta;
+        this.maxStack = Math.max(this.maxStack, this.stack);
+    }
+
+    private void putShort(int value) {
+        this.put(value >> 8);
+        this.put(value);
+    }
+
+    private void put(int value) {
+        if (this.length == this.code.length)
+            this.code = Arrays.copyOf(this.code, this.length * 2);
+        this.code[this.length++] = (byte) value;
+    }
+
+    private void set(int position, int value) {
+        this.code[position] = (byte) value;
+    }
+
+    /**
+     * Writes the {@code Code} attribute of the method.
+     */
+    void writeTo(DataOutputStream out, int attributeName) throws IOException {
+        if (this.length > 0x7FFF)
+            throw new IllegalStateException("Exceeded the maximum size of a compiled method.");
+        var handlers = this.handlers.size() / 4;
+        out.writeShort(attributeName);
+        out.writeInt(12 + this.length + handlers * 8);
+        out.writeShort(this.maxStack);
+        out.writeShort(this.locals);
+        out.writeInt(this.length);
+        out.write(this.code, 0, this.length);
+        out.writeShort(handlers);
+        for (var i = 0; i < this.handlers.size(); i++)
+            out.writeShort(this.handlers.getInt(i));
+        out.writeShort(0);
+    }
+
+    /**
+     * Counts the number of stack slots taken by the parameters of the provided method {@code descriptor}.
+     */
+    private static int slots(String descriptor) {
+        var slots = 0;
+        var i = 1;
+        while (descriptor.charAt(i) != ')') {
+            var c = descriptor.charAt(i);
+            if (c == 'J' || c == 'D') {
+                slots += 2;
+                i++;
+                continue;
+            }
+            while (c == '[')
+                c = descriptor.charAt(++i);
+            if (c == 'L')
+                i = descriptor.indexOf(';', i);
+            slots++;
+            i++;
+        }
+        return slots;
+    }
+
+    static final class Label {
+
+        private final IntArrayList fixups = new IntArrayList();
+        private int position = -1;
+        private int stack = -1;
+    }
+}
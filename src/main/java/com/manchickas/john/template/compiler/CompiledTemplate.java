@@ -0,0 +1,100 @@
+package com.manchickas.john.template.compiler;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.parser.Projection;
+import com.manchickas.john.position.SourceSpan;
+import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
+import com.manchickas.john.template.TemplateProjector;
+import com.manchickas.john.util.Mapper;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * The superclass of all the classes generated by the {@link TemplateCompiler}.
+ * <br><br>
+ * Describes itself through the template it was compiled from, and provides the helpers the generated code relies on.
+ * The helpers are declared here, rather than invoked on {@link Result} directly, as the generated classes can't invoke
+ * static interface methods.
+ *
+ * @param <T> the type of the template.
+ * @since 3.1.0
+ */
+@ApiStatus.Internal
+public abstract class CompiledTemplate<T> implements Template<T> {
+
+    private final Template<T> source;
+
+    protected CompiledTemplate(Template<T> source) {
+        this.source = source;
+    }
+
+    protected static Result<?> success(Object value) {
+        return Result.success(value);
+    }
+
+    protected static Result<?> mismatch() {
+        return Result.mismatch();
+    }
+
+    protected static Result<?> error(String message, JsonElement element) {
+        return Result.error(message, element.span());
+    }
+
+    /**
+     * Reports a value that was rejected during serialization.
+     */
+    protected static Result<?> invalid(String message, Object value) {
+        return Result.error(message, SourceSpan.lineWide(value.toString(), 1));
+    }
+
+    /**
+     * Wraps an exception thrown by a mapper while parsing the provided {@code element}.
+     */
+    protected static Result<?> failure(Throwable t, JsonElement element) {
+        return Mapper.wrapFailure(t, element::span);
+    }
+
+    /**
+     * Wraps an exception thrown by a mapper while serializing the provided {@code value}.
+     */
+    protected static Result<?> failure(Throwable t, Object value) {
+        return Mapper.wrapFailure(t, () -> SourceSpan.lineWide(value.toString(), 1));
+    }
+
+    protected static boolean isWhole(Object value) {
+        return ((Number) value).doubleValue() % 1 == 0;
+    }
+
+    @Override
+    public String name(IntSet encountered) {
+        return this.source.name(encountered);
+    }
+
+    @Override
+    public Shape shape() {
+        return this.source.shape();
+    }
+
+    @Override
+    public Template<T> optimize(TemplateOptimizer optimizer) {
+        return this;
+    }
+
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        return projector.project(this.source);
+    }
+
+    @Override
+    public Template<T> compile() {
+        return this;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.source.hashCode();
+    }
+}
@@ -0,0 +1,137 @@
+package com.manchickas.john.template.compiler;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Collects the constant pool entries of a class file, deduplicating equal entries.
+ */
+final class ConstantPool {
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD = 9;
+    private static final int METHOD = 10;
+    private static final int INTERFACE_METHOD = 11;
+    private static final int NAME_AND_TYPE = 12;
+
+    private final Object2IntOpenHashMap<String> indices;
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream out;
+    private int count;
+
+    ConstantPool() {
+        this.indices = new Object2IntOpenHashMap<>();
+        this.bytes = new ByteArrayOutputStream();
+        this.out = new DataOutputStream(this.bytes);
+        this.count = 1;
+    }
+
+    int utf8(String value) {
+        var key = "U" + value;
+        var index = this.indices.getOrDefault(key, 0);
+        if (index == 0) {
+            try {
+                this.out.writeByte(UTF8);
+                this.out.writeUTF(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index = this.register(key);
+        }
+        return index;
+    }
+
+    int integer(int value) {
+        var key = "I" + value;
+        var index = this.indices.getOrDefault(key, 0);
+        if (index == 0) {
+            this.write(INTEGER, value >>> 16, value & 0xFFFF);
+            index = this.register(key);
+        }
+        return index;
+    }
+
+    int type(String internalName) {
+        return this.reference(CLASS, "C" + internalName, this.utf8(internalName));
+    }
+
+    int string(String value) {
+        return this.reference(STRING, "S" + value, this.utf8(value));
+    }
+
+    int field(String owner, String name, String descriptor) {
+        return this.member(FIELD, owner, name, descriptor);
+    }
+
+    int method(String owner, String name, String descriptor, boolean isInterface) {
+        return this.member(isInterface ? INTERFACE_METHOD : METHOD, owner, name, descriptor);
+    }
+
+    private int member(int tag, String owner, String name, String descriptor) {
+        var key = tag + owner + '.' + name + descriptor;
+        var index = this.indices.getOrDefault(key, 0);
+        if (index == 0) {
+            var type = this.type(owner);
+            var nameAndType = this.nameAndType(name, descriptor);
+            this.write(tag, type, nameAndType);
+            index = this.register(key);
+        }
+        return index;
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        var key = "N" + name + ':' + descriptor;
+        var index = this.indices.getOrDefault(key, 0);
+        if (index == 0) {
+            var n = this.utf8(name);
+            var d = this.utf8(descriptor);
+            this.write(NAME_AND_TYPE, n, d);
+            index = this.register(key);
+        }
+        return index;
+    }
+
+    private int reference(int tag, String key, int target) {
+        var index = this.indices.getOrDefault(key, 0);
+        if (index == 0) {
+            try {
+                this.out.writeByte(tag);
+                this.out.writeShort(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index = this.register(key);
+        }
+        return index;
+    }
+
+    private void write(int tag, int first, int second) {
+        try {
+            this.out.writeByte(tag);
+            this.out.writeShort(first);
+            this.out.writeShort(second);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int register(String key) {
+        if (this.count > 0xFFFF)
+            throw new IllegalStateException("Exceeded the maximum size of the constant pool.");
+        var index = this.count++;
+        this.indices.put(key, index);
+        return index;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeShort(this.count);
+        this.bytes.writeTo(out);
+    }
+}
@@ -0,0 +1,964 @@
+package com.manchickas.john.template.compiler;
+
+import com.google.common.collect.ImmutableMap;
+import com.manchickas.john.ast.JsonArray;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.ast.primitive.JsonBoolean;
+import com.manchickas.john.ast.primitive.JsonNull;
+import com.manchickas.john.ast.primitive.JsonNumber;
+import com.manchickas.john.ast.primitive.JsonString;
+import com.manchickas.john.template.ChainTemplate;
+import com.manchickas.john.template.LazyTemplate;
+import com.manchickas.john.template.OptionalTemplate;
+import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.array.ArrayTemplate;
+import com.manchickas.john.template.number.type.WholeTemplate;
+import com.manchickas.john.template.object.MapTemplate;
+import com.manchickas.john.template.object.RecordTemplate;
+import com.manchickas.john.template.object.constructor.*;
+import com.manchickas.john.template.object.property.PropertyTemplate;
+import com.manchickas.john.template.union.UnionTemplate;
+import com.manchickas.john.util.Mapper;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Compiles a graph of {@link Template}s into a dedicated hidden class with straight-line parsing and serialization code.
+ * <br><br>
+ * Every compiled template is given a pair of private methods, which invoke each other directly, rather than through
+ * {@link Template#parse(JsonElement)} and {@link Template#serialize(Object)}. Records, arrays, maps, unions, optionals,
+ * chains and the primitive templates get compiled, whereas every other template is invoked as-is. User-provided functions,
+ * such as mappers, predicates and constructors, are invoked directly from the generated code.
+ * <br><br>
+ * Errors are reported by re-running the affected part of the graph through the original templates,
+ * which guarantees the compiled template to report exactly the same errors as the one it was compiled from.
+ *
+ * @see Template#compile()
+ * @since 3.1.0
+ */
+@ApiStatus.Internal
+public final class TemplateCompiler {
+
+    private static final String NAME = "com/manchickas/john/template/compiler/Compiled";
+    private static final String SUPER = TemplateCompiler.internal(CompiledTemplate.class);
+    private static final String TEMPLATE = TemplateCompiler.internal(Template.class);
+    private static final String RESULT = TemplateCompiler.internal(Result.class);
+    private static final String OBJECT = TemplateCompiler.internal(Object.class);
+    private static final String STRING = TemplateCompiler.internal(String.class);
+    private static final String JSON_OBJECT = TemplateCompiler.internal(JsonObject.class);
+    private static final String JSON_ARRAY = TemplateCompiler.internal(JsonArray.class);
+    private static final String JSON_ELEMENT = TemplateCompiler.internal(JsonElement.class);
+    private static final String PROPERTY = TemplateCompiler.internal(PropertyTemplate.class);
+    private static final String BUILDER = TemplateCompiler.internal(ImmutableMap.Builder.class);
+
+    private static final String PARSE = TemplateCompiler.descriptor(Result.class, JsonElement.class);
+    private static final String SERIALIZE = TemplateCompiler.descriptor(Result.class, Object.class);
+    private static final String WRAP = TemplateCompiler.descriptor(Result.class, Object.class);
+    private static final String IS_SUCCESS = TemplateCompiler.descriptor(boolean.class);
+    private static final String UNWRAP = TemplateCompiler.descriptor(Object.class);
+
+    /**
+     * The constructor interfaces of records, indexed by the number of their properties, minus one.
+     */
+    private static final Class<?>[] CONSTRUCTORS = {
+            UniConstructor.class, BiConstructor.class, TriConstructor.class, TetraConstructor.class,
+            PentaConstructor.class, HexaConstructor.class, HeptaConstructor.class, OctaConstructor.class
+    };
+    private static final Map<JsonKind, String> KINDS = new EnumMap<>(Map.of(
+            JsonKind.OBJECT, JSON_OBJECT,
+            JsonKind.ARRAY, JSON_ARRAY,
+            JsonKind.STRING, TemplateCompiler.internal(JsonString.class),
+            JsonKind.NUMBER, TemplateCompiler.internal(JsonNumber.class),
+            JsonKind.BOOLEAN, TemplateCompiler.internal(JsonBoolean.class),
+            JsonKind.NULL, TemplateCompiler.internal(JsonNull.class)
+    ));
+
+    private final ClassWriter writer;
+    private final Reference2IntOpenHashMap<Template<?>> nodes;
+    private final ArrayDeque<Template<?>> pending;
+    private final List<Constant> constants;
+
+    private TemplateCompiler() {
+        this.writer = new ClassWriter(NAME, SUPER);
+        this.nodes = new Reference2IntOpenHashMap<>();
+        this.nodes.defaultReturnValue(-1);
+        this.pending = new ArrayDeque<>();
+        this.constants = new ArrayList<>();
+    }
+
+    /**
+     * Compiles the provided {@code template}, having {@link Template#optimize() optimized} it first.
+     * <br><br>
+     * If none of the template can be compiled, the optimized template is returned instead.
+     *
+     * @param template the template to compile.
+     * @param <T>      the type of the template.
+     * @return a compiled {@link Template}, equivalent to the provided one.
+     * @throws IllegalStateException if the generated class couldn't be defined.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Template<T> compile(Template<T> template) {
+        var optimized = template.optimize();
+        var root = TemplateCompiler.resolve(optimized);
+        if (!TemplateCompiler.isCompilable(root))
+            return optimized;
+        var compiler = new TemplateCompiler();
+        var node = compiler.node(root);
+        while (!compiler.pending.isEmpty())
+            compiler.emit(compiler.pending.poll());
+        compiler.emitEntryPoints(node);
+        compiler.emitConstructor();
+        var values = new Object[compiler.constants.size()];
+        for (var i = 0; i < values.length; i++)
+            values[i] = compiler.constants.get(i).value();
+        try {
+            var lookup = MethodHandles.lookup()
+                    .defineHiddenClass(compiler.writer.toByteArray(), true);
+            var constructor = lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class, Template.class, Object[].class));
+            return (Template<T>) constructor.invoke(optimized, values);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to define the compiled template.", t);
+        }
+    }
+
+    private static Template<?> resolve(Template<?> template) {
+        while (template instanceof LazyTemplate<?> lazy)
+            template = lazy.get();
+        return template;
+    }
+
+    private static boolean isCompilable(Template<?> template) {
+        if (template == Template.STRING || template == Template.NUMBER || template == Template.BOOLEAN)
+            return true;
+        if (template instanceof RecordTemplate<?> record) {
+            var size = record.properties().size();
+            return size > 0 && size <= CONSTRUCTORS.length
+                    && CONSTRUCTORS[size - 1].isInstance(record.constructor());
+        }
+        // Parallel collections fork out of the generated code, and are thus invoked as they are
+        if (template instanceof ArrayTemplate<?> array)
+            return !array.isParallel();
+        if (template instanceof MapTemplate<?> map)
+            return !map.isParallel();
+        return template instanceof UnionTemplate<?>
+                || template instanceof OptionalTemplate<?>
+                || template instanceof ChainTemplate<?, ?>;
+    }
+
+    /**
+     * Returns the index of the methods generated for the provided {@code template}, scheduling them to be emitted if necessary.
+     */
+    private int node(Template<?> template) {
+        template = TemplateCompiler.resolve(template);
+        var node = this.nodes.getInt(template);
+        if (node < 0) {
+            node = this.nodes.size();
+            this.nodes.put(template, node);
+            this.pending.add(template);
+        }
+        return node;
+    }
+
+    private void emit(Template<?> template) {
+        var node = this.nodes.getInt(template);
+        var parse = this.writer.method(ClassWriter.ACC_PRIVATE, "p" + node, PARSE, 2);
+        var serialize = this.writer.method(ClassWriter.ACC_PRIVATE, "s" + node, SERIALIZE, 2);
+        if (!TemplateCompiler.isCompilable(template)) {
+            this.emitFallback(parse, serialize, template);
+            return;
+        }
+        switch (template) {
+            case RecordTemplate<?> record -> {
+                this.emitRecordParse(parse, record);
+                this.emitRecordSerialize(serialize, record);
+            }
+            case ArrayTemplate<?> array -> {
+                this.emitArrayParse(parse, array);
+                this.emitArraySerialize(serialize, array);
+            }
+            case MapTemplate<?> map -> {
+                this.emitMapParse(parse, map);
+                this.emitMapSerialize(serialize, map);
+            }
+            case UnionTemplate<?> union -> {
+                this.emitUnionParse(parse, union);
+                this.emitUnionSerialize(serialize, union);
+            }
+            case OptionalTemplate<?> optional -> {
+                this.emitOptionalParse(parse, optional);
+                this.emitOptionalSerialize(serialize, optional);
+            }
+            case ChainTemplate<?, ?> chain -> {
+                this.emitChainParse(parse, chain);
+                this.emitChainSerialize(serialize, chain);
+            }
+            default -> this.emitPrimitive(parse, serialize, template);
+        }
+    }
+
+    private void emitFallback(CodeWriter parse, CodeWriter serialize, Template<?> template) {
+        var constant = this.constant(template, Template.class);
+        this.load(parse, constant);
+        parse.aload(1);
+        parse.invokeInterface(TEMPLATE, "parse", PARSE);
+        parse.areturn();
+        this.load(serialize, constant);
+        serialize.aload(1);
+        serialize.invokeInterface(TEMPLATE, "serialize", SERIALIZE);
+        serialize.areturn();
+    }
+
+    private void emitPrimitive(CodeWriter parse, CodeWriter serialize, Template<?> template) {
+        Class<?> element, value;
+        if (template == Template.STRING) {
+            element = JsonString.class;
+            value = String.class;
+        } else if (template == Template.NUMBER) {
+            element = JsonNumber.class;
+            value = Number.class;
+        } else {
+            element = JsonBoolean.class;
+            value = Boolean.class;
+        }
+        var type = TemplateCompiler.internal(element);
+        var mismatch = parse.newLabel();
+        parse.aload(1);
+        parse.instanceOf(type);
+        parse.jump(CodeWriter.IFEQ, mismatch);
+        parse.aload(1);
+        parse.checkcast(type);
+        parse.invokeVirtual(type, "value", TemplateCompiler.descriptor(value));
+        this.success(parse);
+        parse.areturn();
+        parse.bind(mismatch);
+        this.mismatch(parse);
+        parse.areturn();
+        serialize.anew(type);
+        serialize.dup();
+        serialize.aload(1);
+        serialize.checkcast(TemplateCompiler.internal(value));
+        if (value == Boolean.class) {
+            serialize.invokeVirtual(TemplateCompiler.internal(Boolean.class), "booleanValue", TemplateCompiler.descriptor(boolean.class));
+            serialize.invokeSpecial(type, "<init>", TemplateCompiler.descriptor(void.class, boolean.class));
+        } else {
+            serialize.invokeSpecial(type, "<init>", TemplateCompiler.descriptor(void.class, value));
+        }
+        this.success(serialize);
+        serialize.areturn();
+    }
+
+    private void emitRecordParse(CodeWriter c, RecordTemplate<?> record) {
+        var properties = record.properties();
+        var mismatch = c.newLabel();
+        c.aload(1);
+        c.instanceOf(JSON_OBJECT);
+        c.jump(CodeWriter.IFEQ, mismatch);
+        var object = c.newLocal();
+        var element = c.newLocal();
+        var result = c.newLocal();
+        c.aload(1);
+        c.checkcast(JSON_OBJECT);
+        c.astore(object);
+        var values = new int[properties.size()];
+        for (var i = 0; i < values.length; i++) {
+            var property = properties.get(i);
+            var fallback = c.newLabel();
+            var parsed = c.newLabel();
+            c.aload(object);
+            c.ldc(property.property());
+            c.invokeVirtual(JSON_OBJECT, "find", TemplateCompiler.descriptor(JsonElement.class, String.class));
+            c.astore(element);
+            c.aload(element);
+            c.jump(CodeWriter.IFNULL, fallback);
+            this.parse(c, property.template(), element);
+            c.astore(result);
+            c.aload(result);
+            c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+            c.jump(CodeWriter.IFNE, parsed);
+            // Missing properties and failures are handled by the property itself, either
+            // resulting in an error, or in a fallback value in the case of optional properties.
+            c.bind(fallback);
+            this.load(c, this.constant(property, PropertyTemplate.class));
+            c.aload(1);
+            c.invokeVirtual(PROPERTY, "parseAndPromote", PARSE);
+            this.returnUnlessSuccess(c, result, parsed);
+            c.bind(parsed);
+            values[i] = c.newLocal();
+            c.aload(result);
+            c.invokeInterface(RESULT, "unwrap", UNWRAP);
+            c.astore(values[i]);
+        }
+        var type = CONSTRUCTORS[values.length - 1];
+        this.load(c, this.constant(record.constructor(), type));
+        var parameters = new Class<?>[values.length];
+        for (var i = 0; i < values.length; i++) {
+            parameters[i] = Object.class;
+            c.aload(values[i]);
+        }
+        c.invokeInterface(TemplateCompiler.internal(type), "construct", TemplateCompiler.descriptor(Object.class, parameters));
+        this.success(c);
+        c.areturn();
+        c.bind(mismatch);
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    private void emitRecordSerialize(CodeWriter c, RecordTemplate<?> record) {
+        var properties = record.properties();
+        var mismatch = c.newLabel();
+        c.aload(1);
+        c.jump(CodeWriter.IFNULL, mismatch);
+        var builder = c.newLocal();
+        var value = c.newLocal();
+        var result = c.newLocal();
+        c.iconst(properties.size() + 1);
+        c.invokeStatic(TemplateCompiler.internal(ImmutableMap.class), "builderWithExpectedSize",
+                TemplateCompiler.descriptor(ImmutableMap.Builder.class, int.class));
+        c.astore(builder);
+        for (var property : properties) {
+            var constant = this.constant(property, PropertyTemplate.class);
+            var serialized = c.newLabel();
+            var next = c.newLabel();
+            this.load(c, constant);
+            c.aload(1);
+            c.invokeVirtual(PROPERTY, "access", TemplateCompiler.descriptor(Object.class, Object.class));
+            c.astore(value);
+            this.load(c, constant);
+            c.aload(value);
+            c.invokeVirtual(PROPERTY, "omits", TemplateCompiler.descriptor(boolean.class, Object.class));
+            c.jump(CodeWriter.IFNE, next);
+            this.serialize(c, property.template(), value);
+            c.astore(result);
+            c.aload(result);
+            c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+            c.jump(CodeWriter.IFNE, serialized);
+            this.load(c, constant);
+            c.aload(value);
+            c.invokeVirtual(PROPERTY, "serialize", SERIALIZE);
+            this.returnUnlessSuccess(c, result, serialized);
+            c.bind(serialized);
+            c.aload(builder);
+            c.ldc(property.property());
+            c.aload(result);
+            c.invokeInterface(RESULT, "unwrap", UNWRAP);
+            c.invokeVirtual(BUILDER, "put", TemplateCompiler.descriptor(ImmutableMap.Builder.class, Object.class, Object.class));
+            c.pop();
+            c.bind(next);
+        }
+        this.emitObject(c, builder);
+        c.bind(mismatch);
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    private void emitArrayParse(CodeWriter c, ArrayTemplate<?> template) {
+        var mismatch = c.newLabel();
+        c.aload(1);
+        c.instanceOf(JSON_ARRAY);
+        c.jump(CodeWriter.IFEQ, mismatch);
+        var array = c.newLocal();
+        var length = c.newLocal();
+        var values = c.newLocal();
+        var index = c.newLocal();
+        var element = c.newLocal();
+        var result = c.newLocal();
+        c.aload(1);
+        c.checkcast(JSON_ARRAY);
+        c.astore(array);
+        c.aload(array);
+        c.invokeVirtual(JSON_ARRAY, "length", TemplateCompiler.descriptor(int.class));
+        c.istore(length);
+        this.load(c, this.constant(template.factory(), IntFunction.class));
+        c.iload(length);
+        c.invokeInterface(TemplateCompiler.internal(IntFunction.class), "apply", TemplateCompiler.descriptor(Object.class, int.class));
+        c.checkcast("[L" + OBJECT + ";");
+        c.astore(values);
+        c.iconst(0);
+        c.istore(index);
+        var loop = c.newLabel();
+        var end = c.newLabel();
+        var parsed = c.newLabel();
+        c.bind(loop);
+        c.iload(index);
+        c.iload(length);
+        c.jump(CodeWriter.IF_ICMPGE, end);
+        c.aload(array);
+        c.iload(index);
+        c.invokeVirtual(JSON_ARRAY, "subscript", TemplateCompiler.descriptor(JsonElement.class, int.class));
+        c.astore(element);
+        this.parse(c, template.template(), element);
+        c.astore(result);
+        c.aload(result);
+        c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+        c.jump(CodeWriter.IFNE, parsed);
+        this.load(c, this.constant(template.template(), Template.class));
+        c.aload(element);
+        c.invokeInterface(TEMPLATE, "parseAndPromote", PARSE);
+        c.areturn();
+        c.bind(parsed);
+        c.aload(values);
+        c.iload(index);
+        c.aload(result);
+        c.invokeInterface(RESULT, "unwrap", UNWRAP);
+        c.aastore();
+        c.iinc(index, 1);
+        c.jump(loop);
+        c.bind(end);
+        c.aload(values);
+        this.success(c);
+        c.areturn();
+        c.bind(mismatch);
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    private void emitArraySerialize(CodeWriter c, ArrayTemplate<?> template) {
+        var mismatch = c.newLabel();
+        c.aload(1);
+        c.jump(CodeWriter.IFNULL, mismatch);
+        var array = c.newLocal();
+        var length = c.newLocal();
+        var elements = c.newLocal();
+        var index = c.newLocal();
+        var result = c.newLocal();
+        c.aload(1);
+        c.checkcast("[L" + OBJECT + ";");
+        c.astore(array);
+        c.aload(array);
+        c.arrayLength();
+        c.istore(length);
+        c.iload(length);
+        c.anewArray(JSON_ELEMENT);
+        c.astore(elements);
+        c.iconst(0);
+        c.istore(index);
+        var loop = c.newLabel();
+        var end = c.newLabel();
+        var serialized = c.newLabel();
+        c.bind(loop);
+        c.iload(index);
+        c.iload(length);
+        c.jump(CodeWriter.IF_ICMPGE, end);
+        var node = this.node(template.template());
+        c.aload(0);
+        c.aload(array);
+        c.iload(index);
+        c.aaload();
+        c.invokeSpecial(NAME, "s" + node, SERIALIZE);
+        c.astore(result);
+        c.aload(result);
+        c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+        c.jump(CodeWriter.IFNE, serialized);
+        c.aload(result);
+        c.areturn();
+        c.bind(serialized);
+        c.aload(elements);
+        c.iload(index);
+        c.aload(result);
+        c.invokeInterface(RESULT, "unwrap", UNWRAP);
+        c.checkcast(JSON_ELEMENT);
+        c.aastore();
+        c.iinc(index, 1);
+        c.jump(loop);
+        c.bind(end);
+        c.anew(JSON_ARRAY);
+        c.dup();
+        c.aload(elements);
+        c.invokeSpecial(JSON_ARRAY, "<init>", TemplateCompiler.descriptor(void.class, JsonElement[].class));
+        this.success(c);
+        c.areturn();
+        c.bind(mismatch);
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    private void emitMapParse(CodeWriter c, MapTemplate<?> template) {
+        var mismatch = c.newLabel();
+        c.aload(1);
+        c.instanceOf(JSON_OBJECT);
+        c.jump(CodeWriter.IFEQ, mismatch);
+        var builder = c.newLocal();
+        var iterator = c.newLocal();
+        var entry = c.newLocal();
+        var element = c.newLocal();
+        var result = c.newLocal();
+        c.aload(1);
+        c.checkcast(JSON_OBJECT);
+        c.invokeVirtual(JSON_OBJECT, "length", TemplateCompiler.descriptor(int.class));
+        c.invokeStatic(TemplateCompiler.internal(ImmutableMap.class), "builderWithExpectedSize",
+                TemplateCompiler.descriptor(ImmutableMap.Builder.class, int.class));
+        c.astore(builder);
+        c.aload(1);
+        c.checkcast(JSON_OBJECT);
+        c.invokeVirtual(JSON_OBJECT, "entries", TemplateCompiler.descriptor(Set.class));
+        c.invokeInterface(TemplateCompiler.internal(Set.class), "iterator", TemplateCompiler.descriptor(Iterator.class));
+        c.astore(iterator);
+        var loop = c.newLabel();
+        var end = c.newLabel();
+        var parsed = c.newLabel();
+        c.bind(loop);
+        c.aload(iterator);
+        c.invokeInterface(TemplateCompiler.internal(Iterator.class), "hasNext", TemplateCompiler.descriptor(boolean.class));
+        c.jump(CodeWriter.IFEQ, end);
+        c.aload(iterator);
+        c.invokeInterface(TemplateCompiler.internal(Iterator.class), "next", TemplateCompiler.descriptor(Object.class));
+        c.checkcast(TemplateCompiler.internal(Map.Entry.class));
+        c.astore(entry);
+        c.aload(entry);
+        c.invokeInterface(TemplateCompiler.internal(Map.Entry.class), "getValue", TemplateCompiler.descriptor(Object.class));
+        c.checkcast(JSON_ELEMENT);
+        c.astore(element);
+        this.parse(c, template.template(), element);
+        c.astore(result);
+        c.aload(result);
+        c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+        c.jump(CodeWriter.IFNE, parsed);
+        this.load(c, this.constant(template.template(), Template.class));
+        c.aload(element);
+        c.invokeInterface(TEMPLATE, "parseAndPromote", PARSE);
+        c.areturn();
+        c.bind(parsed);
+        c.aload(builder);
+        c.aload(entry);
+        c.invokeInterface(TemplateCompiler.internal(Map.Entry.class), "getKey", TemplateCompiler.descriptor(Object.class));
+        c.aload(result);
+        c.invokeInterface(RESULT, "unwrap", UNWRAP);
+        c.invokeVirtual(BUILDER, "put", TemplateCompiler.descriptor(ImmutableMap.Builder.class, Object.class, Object.class));
+        c.pop();
+        c.jump(loop);
+        c.bind(end);
+        c.aload(builder);
+        c.invokeVirtual(BUILDER, "build", TemplateCompiler.descriptor(ImmutableMap.class));
+        this.success(c);
+        c.areturn();
+        c.bind(mismatch);
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    private void emitMapSerialize(CodeWriter c, MapTemplate<?> template) {
+        var mismatch = c.newLabel();
+        c.aload(1);
+        c.jump(CodeWriter.IFNULL, mismatch);
+        var builder = c.newLocal();
+        var iterator = c.newLocal();
+        var entry = c.newLocal();
+        var value = c.newLocal();
+        var result = c.newLocal();
+        var map = TemplateCompiler.internal(Map.class);
+        c.aload(1);
+        c.checkcast(map);
+        c.invokeInterface(map, "size", TemplateCompiler.descriptor(int.class));
+        c.invokeStatic(TemplateCompiler.internal(ImmutableMap.class), "builderWithExpectedSize",
+                TemplateCompiler.descriptor(ImmutableMap.Builder.class, int.class));
+        c.astore(builder);
+        c.aload(1);
+        c.checkcast(map);
+        c.invokeInterface(map, "entrySet", TemplateCompiler.descriptor(Set.class));
+        c.invokeInterface(TemplateCompiler.internal(Set.class), "iterator", TemplateCompiler.descriptor(Iterator.class));
+        c.astore(iterator);
+        var loop = c.newLabel();
+        var end = c.newLabel();
+        var serialized = c.newLabel();
+        c.bind(loop);
+        c.aload(iterator);
+        c.invokeInterface(TemplateCompiler.internal(Iterator.class), "hasNext", TemplateCompiler.descriptor(boolean.class));
+        c.jump(CodeWriter.IFEQ, end);
+        c.aload(iterator);
+        c.invokeInterface(TemplateCompiler.internal(Iterator.class), "next", TemplateCompiler.descriptor(Object.class));
+        c.checkcast(TemplateCompiler.internal(Map.Entry.class));
+        c.astore(entry);
+        c.aload(entry);
+        c.invokeInterface(TemplateCompiler.internal(Map.Entry.class), "getValue", TemplateCompiler.descriptor(Object.class));
+        c.astore(value);
+        this.serialize(c, template.template(), value);
+        c.astore(result);
+        c.aload(result);
+        c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+        c.jump(CodeWriter.IFNE, serialized);
+        this.load(c, this.constant(template.template(), Template.class));
+        c.aload(value);
+        c.invokeInterface(TEMPLATE, "serializeAndPromote", SERIALIZE);
+        this.returnUnlessSuccess(c, result, serialized);
+        c.bind(serialized);
+        c.aload(builder);
+        c.aload(entry);
+        c.invokeInterface(TemplateCompiler.internal(Map.Entry.class), "getKey", TemplateCompiler.descriptor(Object.class));
+        c.aload(result);
+        c.invokeInterface(RESULT, "unwrap", UNWRAP);
+        c.invokeVirtual(BUILDER, "put", TemplateCompiler.descriptor(ImmutableMap.Builder.class, Object.class, Object.class));
+        c.pop();
+        c.jump(loop);
+        c.bind(end);
+        this.emitObject(c, builder);
+        c.bind(mismatch);
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    /**
+     * Attempts the branches in order, skipping the ones whose shape rules out the element, just like the {@link UnionTemplate} does.
+     */
+    private void emitUnionParse(CodeWriter c, UnionTemplate<?> union) {
+        var result = c.newLocal();
+        for (var branch : union.templates()) {
+            var shape = branch.shape();
+            var attempt = c.newLabel();
+            var skip = c.newLabel();
+            if (shape.kinds().size() < KINDS.size()) {
+                var accepted = c.newLabel();
+                c.aload(1);
+                c.jump(CodeWriter.IFNULL, attempt);
+                for (var kind : shape.kinds()) {
+                    c.aload(1);
+                    c.instanceOf(KINDS.get(kind));
+                    c.jump(CodeWriter.IFNE, accepted);
+                }
+                c.jump(skip);
+                c.bind(accepted);
+            }
+            if (!shape.requiredKeys().isEmpty()) {
+                c.aload(1);
+                c.instanceOf(JSON_OBJECT);
+                c.jump(CodeWriter.IFEQ, attempt);
+                for (var key : shape.requiredKeys()) {
+                    c.aload(1);
+                    c.checkcast(JSON_OBJECT);
+                    c.ldc(key);
+                    c.invokeVirtual(JSON_OBJECT, "find", TemplateCompiler.descriptor(JsonElement.class, String.class));
+                    c.jump(CodeWriter.IFNULL, skip);
+                }
+            }
+            c.bind(attempt);
+            this.parse(c, branch, 1);
+            c.astore(result);
+            c.aload(result);
+            c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+            c.jump(CodeWriter.IFEQ, skip);
+            c.aload(result);
+            c.areturn();
+            c.bind(skip);
+        }
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    private void emitUnionSerialize(CodeWriter c, UnionTemplate<?> union) {
+        var result = c.newLocal();
+        for (var branch : union.templates()) {
+            var next = c.newLabel();
+            this.serialize(c, branch, 1);
+            c.astore(result);
+            c.aload(result);
+            c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+            c.jump(CodeWriter.IFEQ, next);
+            c.aload(result);
+            c.areturn();
+            c.bind(next);
+        }
+        this.mismatch(c);
+        c.areturn();
+    }
+
+    private void emitOptionalParse(CodeWriter c, OptionalTemplate<?> optional) {
+        var result = c.newLocal();
+        var failed = c.newLabel();
+        var fallback = c.newLabel();
+        var propagate = c.newLabel();
+        this.parse(c, optional.template(), 1);
+        c.astore(result);
+        c.aload(result);
+        c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+        c.jump(CodeWriter.IFEQ, failed);
+        c.aload(result);
+        c.areturn();
+        c.bind(failed);
+        c.aload(1);
+        c.jump(CodeWriter.IFNULL, fallback);
+        c.aload(1);
+        c.instanceOf(KINDS.get(JsonKind.NULL));
+        c.jump(CodeWriter.IFEQ, propagate);
+        c.bind(fallback);
+        this.load(c, this.constant(optional.supplier(), Supplier.class));
+        c.invokeInterface(TemplateCompiler.internal(Supplier.class), "get", TemplateCompiler.descriptor(Object.class));
+        this.success(c);
+        c.areturn();
+        c.bind(propagate);
+        c.aload(result);
+        c.areturn();
+    }
+
+    private void emitOptionalSerialize(CodeWriter c, OptionalTemplate<?> optional) {
+        var result = c.newLocal();
+        var failed = c.newLabel();
+        var propagate = c.newLabel();
+        this.serialize(c, optional.template(), 1);
+        c.astore(result);
+        c.aload(result);
+        c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+        c.jump(CodeWriter.IFEQ, failed);
+        c.aload(result);
+        c.areturn();
+        c.bind(failed);
+        c.aload(1);
+        c.jump(CodeWriter.IFNONNULL, propagate);
+        var type = KINDS.get(JsonKind.NULL);
+        c.anew(type);
+        c.dup();
+        c.invokeSpecial(type, "<init>", TemplateCompiler.descriptor(void.class));
+        this.success(c);
+        c.areturn();
+        c.bind(propagate);
+        c.aload(result);
+        c.areturn();
+    }
+
+    private void emitChainParse(CodeWriter c, ChainTemplate<?, ?> chain) {
+        var result = c.newLocal();
+        var value = c.newLocal();
+        var parsed = c.newLabel();
+        this.parse(c, chain.source(), 1);
+        this.returnUnlessSuccess(c, result, parsed);
+        c.bind(parsed);
+        c.aload(result);
+        c.invokeInterface(RESULT, "unwrap", UNWRAP);
+        c.astore(value);
+        for (var step : chain.steps()) {
+            var next = c.newLabel();
+            switch (step) {
+                case ChainTemplate.Step.Map map -> {
+                    this.emitMapping(c, map.mapper(), value, next);
+                    c.aload(1);
+                    c.invokeStatic(SUPER, "failure", TemplateCompiler.descriptor(Result.class, Throwable.class, JsonElement.class));
+                    c.areturn();
+                }
+                case ChainTemplate.Step.Refine refine -> {
+                    this.load(c, this.constant(refine.predicate(), Predicate.class));
+                    c.aload(value);
+                    c.invokeInterface(TemplateCompiler.internal(Predicate.class), "test", TemplateCompiler.descriptor(boolean.class, Object.class));
+                    c.jump(CodeWriter.IFNE, next);
+                    this.load(c, this.constant(refine.message(), Supplier.class));
+                    c.invokeInterface(TemplateCompiler.internal(Supplier.class), "get", TemplateCompiler.descriptor(Object.class));
+                    c.checkcast(STRING);
+                    c.aload(1);
+                    c.invokeStatic(SUPER, "error", TemplateCompiler.descriptor(Result.class, String.class, JsonElement.class));
+                    c.areturn();
+                }
+                case ChainTemplate.Step.Whole __ -> {
+                    c.aload(value);
+                    c.invokeStatic(SUPER, "isWhole", TemplateCompiler.descriptor(boolean.class, Object.class));
+                    c.jump(CodeWriter.IFNE, next);
+                    c.ldc(WholeTemplate.MESSAGE);
+                    c.aload(1);
+                    c.invokeStatic(SUPER, "error", TemplateCompiler.descriptor(Result.class, String.class, JsonElement.class));
+                    c.areturn();
+                }
+                case ChainTemplate.Step.Describe __ -> {
+                }
+            }
+            c.bind(next);
+        }
+        c.aload(value);
+        this.success(c);
+        c.areturn();
+    }
+
+    /**
+     * Applies the steps in reverse, keeping the current value in the parameter slot. A throwing mapper leaves the slot
+     * untouched, so that the failure may be reported with the value that caused it.
+     */
+    private void emitChainSerialize(CodeWriter c, ChainTemplate<?, ?> chain) {
+        var steps = chain.steps();
+        for (var i = steps.size() - 1; i >= 0; i--) {
+            var next = c.newLabel();
+            switch (steps.get(i)) {
+                case ChainTemplate.Step.Map map -> {
+                    this.emitMapping(c, map.remapper(), 1, next);
+                    c.aload(1);
+                    c.invokeStatic(SUPER, "failure", TemplateCompiler.descriptor(Result.class, Throwable.class, Object.class));
+                    c.areturn();
+                }
+                case ChainTemplate.Step.Refine refine -> {
+                    this.load(c, this.constant(refine.predicate(), Predicate.class));
+                    c.aload(1);
+                    c.invokeInterface(TemplateCompiler.internal(Predicate.class), "test", TemplateCompiler.descriptor(boolean.class, Object.class));
+                    c.jump(CodeWriter.IFNE, next);
+                    this.load(c, this.constant(refine.message(), Supplier.class));
+                    c.invokeInterface(TemplateCompiler.internal(Supplier.class), "get", TemplateCompiler.descriptor(Object.class));
+                    c.checkcast(STRING);
+                    c.aload(1);
+                    c.invokeStatic(SUPER, "invalid", TemplateCompiler.descriptor(Result.class, String.class, Object.class));
+                    c.areturn();
+                }
+                case ChainTemplate.Step.Whole __ -> {
+                    var present = c.newLabel();
+                    c.aload(1);
+                    c.jump(CodeWriter.IFNONNULL, present);
+                    this.mismatch(c);
+                    c.areturn();
+                    c.bind(present);
+                    c.aload(1);
+                    c.invokeStatic(SUPER, "isWhole", TemplateCompiler.descriptor(boolean.class, Object.class));
+                    c.jump(CodeWriter.IFNE, next);
+                    c.ldc(WholeTemplate.MESSAGE);
+                    c.aload(1);
+                    c.invokeStatic(SUPER, "invalid", TemplateCompiler.descriptor(Result.class, String.class, Object.class));
+                    c.areturn();
+                }
+                case ChainTemplate.Step.Describe __ -> {
+                }
+            }
+            c.bind(next);
+        }
+        this.serialize(c, chain.source(), 1);
+        c.areturn();
+    }
+
+    /**
+     * Emits the invocation of the provided {@code mapper} on the {@code value} local, storing the result back into it,
+     * and continuing at {@code next}. The code following the invocation is the exception handler, which starts with the thrown exception on the stack.
+     */
+    private void emitMapping(CodeWriter c, Mapper<?, ?> mapper, int value, CodeWriter.Label next) {
+        var start = c.newLabel();
+        var end = c.newLabel();
+        var handler = c.newLabel();
+        this.load(c, this.constant(mapper, Mapper.class));
+        c.bind(start);
+        c.aload(value);
+        c.invokeInterface(TemplateCompiler.internal(Mapper.class), "map", TemplateCompiler.descriptor(Object.class, Object.class));
+        c.astore(value);
+        c.bind(end);
+        c.jump(next);
+        c.bindHandler(handler);
+        c.catching(start, end, handler, TemplateCompiler.internal(Throwable.class));
+    }
+
+    private void emitObject(CodeWriter c, int builder) {
+        c.anew(JSON_OBJECT);
+        c.dup();
+        c.aload(builder);
+        c.invokeVirtual(BUILDER, "build", TemplateCompiler.descriptor(ImmutableMap.class));
+        c.invokeSpecial(JSON_OBJECT, "<init>", TemplateCompiler.descriptor(void.class, ImmutableMap.class));
+        this.success(c);
+        c.areturn();
+    }
+
+    private void emitEntryPoints(int node) {
+        var parse = this.writer.method(ClassWriter.ACC_PUBLIC, "parse", PARSE, 2);
+        parse.aload(0);
+        parse.aload(1);
+        parse.invokeSpecial(NAME, "p" + node, PARSE);
+        parse.areturn();
+        var serialize = this.writer.method(ClassWriter.ACC_PUBLIC, "serialize", SERIALIZE, 2);
+        serialize.aload(0);
+        serialize.aload(1);
+        serialize.invokeSpecial(NAME, "s" + node, SERIALIZE);
+        serialize.areturn();
+    }
+
+    /**
+     * Emits the constructor, which stores every constant the generated code refers to in a dedicated final field.
+     */
+    private void emitConstructor() {
+        var c = this.writer.method(ClassWriter.ACC_PUBLIC, "<init>",
+                TemplateCompiler.descriptor(void.class, Template.class, Object[].class), 3);
+        c.aload(0);
+        c.aload(1);
+        c.invokeSpecial(SUPER, "<init>", TemplateCompiler.descriptor(void.class, Template.class));
+        for (var i = 0; i < this.constants.size(); i++) {
+            var type = this.constants.get(i).type();
+            this.writer.field(ClassWriter.ACC_PRIVATE | ClassWriter.ACC_FINAL, "c" + i, type.descriptorString());
+            c.aload(0);
+            c.aload(2);
+            c.iconst(i);
+            c.aaload();
+            c.checkcast(TemplateCompiler.internal(type));
+            c.putField(NAME, "c" + i, type.descriptorString());
+        }
+        c.vreturn();
+    }
+
+    /**
+     * Stores the result on the stack into the provided local, continuing at {@code success} if it's successful,
+     * and returning it otherwise.
+     */
+    private void returnUnlessSuccess(CodeWriter c, int result, CodeWriter.Label success) {
+        c.astore(result);
+        c.aload(result);
+        c.invokeInterface(RESULT, "isSuccess", IS_SUCCESS);
+        c.jump(CodeWriter.IFNE, success);
+        c.aload(result);
+        c.areturn();
+    }
+
+    private void parse(CodeWriter c, Template<?> template, int element) {
+        var node = this.node(template);
+        c.aload(0);
+        c.aload(element);
+        c.invokeSpecial(NAME, "p" + node, PARSE);
+    }
+
+    private void serialize(CodeWriter c, Template<?> template, int value) {
+        var node = this.node(template);
+        c.aload(0);
+        c.aload(value);
+        c.invokeSpecial(NAME, "s" + node, SERIALIZE);
+    }
+
+    private void success(CodeWriter c) {
+        c.invokeStatic(SUPER, "success", WRAP);
+    }
+
+    private void mismatch(CodeWriter c) {
+        c.invokeStatic(SUPER, "mismatch", TemplateCompiler.descriptor(Result.class));
+    }
+
+    private void load(CodeWriter c, int constant) {
+        c.aload(0);
+        c.getField(NAME, "c" + constant, this.constants.get(constant).type().descriptorString());
+    }
+
+    /**
+     * Registers the provided {@code value} as a constant of the generated class, returning its index.
+     */
+    private int constant(Object value, Class<?> type) {
+        for (var i = 0; i < this.constants.size(); i++) {
+            var constant = this.constants.get(i);
+            if (constant.value() == value && constant.type() == type)
+                return i;
+        }
+        this.constants.add(new Constant(value, type));
+        return this.constants.size() - 1;
+    }
+
+    private static String internal(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> returnType, Class<?>... parameters) {
+        return MethodType.methodType(returnType, parameters)
+                .toMethodDescriptorString();
+    }
+
+    private record Constant(Object value, Class<?> type) {
+    }
+}
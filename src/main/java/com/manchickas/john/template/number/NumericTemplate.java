@@ -1,45 +1,19 @@
 package com.manchickas.john.template.number;
 
-import com.manchickas.john.ast.JsonElement;
-import com.manchickas.john.position.SourceSpan;
-import com.manchickas.john.template.Result;
+import com.manchickas.john.ast.JsonKind;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
-import it.unimi.dsi.fastutil.ints.IntSet;
+import com.manchickas.john.template.number.type.WholeTemplate;
 
 public interface NumericTemplate extends Template<Number> {
 
-    default NumericTemplate requireWhole() {
-        return new NumericTemplate() {
-
-            @Override
-            public Result<Number> parse(JsonElement element) {
-                var result = NumericTemplate.this.parse(element);
-                if (result.isSuccess()) {
-                    var value = result.unwrap();
-                    if (value.doubleValue() % 1 == 0)
-                        return result;
-                    return Result.error("Expected the number to not include a fractional part.",
-                            element.span());
-                }
-                return result;
-            }
-
-            @Override
-            public Result<JsonElement> serialize(Number value) {
-                if (value != null) {
-                    if (value.doubleValue() % 1 == 0)
-                        return NumericTemplate.this.serialize(value);
-                    return Result.error("Expected the number to not include a fractional part.",
-                            SourceSpan.lineWide(value.toString(), 1));
-                }
-                return Result.mismatch();
-            }
+    @Override
+    default Shape shape() {
+        return Shape.of(JsonKind.NUMBER);
+    }
 
-            @Override
-            public String name(IntSet encountered) {
-                return NumericTemplate.this.name(encountered);
-            }
-        };
+    default NumericTemplate requireWhole() {
+        return new WholeTemplate(this);
     }
 
     default Template<Byte> asByte() {
@@ -0,0 +1,70 @@
+package com.manchickas.john.template.number.type;
+
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.position.SourceSpan;
+import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
+import com.manchickas.john.template.number.NumericTemplate;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+public final class WholeTemplate implements NumericTemplate {
+
+    public static final String MESSAGE = "Expected the number to not include a fractional part.";
+
+    private final NumericTemplate source;
+
+    public WholeTemplate(NumericTemplate source) {
+        this.source = source;
+    }
+
+    @Override
+    public Result<Number> parse(JsonElement element) {
+        var result = this.source.parse(element);
+        if (result.isSuccess()) {
+            var value = result.unwrap();
+            if (value.doubleValue() % 1 == 0)
+                return result;
+            return Result.error(MESSAGE, element.span());
+        }
+        return result;
+    }
+
+    @Override
+    public Result<JsonElement> serialize(Number value) {
+        if (value != null) {
+            if (value.doubleValue() % 1 == 0)
+                return this.source.serialize(value);
+            return Result.error(MESSAGE, SourceSpan.lineWide(value.toString(), 1));
+        }
+        return Result.mismatch();
+    }
+
+    @Override
+    public NumericTemplate requireWhole() {
+        return this;
+    }
+
+    @Override
+    public String name(IntSet encountered) {
+        return this.source.name(encountered);
+    }
+
+    @Override
+    public Shape shape() {
+        return this.source.shape();
+    }
+
+    @Override
+    public Template<Number> optimize(TemplateOptimizer optimizer) {
+        var source = optimizer.optimize(this.source);
+        if (source != this.source && source instanceof NumericTemplate numeric)
+            return new WholeTemplate(numeric);
+        return this;
+    }
+
+    public NumericTemplate source() {
+        return this.source;
+    }
+}
@@ -3,7 +3,9 @@ package com.manchickas.john.template.object;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.property.PropertyTemplate;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
@@ -44,17 +46,15 @@ public final class DiscriminatedUnionTemplate<Disc, Instance> implements Templat
     private <P extends Instance> Result<JsonElement> serializeWith(Instance instance, Template<P> template) {
         try {
             var unchecked = (P) instance;
-            return template.serialize(unchecked)
-                    .flatMap(el -> {
-                        if (el instanceof JsonObject object) {
-                            var name = this.discriminator.property();
-                            var prop = this.discriminator.serializeProperty(instance);
-                            if (prop.isPresent())
-                                return prop.get()
-                                        .map(element -> object.with(name, element));
-                        }
-                        return Result.success(el);
-                    });
+            var prop = this.discriminator.serializeProperty(instance);
+            if (prop.isPresent()) {
+                var tag = prop.get();
+                if (tag.isSuccess())
+                    return template.serializeTagged(unchecked, this.discriminator.property(), tag.unwrap());
+                return template.serialize(unchecked)
+                        .flatMap(el -> el instanceof JsonObject ? tag : Result.success(el));
+            }
+            return template.serialize(unchecked);
         } catch (ClassCastException e) {
             return Result.mismatch();
         }
@@ -64,4 +64,20 @@ public final class DiscriminatedUnionTemplate<Disc, Instance> implements Templat
     public String name(IntSet encountered) {
         return "{ " + this.discriminator.name(encountered) + ", ... }";
     }
+
+    @Override
+    public Shape shape() {
+        return this.discriminator.shape();
+    }
+
+    /**
+     * Optimizes the {@link #discriminator}. The variants are resolved on demand, and thus left as-is.
+     */
+    @Override
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var discriminator = this.discriminator.optimize(optimizer);
+        if (discriminator == this.discriminator)
+            return this;
+        return new DiscriminatedUnionTemplate<>(discriminator, this.resolver);
+    }
 }
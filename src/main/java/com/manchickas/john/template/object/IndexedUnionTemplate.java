@@ -0,0 +1,139 @@
+package com.manchickas.john.template.object;
+
+import com.google.common.collect.ImmutableMap;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.parser.Projection;
+import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
+import com.manchickas.john.template.TemplateProjector;
+import com.manchickas.john.template.object.property.PropertyTemplate;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+import java.util.Map;
+
+public final class IndexedUnionTemplate<Disc, Instance> implements Template<Instance> {
+
+    private final PropertyTemplate<Instance, Disc, ?> discriminator;
+    private final ImmutableMap<Disc, Variant<? extends Instance>> variants;
+    /**
+     * The serialized discriminator of each variant, computed once per discriminator value.
+     */
+    private final ImmutableMap<Disc, JsonElement> tags;
+
+    public IndexedUnionTemplate(PropertyTemplate<Instance, Disc, ?> discriminator,
+                                Map<Disc, ? extends Variant<? extends Instance>> variants) {
+        this.discriminator = discriminator;
+        this.variants = ImmutableMap.copyOf(variants);
+        var tags = ImmutableMap.<Disc, JsonElement>builderWithExpectedSize(variants.size());
+        for (var disc : this.variants.keySet()) {
+            var tag = discriminator.serialize(disc);
+            if (tag.isSuccess()) {
+                tags.put(disc, tag.unwrap());
+                continue;
+            }
+            throw new IllegalArgumentException("The discriminator value '%s' doesn't satisfy the discriminator template: %s"
+                    .formatted(disc, tag.message()));
+        }
+        this.tags = tags.build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<Instance> parse(JsonElement element) {
+        if (element instanceof JsonObject object) {
+            var disc = this.discriminator.parseAndPromote(element);
+            if (disc.isSuccess()) {
+                var value = disc.unwrap();
+                var variant = this.variants.get(value);
+                if (variant != null)
+                    return (Result<Instance>) variant.template()
+                            .parseAndPromote(element);
+                var prop = object.find(this.discriminator.property());
+                return Result.error("Encountered an unknown discriminator '%s'. Expected one of %s."
+                        .formatted(value, this.variants.keySet()), prop != null ? prop.span() : element.span());
+            }
+            return (Result<Instance>) disc;
+        }
+        return Result.mismatch();
+    }
+
+    @Override
+    public Result<JsonElement> serialize(Instance value) {
+        if (value != null) {
+            var disc = this.discriminator.access(value);
+            var variant = this.variants.get(disc);
+            if (variant != null && variant.type().isInstance(value)) {
+                if (this.discriminator.omits(disc))
+                    return variant.serialize(value);
+                var key = this.discriminator.property();
+                return variant.serializeTagged(value, key, this.tags.get(disc));
+            }
+            return Result.mismatch();
+        }
+        return Result.mismatch();
+    }
+
+    @Override
+    public String name(IntSet encountered) {
+        return "{ " + this.discriminator.name(encountered) + ", ... }";
+    }
+
+    @Override
+    public Shape shape() {
+        return this.discriminator.shape();
+    }
+
+    @Override
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var discriminator = this.discriminator.optimize(optimizer);
+        var changed = discriminator != this.discriminator;
+        var variants = ImmutableMap.<Disc, Variant<? extends Instance>>builderWithExpectedSize(this.variants.size());
+        for (var entry : this.variants.entrySet()) {
+            var variant = entry.getValue();
+            var optimized = variant.optimize(optimizer);
+            changed |= optimized != variant;
+            variants.put(entry.getKey(), optimized);
+        }
+        if (changed)
+            return new IndexedUnionTemplate<>(discriminator, variants.build());
+        return this;
+    }
+
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        var projection = projector.project(this.discriminator);
+        for (var variant : this.variants.values())
+            projection = Projection.merge(projection, projector.project(variant.template()));
+        return projection;
+    }
+
+    /**
+     * Represents a single variant of an {@link IndexedUnionTemplate}, pairing the {@link Template} of a subtype
+     * with its {@link Class}, so that instances may be checked against the subtype without casting.
+     *
+     * @param type     the class of the subtype.
+     * @param template the template of the subtype.
+     * @param <P>      the subtype.
+     * @since 3.1.0
+     */
+    public record Variant<P>(Class<P> type, Template<P> template) {
+
+        private Variant<P> optimize(TemplateOptimizer optimizer) {
+            var template = optimizer.optimize(this.template);
+            if (template == this.template)
+                return this;
+            return new Variant<>(this.type, template);
+        }
+
+        private Result<JsonElement> serialize(Object value) {
+            return this.template.serialize(this.type.cast(value));
+        }
+
+        private Result<JsonElement> serializeTagged(Object value, String key, JsonElement tag) {
+            return this.template.serializeTagged(this.type.cast(value), key, tag);
+        }
+    }
+}
@@ -1,26 +1,75 @@
 package com.manchickas.john.template.object;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.parser.Projection;
+import com.manchickas.john.template.ParallelBinder;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
+import com.manchickas.john.template.TemplateProjector;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.Map;
 
 public final class MapTemplate<T> implements Template<Map<String, T>> {
 
     private final Template<T> template;
+    /**
+     * The number of entries at or above which the values get bound in parallel.
+     */
+    private final int threshold;
 
     public MapTemplate(Template<T> template) {
+        this(template, Integer.MAX_VALUE);
+    }
+
+    private MapTemplate(Template<T> template, int threshold) {
         this.template = template;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Composes a {@link Template} equivalent to the current one, which binds the values of objects of at least
+     * {@value ParallelBinder#DEFAULT_THRESHOLD} entries in parallel.
+     *
+     * @return a {@link Template} binding large objects in parallel.
+     * @see #parallel(int)
+     * @since 3.1.0
+     */
+    public MapTemplate<T> parallel() {
+        return this.parallel(ParallelBinder.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Composes a {@link Template} equivalent to the current one, which binds the values of objects of at least
+     * {@code threshold} entries in parallel, across the threads of a {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+     * <br><br>
+     * The resulting map preserves the order of the entries, and, should several values fail to bind,
+     * the error of the first one in order is reported.
+     *
+     * @param threshold the number of entries at or above which the values get bound in parallel.
+     * @return a {@link Template} binding large objects in parallel.
+     * @throws IllegalArgumentException if the {@code threshold} isn't positive.
+     * @since 3.1.0
+     */
+    public MapTemplate<T> parallel(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Expected a positive threshold, got %d.".formatted(threshold));
+        return new MapTemplate<>(this.template, threshold);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Result<Map<String, T>> parse(JsonElement element) {
         if (element instanceof JsonObject object) {
+            if (object.length() >= this.threshold)
+                return this.parseParallel(object);
             var builder = ImmutableMap.<String, T>builderWithExpectedSize(object.length());
             for (var entry : object.entries()) {
                 var key = entry.getKey();
@@ -37,6 +86,24 @@ public final class MapTemplate<T> implements Template<Map<String, T>> {
         return Result.mismatch();
     }
 
+    @SuppressWarnings("unchecked")
+    private Result<Map<String, T>> parseParallel(JsonObject object) {
+        var entries = ImmutableList.copyOf(object.entries());
+        var values = new Object[entries.size()];
+        var failure = ParallelBinder.bind(values.length, i -> {
+            var result = this.template.parseAndPromote(entries.get(i).getValue());
+            if (result.isSuccess())
+                values[i] = result.unwrap();
+            return result;
+        });
+        if (failure != null)
+            return (Result<Map<String, T>>) failure;
+        var builder = ImmutableMap.<String, T>builderWithExpectedSize(values.length);
+        for (var i = 0; i < values.length; i++)
+            builder.put(entries.get(i).getKey(), (T) values[i]);
+        return Result.success(builder.build());
+    }
+
     @Override
     public Result<JsonElement> serialize(Map<String, T> map) {
         if (map != null) {
@@ -58,4 +125,32 @@ public final class MapTemplate<T> implements Template<Map<String, T>> {
     public String name(IntSet encountered) {
         return "{ [key: string]: " + this.template.name(encountered) + " }";
     }
+
+    @Override
+    public Shape shape() {
+        return Shape.of(JsonKind.OBJECT);
+    }
+
+    @Override
+    public Template<Map<String, T>> optimize(TemplateOptimizer optimizer) {
+        var template = optimizer.optimize(this.template);
+        if (template == this.template)
+            return this;
+        return new MapTemplate<>(template, this.threshold);
+    }
+
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        return Projection.map(projector.project(this.template));
+    }
+
+    @ApiStatus.Internal
+    public Template<T> template() {
+        return this.template;
+    }
+
+    @ApiStatus.Internal
+    public boolean isParallel() {
+        return this.threshold != Integer.MAX_VALUE;
+    }
 }
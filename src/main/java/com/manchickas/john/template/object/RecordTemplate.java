@@ -1,29 +1,57 @@
 package com.manchickas.john.template.object;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.parser.Projection;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateProjector;
 import com.manchickas.john.template.object.property.PropertyTemplate;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
 
+import java.util.HashMap;
 import java.util.List;
 
 public abstract class RecordTemplate<Instance> implements Template<Instance> {
 
     @Override
     public Result<JsonElement> serialize(Instance value) {
+        return this.serialize(value, null, null);
+    }
+
+    /**
+     * Serializes the provided {@code value}, writing the {@code tag} under the {@code key} property
+     * as the very first entry of the resulting object.
+     * <br><br>
+     * If one of the record's own properties shares the name of the {@code key}, that property is skipped,
+     * so that the {@code tag} always takes precedence.
+     */
+    @Override
+    public Result<JsonElement> serializeTagged(Instance value, String key, JsonElement tag) {
+        return this.serialize(value, key, tag);
+    }
+
+    private Result<JsonElement> serialize(Instance value, String key, JsonElement tag) {
         if (value != null) {
             var props = this.properties();
-            var builder = ImmutableMap.<String, JsonElement>builderWithExpectedSize(props.size());
+            var builder = ImmutableMap.<String, JsonElement>builderWithExpectedSize(props.size() + 1);
+            if (key != null)
+                builder.put(key, tag);
             for (var property : props) {
+                var name = property.property();
+                if (name.equals(key))
+                    continue;
                 var prop = property.serializeProperty(value);
                 if (prop.isPresent()) {
                     var result = prop.get();
                     if (result.isError())
                         return result;
-                    builder.put(property.property(), result.unwrap());
+                    builder.put(name, result.unwrap());
                 }
             }
             return Result.success(new JsonObject(builder.build()));
@@ -48,5 +76,36 @@ public abstract class RecordTemplate<Instance> implements Template<Instance> {
         return ">...";
     }
 
-    protected abstract List<PropertyTemplate<Instance, ?, ?>> properties();
+    @Override
+    public Shape shape() {
+        var requiredKeys = ImmutableSet.<String>builder();
+        for (var property : this.properties())
+            requiredKeys.addAll(property.shape().requiredKeys());
+        return Shape.of(JsonKind.OBJECT)
+                .withRequiredKeys(requiredKeys.build());
+    }
+
+    /**
+     * Keeps the properties of the record, projected according to their templates, leaving out any other property of the object.
+     */
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        var properties = new HashMap<String, Projection>();
+        for (var property : this.properties())
+            properties.merge(property.property(), projector.project(property.template()), Projection::merge);
+        return Projection.object(properties);
+    }
+
+    @ApiStatus.Internal
+    public abstract List<PropertyTemplate<Instance, ?, ?>> properties();
+
+    /**
+     * Returns the constructor of the record, implementing the functional interface that matches the number of its properties,
+     * such as {@link com.manchickas.john.template.object.constructor.BiConstructor BiConstructor}.
+     *
+     * @return the constructor of the record.
+     * @since 3.1.0
+     */
+    @ApiStatus.Internal
+    public abstract Object constructor();
 }
@@ -1,16 +1,23 @@
 package com.manchickas.john.template.object.property;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.parser.Projection;
 import com.manchickas.john.position.SourceSpan;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
+import com.manchickas.john.template.TemplateProjector;
 import com.manchickas.john.template.object.property.type.OptionalPropertyTemplate;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -79,13 +86,39 @@ public abstract class PropertyTemplate<Instance, T, Self extends PropertyTemplat
      */
     public abstract Self omitWhen(Predicate<@Nullable T> omitRule);
 
+    /**
+     * Creates a copy of the current property, accessing its value with the provided {@code template} instead.
+     * <br><br>
+     * By default, returns the current property itself, opting out of {@linkplain #optimize(TemplateOptimizer) optimization}
+     * and keeping its original template. Subclasses are encouraged to override the method to benefit from it.
+     *
+     * @param template the template to access the property with.
+     * @return a copy of the current property, or the current property itself if it doesn't support being copied.
+     * @since 3.1.0
+     */
+    @SuppressWarnings("unchecked")
+    protected Self withTemplate(Template<T> template) {
+        return (Self) this;
+    }
+
     public Optional<Result<JsonElement>> serializeProperty(Instance instance) {
         var value = this.access(instance);
-        if (this.omitRule.test(value))
+        if (this.omits(value))
             return Optional.empty();
         return Optional.of(this.serialize(value));
     }
 
+    /**
+     * Determines whether the provided {@code value} should be excluded from the resulting object during serialization.
+     *
+     * @param value the value of the property.
+     * @return {@code true} if the property should be omitted, {@code false} otherwise.
+     * @since 3.1.0
+     */
+    public boolean omits(@Nullable T value) {
+        return this.omitRule.test(value);
+    }
+
     @Override
     public Result<T> parse(JsonElement element) {
         if (element instanceof JsonObject object) {
@@ -111,6 +144,25 @@ public abstract class PropertyTemplate<Instance, T, Self extends PropertyTemplat
         return this.property + ": " + this.template.name(encountered);
     }
 
+    @Override
+    public Shape shape() {
+        return Shape.of(JsonKind.OBJECT);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Self optimize(TemplateOptimizer optimizer) {
+        var template = optimizer.optimize(this.template);
+        if (template == this.template)
+            return (Self) this;
+        return this.withTemplate(template);
+    }
+
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        return Projection.object(Map.of(this.property, projector.project(this.template)));
+    }
+
     public T access(Instance instance) {
         return this.accessor.access(instance);
     }
@@ -118,4 +170,9 @@ public abstract class PropertyTemplate<Instance, T, Self extends PropertyTemplat
     public String property() {
         return this.property;
     }
+
+    @ApiStatus.Internal
+    public Template<T> template() {
+        return this.template;
+    }
 }
@@ -47,6 +47,17 @@ public final class OptionalPropertyTemplate<Instance, T> extends PropertyTemplat
         );
     }
 
+    @Override
+    protected OptionalPropertyTemplate<Instance, T> withTemplate(Template<T> template) {
+        return new OptionalPropertyTemplate<>(
+                this.property,
+                template,
+                this.accessor,
+                this.omitRule,
+                this.supplier
+        );
+    }
+
     @Override
     protected Result<T> missingResult(SourceSpan span) {
         return Result.success(this.supplier.get());
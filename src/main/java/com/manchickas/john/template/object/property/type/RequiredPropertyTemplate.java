@@ -1,13 +1,16 @@
 package com.manchickas.john.template.object.property.type;
 
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.position.SourceSpan;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
 import com.manchickas.john.template.object.property.PropertyAccessor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -41,6 +44,22 @@ public final class RequiredPropertyTemplate<Instance, T> extends PropertyTemplat
         );
     }
 
+    @Override
+    protected RequiredPropertyTemplate<Instance, T> withTemplate(Template<T> template) {
+        return new RequiredPropertyTemplate<>(
+                this.property,
+                template,
+                this.accessor,
+                this.omitRule
+        );
+    }
+
+    @Override
+    public Shape shape() {
+        return Shape.of(JsonKind.OBJECT)
+                .withRequiredKeys(Set.of(this.property));
+    }
+
     @Override
     protected Result<T> missingResult(SourceSpan span) {
         return Result.error("Expected the object to include '%s' as a property."
@@ -3,6 +3,8 @@ package com.manchickas.john.template.object.type;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.RecordTemplate;
 import com.manchickas.john.template.object.constructor.BiConstructor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
@@ -35,7 +37,21 @@ public final class BiRecordTemplate<A, B, Instance> extends RecordTemplate<Insta
     }
 
     @Override
-    protected List<PropertyTemplate<Instance, ?, ?>> properties() {
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var first = this.first.optimize(optimizer);
+        var second = this.second.optimize(optimizer);
+        if (first == this.first && second == this.second)
+            return this;
+        return new BiRecordTemplate<>(first, second, this.constructor);
+    }
+
+    @Override
+    public List<PropertyTemplate<Instance, ?, ?>> properties() {
         return List.of(this.first, this.second);
     }
+
+    @Override
+    public BiConstructor<A, B, Instance> constructor() {
+        return this.constructor;
+    }
 }
@@ -3,6 +3,8 @@ package com.manchickas.john.template.object.type;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.RecordTemplate;
 import com.manchickas.john.template.object.constructor.HexaConstructor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
@@ -51,7 +53,30 @@ public final class HexaRecordTemplate<A, B, C, D, E, F, Instance> extends Record
     }
 
     @Override
-    protected List<PropertyTemplate<Instance, ?, ?>> properties() {
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var first = this.first.optimize(optimizer);
+        var second = this.second.optimize(optimizer);
+        var third = this.third.optimize(optimizer);
+        var fourth = this.fourth.optimize(optimizer);
+        var fifth = this.fifth.optimize(optimizer);
+        var sixth = this.sixth.optimize(optimizer);
+        if (first == this.first
+                && second == this.second
+                && third == this.third
+                && fourth == this.fourth
+                && fifth == this.fifth
+                && sixth == this.sixth)
+            return this;
+        return new HexaRecordTemplate<>(first, second, third, fourth, fifth, sixth, this.constructor);
+    }
+
+    @Override
+    public List<PropertyTemplate<Instance, ?, ?>> properties() {
         return List.of(this.first, this.second, this.third, this.fourth, this.fifth, this.sixth);
     }
+
+    @Override
+    public HexaConstructor<A, B, C, D, E, F, Instance> constructor() {
+        return this.constructor;
+    }
 }
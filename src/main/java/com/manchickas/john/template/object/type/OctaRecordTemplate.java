@@ -3,6 +3,8 @@ package com.manchickas.john.template.object.type;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.RecordTemplate;
 import com.manchickas.john.template.object.constructor.OctaConstructor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
@@ -59,7 +61,34 @@ public final class OctaRecordTemplate<A, B, C, D, E, F, H, I, Instance> extends
     }
 
     @Override
-    protected List<PropertyTemplate<Instance, ?, ?>> properties() {
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var first = this.first.optimize(optimizer);
+        var second = this.second.optimize(optimizer);
+        var third = this.third.optimize(optimizer);
+        var fourth = this.fourth.optimize(optimizer);
+        var fifth = this.fifth.optimize(optimizer);
+        var sixth = this.sixth.optimize(optimizer);
+        var seventh = this.seventh.optimize(optimizer);
+        var eighth = this.eighth.optimize(optimizer);
+        if (first == this.first
+                && second == this.second
+                && third == this.third
+                && fourth == this.fourth
+                && fifth == this.fifth
+                && sixth == this.sixth
+                && seventh == this.seventh
+                && eighth == this.eighth)
+            return this;
+        return new OctaRecordTemplate<>(first, second, third, fourth, fifth, sixth, seventh, eighth, this.constructor);
+    }
+
+    @Override
+    public List<PropertyTemplate<Instance, ?, ?>> properties() {
         return List.of(this.first, this.second, this.third, this.fourth, this.fifth, this.sixth, this.seventh, this.eighth);
     }
+
+    @Override
+    public OctaConstructor<A, B, C, D, E, F, H, I, Instance> constructor() {
+        return this.constructor;
+    }
 }
@@ -3,6 +3,8 @@ package com.manchickas.john.template.object.type;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.RecordTemplate;
 import com.manchickas.john.template.object.constructor.PentaConstructor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
@@ -47,7 +49,28 @@ public final class PentaRecordTemplate<A, B, C, D, E, Instance> extends RecordTe
     }
 
     @Override
-    protected List<PropertyTemplate<Instance, ?, ?>> properties() {
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var first = this.first.optimize(optimizer);
+        var second = this.second.optimize(optimizer);
+        var third = this.third.optimize(optimizer);
+        var fourth = this.fourth.optimize(optimizer);
+        var fifth = this.fifth.optimize(optimizer);
+        if (first == this.first
+                && second == this.second
+                && third == this.third
+                && fourth == this.fourth
+                && fifth == this.fifth)
+            return this;
+        return new PentaRecordTemplate<>(first, second, third, fourth, fifth, this.constructor);
+    }
+
+    @Override
+    public List<PropertyTemplate<Instance, ?, ?>> properties() {
         return List.of(this.first, this.second, this.third, this.fourth, this.fifth);
     }
+
+    @Override
+    public PentaConstructor<A, B, C, D, E, Instance> constructor() {
+        return this.constructor;
+    }
 }
@@ -3,6 +3,8 @@ package com.manchickas.john.template.object.type;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.RecordTemplate;
 import com.manchickas.john.template.object.constructor.TetraConstructor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
@@ -43,7 +45,26 @@ public final class TetraRecordTemplate<A, B, C, D, Instance> extends RecordTempl
     }
 
     @Override
-    protected List<PropertyTemplate<Instance, ?, ?>> properties() {
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var first = this.first.optimize(optimizer);
+        var second = this.second.optimize(optimizer);
+        var third = this.third.optimize(optimizer);
+        var fourth = this.fourth.optimize(optimizer);
+        if (first == this.first
+                && second == this.second
+                && third == this.third
+                && fourth == this.fourth)
+            return this;
+        return new TetraRecordTemplate<>(first, second, third, fourth, this.constructor);
+    }
+
+    @Override
+    public List<PropertyTemplate<Instance, ?, ?>> properties() {
         return List.of(this.first, this.second, this.third, this.fourth);
     }
+
+    @Override
+    public TetraConstructor<A, B, C, D, Instance> constructor() {
+        return this.constructor;
+    }
 }
@@ -3,6 +3,8 @@ package com.manchickas.john.template.object.type;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.RecordTemplate;
 import com.manchickas.john.template.object.constructor.TriConstructor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
@@ -39,7 +41,22 @@ public final class TriRecordTemplate<A, B, C, Instance> extends RecordTemplate<I
     }
 
     @Override
-    protected List<PropertyTemplate<Instance, ?, ?>> properties() {
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var first = this.first.optimize(optimizer);
+        var second = this.second.optimize(optimizer);
+        var third = this.third.optimize(optimizer);
+        if (first == this.first && second == this.second && third == this.third)
+            return this;
+        return new TriRecordTemplate<>(first, second, third, this.constructor);
+    }
+
+    @Override
+    public List<PropertyTemplate<Instance, ?, ?>> properties() {
         return List.of(this.first, this.second, this.third);
     }
+
+    @Override
+    public TriConstructor<A, B, C, Instance> constructor() {
+        return this.constructor;
+    }
 }
@@ -3,6 +3,8 @@ package com.manchickas.john.template.object.type;
 import com.manchickas.john.ast.JsonElement;
 import com.manchickas.john.ast.JsonObject;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
 import com.manchickas.john.template.object.RecordTemplate;
 import com.manchickas.john.template.object.constructor.UniConstructor;
 import com.manchickas.john.template.object.property.PropertyTemplate;
@@ -31,7 +33,20 @@ public final class UniRecordTemplate<Instance, A> extends RecordTemplate<Instanc
     }
 
     @Override
-    protected List<PropertyTemplate<Instance, ?, ?>> properties() {
+    public Template<Instance> optimize(TemplateOptimizer optimizer) {
+        var first = this.first.optimize(optimizer);
+        if (first == this.first)
+            return this;
+        return new UniRecordTemplate<>(first, this.constructor);
+    }
+
+    @Override
+    public List<PropertyTemplate<Instance, ?, ?>> properties() {
         return List.of(this.first);
     }
+
+    @Override
+    public UniConstructor<A, Instance> constructor() {
+        return this.constructor;
+    }
 }
@@ -0,0 +1,187 @@
+package com.manchickas.john.template.string;
+
+import com.google.common.collect.ImmutableSet;
+import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
+import com.manchickas.john.ast.primitive.JsonString;
+import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
+import com.manchickas.john.template.Template;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.function.Function;
+
+public final class EnumTemplate<E extends Enum<E>> implements Template<E> {
+
+    private static final int MAX_MULTIPLIERS = 64;
+    private static final int MAX_BITS = 16;
+
+    private final Class<E> type;
+    private final Function<E, String> naming;
+    private final boolean caseSensitive;
+    /**
+     * The serialized name of each constant, indexed by its ordinal.
+     */
+    private final JsonString[] serialized;
+    private final String[] slotNames;
+    private final E[] slotConstants;
+    private final int multiplier;
+    private final int shift;
+
+    public EnumTemplate(Class<E> type, Function<E, String> naming) {
+        this(type, naming, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private EnumTemplate(Class<E> type,
+                         Function<E, String> naming,
+                         boolean caseSensitive) {
+        this.type = type;
+        this.naming = naming;
+        this.caseSensitive = caseSensitive;
+        var constants = type.getEnumConstants();
+        var names = new String[constants.length];
+        this.serialized = new JsonString[constants.length];
+        for (var constant : constants) {
+            var name = naming.apply(constant);
+            names[constant.ordinal()] = name;
+            this.serialized[constant.ordinal()] = new JsonString(name);
+        }
+        this.assertDistinct(names);
+        var table = this.buildTable(names);
+        this.multiplier = table.multiplier();
+        this.shift = table.shift();
+        this.slotNames = new String[table.slots().length];
+        this.slotConstants = (E[]) Array.newInstance(type, table.slots().length);
+        for (var slot = 0; slot < table.slots().length; slot++) {
+            var index = table.slots()[slot];
+            if (index >= 0) {
+                this.slotNames[slot] = names[index];
+                this.slotConstants[slot] = constants[index];
+            }
+        }
+    }
+
+    /**
+     * Searches for a hash multiplier that maps every name onto a distinct slot, growing the table until one is found.
+     */
+    private Table buildTable(String[] names) {
+        var hashes = new int[names.length];
+        var minBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, names.length * 2 - 1));
+        for (var bits = minBits; bits <= MAX_BITS; bits++) {
+            var shift = 32 - bits;
+            for (var i = 0; i < MAX_MULTIPLIERS; i++) {
+                var multiplier = 31 + 2 * i;
+                for (var j = 0; j < names.length; j++)
+                    hashes[j] = this.hash(names[j], multiplier);
+                var slots = EnumTemplate.place(hashes, shift, 1 << bits);
+                if (slots != null)
+                    return new Table(multiplier, shift, slots);
+            }
+        }
+        throw new IllegalArgumentException("Failed to build a perfect hash over the constants of '%s'."
+                .formatted(this.type.getName()));
+    }
+
+    private static int[] place(int[] hashes, int shift, int size) {
+        var slots = new int[size];
+        Arrays.fill(slots, -1);
+        for (var i = 0; i < hashes.length; i++) {
+            var slot = hashes[i] >>> shift;
+            if (slots[slot] >= 0)
+                return null;
+            slots[slot] = i;
+        }
+        return slots;
+    }
+
+    /**
+     * Returns a <b>case-insensitive</b> version of the current {@link EnumTemplate}.
+     * <br><br>
+     * Serialization is unaffected, and always produces the name provided by the naming function.
+     *
+     * @return a case-insensitive {@link EnumTemplate}
+     * @throws IllegalArgumentException if any two constants only differ in case.
+     */
+    public EnumTemplate<E> caseInsensitive() {
+        return new EnumTemplate<>(this.type, this.naming, false);
+    }
+
+    @Override
+    public Result<E> parse(JsonElement element) {
+        if (element instanceof JsonString string) {
+            var value = string.value();
+            var slot = this.hash(value, this.multiplier) >>> this.shift;
+            var name = this.slotNames[slot];
+            if (name != null && this.matches(name, value))
+                return Result.success(this.slotConstants[slot]);
+            return Result.mismatch();
+        }
+        return Result.mismatch();
+    }
+
+    @Override
+    public Result<JsonElement> serialize(E value) {
+        if (value != null)
+            return Result.success(this.serialized[value.ordinal()]);
+        return Result.mismatch();
+    }
+
+    @Override
+    public String name(IntSet encountered) {
+        var builder = new StringBuilder();
+        for (var i = 0; i < this.serialized.length; i++) {
+            if (i > 0)
+                builder.append(" | ");
+            builder.append('"')
+                    .append(this.serialized[i].value())
+                    .append('"');
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public Shape shape() {
+        var shape = Shape.of(JsonKind.STRING);
+        if (this.caseSensitive) {
+            var literals = ImmutableSet.<String>builderWithExpectedSize(this.serialized.length);
+            for (var name : this.serialized)
+                literals.add(name.value());
+            return shape.withLiterals(literals.build());
+        }
+        return shape;
+    }
+
+    private int hash(String value, int multiplier) {
+        var hash = 0;
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (!this.caseSensitive)
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            hash = multiplier * hash + c;
+        }
+        // Spreads the entropy into the upper bits, which are the ones that select the slot.
+        return hash * 0x9E3779B9;
+    }
+
+    private boolean matches(String name, String value) {
+        if (this.caseSensitive)
+            return name.equals(value);
+        return name.equalsIgnoreCase(value);
+    }
+
+    private void assertDistinct(String[] names) {
+        for (var i = 0; i < names.length; i++) {
+            for (var j = i + 1; j < names.length; j++) {
+                if (this.matches(names[i], names[j]))
+                    throw new IllegalArgumentException("The constants of '%s' share the name '%s'."
+                            .formatted(this.type.getName(), names[i]));
+            }
+        }
+    }
+
+    private record Table(int multiplier, int shift, int[] slots) {
+    }
+}
@@ -1,11 +1,15 @@
 package com.manchickas.john.template.string;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.ast.primitive.JsonString;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
+import java.util.Set;
+
 public final class LiteralTemplate implements Template<String> {
 
     private final String literal;
@@ -56,6 +60,14 @@ public final class LiteralTemplate implements Template<String> {
         return '"' + this.literal + '"';
     }
 
+    @Override
+    public Shape shape() {
+        var shape = Shape.of(JsonKind.STRING);
+        if (this.caseSensitive)
+            return shape.withLiterals(Set.of(this.literal));
+        return shape;
+    }
+
     private boolean matches(String value) {
         if (this.caseSensitive)
             return value.equals(this.literal);
@@ -1,8 +1,10 @@
 package com.manchickas.john.template.string;
 
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
 import com.manchickas.john.ast.primitive.JsonString;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
@@ -43,4 +45,9 @@ public final class PatternTemplate implements Template<String> {
     public String name(IntSet encountered) {
         return this.pattern.toString();
     }
+
+    @Override
+    public Shape shape() {
+        return Shape.of(JsonKind.STRING);
+    }
 }
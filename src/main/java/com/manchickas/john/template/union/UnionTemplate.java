@@ -1,23 +1,110 @@
 package com.manchickas.john.template.union;
 
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableMap;
 import com.manchickas.john.ast.JsonElement;
+import com.manchickas.john.ast.JsonKind;
+import com.manchickas.john.ast.JsonObject;
+import com.manchickas.john.ast.primitive.JsonString;
+import com.manchickas.john.parser.Projection;
 import com.manchickas.john.template.Result;
+import com.manchickas.john.template.Shape;
 import com.manchickas.john.template.Template;
+import com.manchickas.john.template.TemplateOptimizer;
+import com.manchickas.john.template.TemplateProjector;
+import com.manchickas.john.util.ArrayBuilder;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import org.jetbrains.annotations.ApiStatus;
 
-import java.util.Set;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 public final class UnionTemplate<T> implements Template<T> {
 
-    private final Set<Template<T>> templates;
+    private static final JsonKind[] KINDS = JsonKind.values();
 
+    private final Template<T>[] templates;
+    private final Shape shape;
+    /**
+     * The candidate branches for each {@link JsonKind}, indexed by its ordinal, in declaration order.
+     */
+    private final Branch<T>[][] candidates;
+    /**
+     * The candidate branches for strings that match a literal accepted by at least one branch, in declaration order.
+     */
+    private final Map<String, Branch<T>[]> literals;
+
+    @SuppressWarnings("unchecked")
     public UnionTemplate(Template<T>[] templates) {
-        this.templates = ImmutableSet.copyOf(templates);
+        // Templates don't override equals, so deduplicating by identity is equivalent,
+        // and avoids initializing lazy templates through their hashCode.
+        var unique = new ReferenceLinkedOpenHashSet<Template<T>>(templates);
+        this.templates = unique.toArray(Template[]::new);
+        var shapes = new Shape[this.templates.length];
+        var shape = Shape.NONE;
+        for (var i = 0; i < this.templates.length; i++) {
+            shapes[i] = this.templates[i].shape();
+            shape = shape.or(shapes[i]);
+        }
+        this.shape = shape;
+        this.candidates = (Branch<T>[][]) new Branch<?>[KINDS.length][];
+        for (var kind : KINDS) {
+            var builder = ArrayBuilder.<Branch<T>>builder();
+            for (var i = 0; i < this.templates.length; i++) {
+                var s = shapes[i];
+                if (s.accepts(kind) && (kind != JsonKind.STRING || s.literals() == null))
+                    builder.append(Branch.of(this.templates[i], s));
+            }
+            this.candidates[kind.ordinal()] = builder.build(Branch[]::new);
+        }
+        this.literals = UnionTemplate.indexLiterals(this.templates, shapes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Map<String, Branch<T>[]> indexLiterals(Template<T>[] templates, Shape[] shapes) {
+        var values = new LinkedHashSet<String>();
+        for (var shape : shapes) {
+            if (shape.accepts(JsonKind.STRING) && shape.literals() != null)
+                values.addAll(shape.literals());
+        }
+        var index = ImmutableMap.<String, Branch<T>[]>builderWithExpectedSize(values.size());
+        for (var value : values) {
+            var builder = ArrayBuilder.<Branch<T>>builder();
+            for (var i = 0; i < templates.length; i++) {
+                var shape = shapes[i];
+                if (!shape.accepts(JsonKind.STRING))
+                    continue;
+                var literals = shape.literals();
+                if (literals == null || literals.contains(value))
+                    builder.append(Branch.of(templates[i], shape));
+            }
+            index.put(value, builder.build(Branch[]::new));
+        }
+        return index.build();
     }
 
     @Override
     public Result<T> parse(JsonElement element) {
+        if (element == null)
+            return this.parseExhaustively(null);
+        var kind = element.kind();
+        var candidates = this.candidates[kind.ordinal()];
+        if (kind == JsonKind.STRING && !this.literals.isEmpty()) {
+            var value = ((JsonString) element).value();
+            candidates = this.literals.getOrDefault(value, candidates);
+        }
+        for (var candidate : candidates) {
+            if (kind == JsonKind.OBJECT && !candidate.admits((JsonObject) element))
+                continue;
+            var result = candidate.template.parse(element);
+            if (result.isSuccess())
+                return result;
+        }
+        return Result.mismatch();
+    }
+
+    private Result<T> parseExhaustively(JsonElement element) {
         for (var template : this.templates) {
             var result = template.parse(element);
             if (result.isSuccess())
@@ -47,4 +134,64 @@ public final class UnionTemplate<T> implements Template<T> {
         }
         return builder.toString();
     }
+
+    @Override
+    public Shape shape() {
+        return this.shape;
+    }
+
+    /**
+     * Optimizes every branch, flattening the branches of nested unions into the current one.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Template<T> optimize(TemplateOptimizer optimizer) {
+        var builder = ArrayBuilder.<Template<T>>builderWithExpectedSize(this.templates.length);
+        var changed = false;
+        for (var template : this.templates) {
+            var optimized = optimizer.optimize(template);
+            if (optimized instanceof UnionTemplate<T> union) {
+                builder.appendAll(union.templates);
+                changed = true;
+                continue;
+            }
+            changed |= optimized != template;
+            builder.append(optimized);
+        }
+        if (changed)
+            return new UnionTemplate<>(builder.build(Template[]::new));
+        return this;
+    }
+
+    /**
+     * Keeps everything any of the branches could read, since the matching branch isn't known in advance.
+     */
+    @Override
+    public Projection projection(TemplateProjector projector) {
+        var projection = Projection.none();
+        for (var template : this.templates)
+            projection = Projection.merge(projection, projector.project(template));
+        return projection;
+    }
+
+    @ApiStatus.Internal
+    public List<Template<T>> templates() {
+        return List.of(this.templates);
+    }
+
+    private record Branch<T>(Template<T> template, String[] requiredKeys) {
+
+        private static <T> Branch<T> of(Template<T> template, Shape shape) {
+            return new Branch<>(template, shape.requiredKeys()
+                    .toArray(String[]::new));
+        }
+
+        private boolean admits(JsonObject object) {
+            for (var key : this.requiredKeys) {
+                if (object.find(key) == null)
+                    return false;
+            }
+            return true;
+        }
+    }
 }
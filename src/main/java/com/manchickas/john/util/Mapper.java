@@ -10,16 +10,20 @@ public interface Mapper<T, V> {
 
     V map(T value) throws Throwable;
 
+    static <V> Result<V> wrapFailure(Throwable t, Supplier<SourceSpan> span) {
+        if (t instanceof Error e)
+            throw e;
+        var message = t.getMessage();
+        return message != null
+                ? Result.error(message, span.get())
+                : Result.mismatch();
+    }
+
     default Result<V> mapAndWrap(T value, Supplier<SourceSpan> span) {
         try {
             return Result.success(this.map(value));
         } catch (Throwable t) {
-            if (t instanceof Error e)
-                throw e;
-            var message = t.getMessage();
-            return message != null
-                    ? Result.error(t.getMessage(), span.get())
-                    : Result.mismatch();
+            return Mapper.wrapFailure(t, span);
         }
     }
 }
@@ -0,0 +1,105 @@
+package com.manchickas.john.benchmark;
+
+import com.manchickas.john.John;
+import com.manchickas.john.exception.JsonException;
+import com.manchickas.john.parser.Parser;
+
+import java.util.Arrays;
+
+/**
+ * Compares parsing small messages with a freshly created {@link Parser} against parsing them with a single
+ * {@link Parser#reset(CharSequence) reset} one, and with {@link John#parse(String)}, which reuses a parser per thread.
+ * <br><br>
+ * The benchmark is meant to be run by hand, rather than as part of the test suite, by running its {@code main} method
+ * on the test classpath, and accepts the number of messages parsed per round as its only, optional, argument.
+ * <br><br>
+ * The rounds of the configurations are interleaved, so that any drift in the speed of the machine affects
+ * all of them alike. Each configuration reports the median and the minimum number of nanoseconds per message
+ * over its rounds, along with the number of bytes it allocates per message.
+ *
+ * @since 3.1.0
+ */
+public final class ParserResetBenchmark {
+
+    private static final String TINY = "{\"id\":42}";
+    private static final String SMALL = "{\"id\":42,\"name\":\"Alice\",\"active\":true,\"tags\":[\"admin\",\"ops\"],\"score\":97.5,\"manager\":null}";
+    private static final String[] CONFIGURATIONS = {"fresh parser", "reset parser", "John.parse"};
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+    /**
+     * Accumulates the results of each round, so that the parsing cannot be eliminated as dead code.
+     */
+    private static volatile int sink;
+
+    private ParserResetBenchmark() {
+    }
+
+    public static void main(String[] args) throws JsonException {
+        var messages = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        for (var message : new String[]{TINY, SMALL}) {
+            System.out.printf("%d byte message, %d messages per round%n", message.length(), messages);
+            for (var i = 0; i < WARMUP_ROUNDS; i++) {
+                for (var configuration = 0; configuration < CONFIGURATIONS.length; configuration++)
+                    ParserResetBenchmark.sink += ParserResetBenchmark.round(message, messages, configuration);
+            }
+            var rounds = new double[CONFIGURATIONS.length][MEASURED_ROUNDS];
+            var allocated = new double[CONFIGURATIONS.length];
+            for (var i = 0; i < MEASURED_ROUNDS; i++) {
+                for (var configuration = 0; configuration < CONFIGURATIONS.length; configuration++) {
+                    var bytes = ParserResetBenchmark.allocatedBytes();
+                    var start = System.nanoTime();
+                    ParserResetBenchmark.sink += ParserResetBenchmark.round(message, messages, configuration);
+                    rounds[configuration][i] = (double) (System.nanoTime() - start) / messages;
+                    allocated[configuration] += (double) (ParserResetBenchmark.allocatedBytes() - bytes) / messages / MEASURED_ROUNDS;
+                }
+            }
+            for (var configuration = 0; configuration < CONFIGURATIONS.length; configuration++) {
+                var times = rounds[configuration];
+                Arrays.sort(times);
+                System.out.printf("  %-12s median %8.1f ns/msg, min %8.1f ns/msg, %6.0f B/msg%n",
+                        CONFIGURATIONS[configuration], times[MEASURED_ROUNDS / 2], times[0], allocated[configuration]);
+            }
+        }
+    }
+
+    /**
+     * Parses the {@code message} the provided number of times, returning a value derived from the results.
+     */
+    private static int round(String message, int messages, int configuration) throws JsonException {
+        var result = 0;
+        switch (configuration) {
+            case 0 -> {
+                for (var i = 0; i < messages; i++)
+                    result += new Parser(message).parse()
+                            .hashCode();
+            }
+            case 1 -> {
+                var parser = new Parser("");
+                for (var i = 0; i < messages; i++) {
+                    try {
+                        result += parser.reset(message)
+                                .parse()
+                                .hashCode();
+                    } finally {
+                        parser.release();
+                    }
+                }
+            }
+            default -> {
+                for (var i = 0; i < messages; i++)
+                    result += John.parse(message)
+                            .hashCode();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far, or {@code 0} if the JVM doesn't track it.
+     */
+    private static long allocatedBytes() {
+        if (java.lang.management.ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+            return bean.getCurrentThreadAllocatedBytes();
+        return 0;
+    }
+}